@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Throughput and tail latency of the read API with platform request threads, virtual threads and the
+# reactive (WebFlux + R2DBC) stack, at 1k-10k concurrent clients. All runs use the same jar, database and
+# 20 database connections; the servlet runs also share the Tomcat connection limits. Results are appended to
+# benchmarks/target/load-test.csv.
+#
+# Needs Java 21, a jar built with `mvn -Pjava21 package -DskipTests` (and `mvn -Pjava21 install -DskipTests`
+# for the benchmarks module), and the docker-compose Postgres with data loaded: `docker-compose up -d database`.
+#
+#   CLIENTS=1000,5000,10000 DURATION=PT60S benchmarks/load-test.sh
+#   MODES="platform reactive" benchmarks/load-test.sh
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+JAR=${JAR:-target/InternSwiftCodesProject-0.0.1-SNAPSHOT-exec.jar}
+DB_URL=${DB_URL:-jdbc:postgresql://localhost:5432/swiftdb}
+DB_USER=${POSTGRES_USER:-postgres}
+DB_PASSWORD=${POSTGRES_PASSWORD:-password}
+PORT=${PORT:-8080}
+CLIENTS=${CLIENTS:-1000,2500,5000,10000}
+WARMUP=${WARMUP:-PT10S}
+DURATION=${DURATION:-PT30S}
+# The reactive profile only serves the code and country reads, so the default paths stick to those
+PATHS=${PATHS:-/v1/swift-codes/country/PL,/v1/swift-codes/country/US}
+MODES=${MODES:-platform virtual reactive}
+
+# Every client holds a socket on both sides
+ulimit -n 65536 2>/dev/null || echo "warning: could not raise the open file limit; 10k clients may fail" >&2
+
+mvn -q -f benchmarks/pom.xml compile
+
+for mode in $MODES; do
+    case "$mode" in
+        platform) profile=default ;;
+        virtual) profile=virtual-threads ;;
+        reactive) profile=reactive ;;
+        *) echo "unknown mode: $mode" >&2; exit 1 ;;
+    esac
+    # -Djdk.tracePinnedThreads prints a stack trace whenever a virtual thread blocks while pinned to its carrier
+    java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+        --spring.profiles.active="$profile" \
+        --server.port="$PORT" \
+        --spring.datasource.url="$DB_URL" \
+        --spring.datasource.username="$DB_USER" \
+        --spring.datasource.password="$DB_PASSWORD" \
+        --spring.datasource.hikari.maximum-pool-size=20 \
+        --swift.reactive.r2dbc.url="${DB_URL/jdbc:/r2dbc:pool:}?initialSize=10&maxSize=20" \
+        --server.tomcat.max-connections=12000 \
+        --server.tomcat.accept-count=1000 \
+        > "benchmarks/target/load-test-$mode.log" 2>&1 &
+    app=$!
+    trap 'kill $app 2>/dev/null || true' EXIT
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        kill -0 $app 2>/dev/null || { echo "application failed to start, see benchmarks/target/load-test-$mode.log" >&2; exit 1; }
+        sleep 1
+    done
+
+    mvn -q -f benchmarks/pom.xml exec:exec@load-test -Dload.args="--url=http://localhost:$PORT --paths=$PATHS \
+        --clients=$CLIENTS --warmup=$WARMUP --duration=$DURATION --label=$mode --out=target/load-test.csv"
+
+    kill $app
+    wait $app 2>/dev/null || true
+done
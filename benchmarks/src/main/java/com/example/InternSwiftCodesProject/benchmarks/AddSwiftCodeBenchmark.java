@@ -0,0 +1,61 @@
+package com.example.InternSwiftCodesProject.benchmarks;
+
+import com.example.InternSwiftCodesProject.SwiftCode;
+import com.example.InternSwiftCodesProject.controllers.SWIFTCodeController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Validation cost of POST /v1/swift-codes: a request rejected by the format checks alone, and one that
+// passes them and the duplicate lookup before failing the country name check. Neither writes to the table.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddSwiftCodeBenchmark {
+    @Param({"10000", "1000000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private SWIFTCodeController controller;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.load(context, new SyntheticSwiftCodes(rows, 9));
+        controller = context.getBean(SWIFTCodeController.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> rejectedByFormat() {
+        // The controller normalises the request in place, so every call needs a fresh one
+        return controller.addSwiftCode(new SwiftCode("BAD-CODE!XX", "Bank", "Some Street 1", "PL", "POLAND", false));
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> rejectedAfterDuplicateCheck() {
+        return controller.addSwiftCode(new SwiftCode("ZZZZPLPW001", "Bank", "Some Street 1", "PL", "GERMANY", false));
+    }
+}
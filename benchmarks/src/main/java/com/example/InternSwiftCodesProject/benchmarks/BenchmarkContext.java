@@ -0,0 +1,50 @@
+package com.example.InternSwiftCodesProject.benchmarks;
+
+import com.example.InternSwiftCodesProject.InternSwiftCodesProject;
+import com.example.InternSwiftCodesProject.services.BulkImportResult;
+import com.example.InternSwiftCodesProject.services.SwiftCodeBulkImporter;
+import com.example.InternSwiftCodesProject.services.SwiftCodeDetailsCache;
+import com.example.InternSwiftCodesProject.services.SwiftCodePrefixIndex;
+import com.example.InternSwiftCodesProject.services.SwiftDirectory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Boots the application against an embedded H2 database for one benchmark trial
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        // Passed as arguments rather than default properties so they win over application.properties
+        return new SpringApplicationBuilder(InternSwiftCodesProject.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        // Measure the real lookups, not the response cache
+                        "--swift.cache.details.max-size=0");
+    }
+
+    // Replace the table contents with generated rows through the bulk import path
+    static BulkImportResult load(ConfigurableApplicationContext context, SyntheticSwiftCodes codes) {
+        clear(context);
+        return context.getBean(SwiftCodeBulkImporter.class).importRecords(codes.iterator());
+    }
+
+    static void clear(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("UPDATE swift_codes SET headquarter_swift = NULL");
+        jdbcTemplate.update("DELETE FROM swift_codes");
+        // The rows went away behind the services' back, so refresh their in-memory views
+        context.getBean(SwiftCodePrefixIndex.class).reload();
+        context.getBean(SwiftDirectory.class).reload();
+        context.getBean(SwiftCodeDetailsCache.class).invalidateAll();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.InternSwiftCodesProject.benchmarks;
+
+import com.example.InternSwiftCodesProject.controllers.SWIFTCodeController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+// GET /v1/swift-codes/country/{countryISO2} for a large (US, ~30% of rows), medium (PL, ~5%) and
+// small (MT, ~0.1%) country, next to the first keyset page of the same country
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CountryListingBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    @Param({"US", "PL", "MT"})
+    String country;
+
+    private ConfigurableApplicationContext context;
+    private SWIFTCodeController controller;
+    // Without a response the request object keeps no state, so one instance serves every invocation
+    private final ServletWebRequest unconditional = new ServletWebRequest(new MockHttpServletRequest());
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.load(context, new SyntheticSwiftCodes(rows, 9));
+        controller = context.getBean(SWIFTCodeController.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> fullListing() {
+        return controller.getSwiftCodesByCountry(country, unconditional);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> firstPage() {
+        return controller.getSwiftCodesByCountryPage(country, null, 100, unconditional);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.InternSwiftCodesProject.benchmarks;
+
+import com.example.InternSwiftCodesProject.services.BulkImportResult;
+import com.example.InternSwiftCodesProject.services.CSVParserService;
+import com.example.InternSwiftCodesProject.services.ImportMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Time to import a generated CSV into an empty table: the legacy row-by-row path (parseAndStoreSwiftData)
+// versus the batched pipeline, and the pipeline fed from a gzip upload (decompressed as a stream). Each
+// measurement is one full import; throughput = rows / score.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CsvImportBenchmark {
+    // The row-by-row path needs minutes for 100k rows; pass -p rows=... to go further
+    @Param({"10000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private CSVParserService csvParserService;
+    private byte[] csv;
+    private byte[] csvGzip;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        csvParserService = context.getBean(CSVParserService.class);
+        csv = new SyntheticSwiftCodes(rows, 9).toCsv();
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(csv);
+        }
+        csvGzip = gzip.toByteArray();
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTable() {
+        BenchmarkContext.clear(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void rowByRow() {
+        csvParserService.parseAndStoreSwiftData(new ByteArrayInputStream(csv));
+    }
+
+    @Benchmark
+    public Object bulkPipeline() {
+        return csvParserService.bulkImportSwiftData(new ByteArrayInputStream(csv));
+    }
+
+    @Benchmark
+    public Object bulkPipelineGzip() throws IOException {
+        BulkImportResult result = new BulkImportResult();
+        csvParserService.importSwiftData(new GZIPInputStream(new ByteArrayInputStream(csvGzip)), result, ImportMode.APPEND);
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.InternSwiftCodesProject.benchmarks;
+
+import com.example.InternSwiftCodesProject.SwiftCode;
+import com.example.InternSwiftCodesProject.services.MappedCsvReader;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Parsing only (no validation or database): a generated BIC-layout CSV file read through BufferedReader and
+// Commons CSV, mapped to SwiftCode the way CSVParserService does, versus MappedCsvReader with 1 and N threads.
+// Each measurement parses the whole file; throughput = rows / score. threads only applies to the mapped reader.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CsvParseBenchmark {
+    @Param({"1000000"})
+    int rows;
+
+    @Param({"1", "4"})
+    int threads;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("swift-parse-benchmark", ".csv");
+        Files.write(file, new SyntheticSwiftCodes(rows, 9).toCsv());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void commonsCsv(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file)))) {
+            CSVParser csvParser = CSVParser.parse(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader());
+            for (CSVRecord record : csvParser) {
+                blackhole.consume(new SwiftCode(
+                        record.get("SWIFT CODE").trim(),
+                        record.get("NAME").trim(),
+                        record.get("ADDRESS").trim(),
+                        record.get("COUNTRY ISO2 CODE").trim().toUpperCase(),
+                        record.get("COUNTRY NAME").trim().toUpperCase(),
+                        record.get("SWIFT CODE").trim().endsWith("XXX")
+                ));
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapped(Blackhole blackhole) throws IOException {
+        try (MappedCsvReader reader = MappedCsvReader.open(file, threads, null)) {
+            reader.forEachRemaining(blackhole::consume);
+        }
+    }
+}
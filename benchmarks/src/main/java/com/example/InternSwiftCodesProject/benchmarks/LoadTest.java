@@ -0,0 +1,182 @@
+package com.example.InternSwiftCodesProject.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+// Closed-loop HTTP load generator for comparing platform and virtual request threads (see load-test.sh).
+// Each of N clients sends a GET, waits for the response and sends the next one until the run ends. The clients
+// are asynchronous (java.net.http), so 10k of them do not need 10k threads on the load side.
+//
+//   mvn -f benchmarks/pom.xml compile exec:exec@load-test -Dload.args="--clients=1000,10000 --label=virtual"
+//
+// Options (--name=value): url, paths (comma-separated, requests rotate over them), clients (comma-separated levels),
+// warmup and duration (ISO-8601, per level), label (first CSV column) and out (CSV file results are appended to)
+public final class LoadTest {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private LoadTest() {
+    }
+
+    record Result(int clients, long requests, long errors, double throughput,
+                  double p50, double p90, double p99, double p999, double max) {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        List<URI> targets = new ArrayList<>();
+        for (String path : options.getOrDefault("paths", "/v1/swift-codes/country/PL,/v1/swift-codes/prefix/AAAA").split(",")) {
+            targets.add(URI.create(url + path.trim()));
+        }
+        int[] levels = Arrays.stream(options.getOrDefault("clients", "1000,2500,5000,10000").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT10S"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT30S"));
+        String label = options.getOrDefault("label", "run");
+        Path out = Path.of(options.getOrDefault("out", "target/load-test.csv"));
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        System.out.printf("%-10s %8s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "label", "clients", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (int clients : levels) {
+            run(http, targets, clients, warmup);
+            Result result = run(http, targets, clients, duration);
+            System.out.printf("%-10s %8d %10d %8d %10.0f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    label, result.clients(), result.requests(), result.errors(), result.throughput(),
+                    result.p50(), result.p90(), result.p99(), result.p999(), result.max());
+            append(out, label, result);
+        }
+    }
+
+    static Result run(HttpClient http, List<URI> targets, int clients, Duration duration) throws InterruptedException {
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        CountDownLatch finished = new CountDownLatch(clients);
+        List<Client> all = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(http, targets, i, deadline, finished);
+            all.add(client);
+            client.send();
+        }
+        finished.await();
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        // The latch publishes every client's latencies; each client only ever ran one request at a time
+        long errors = 0;
+        int count = 0;
+        for (Client client : all) {
+            errors += client.errors;
+            count += client.count;
+        }
+        long[] latencies = new long[count];
+        int offset = 0;
+        for (Client client : all) {
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            offset += client.count;
+        }
+        Arrays.sort(latencies);
+        return new Result(clients, count + errors, errors, count / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), count == 0 ? 0 : latencies[count - 1] / 1e6);
+    }
+
+    // One simulated user: the next request is sent from the completion of the previous one
+    private static final class Client {
+        private final HttpClient http;
+        private final List<URI> targets;
+        private final long deadline;
+        private final CountDownLatch finished;
+        private int next;
+        private long[] latencies = new long[64];
+        private int count;
+        private long errors;
+
+        Client(HttpClient http, List<URI> targets, int index, long deadline, CountDownLatch finished) {
+            this.http = http;
+            this.targets = targets;
+            this.next = index; // spread the clients over the paths
+            this.deadline = deadline;
+            this.finished = finished;
+        }
+
+        void send() {
+            if (System.nanoTime() >= deadline) {
+                finished.countDown();
+                return;
+            }
+            HttpRequest request = HttpRequest.newBuilder(targets.get(next++ % targets.size()))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+            // Async continuation, so a request failing on the spot does not recurse on this stack
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenCompleteAsync((response, failure) -> {
+                        if (failure != null || response.statusCode() >= 500) {
+                            errors++;
+                        } else {
+                            record(System.nanoTime() - start);
+                        }
+                        send();
+                    });
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static void append(Path out, String label, Result result) throws IOException {
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        boolean header = Files.notExists(out);
+        String line = String.format(Locale.ROOT, "%s%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f%n",
+                header ? "label,clients,requests,errors,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms\n" : "",
+                label, result.clients(), result.requests(), result.errors(), result.throughput(),
+                result.p50(), result.p90(), result.p99(), result.p999(), result.max());
+        Files.writeString(out, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.InternSwiftCodesProject.benchmarks;
+
+import com.example.InternSwiftCodesProject.services.SwiftSnapshotFile;
+import com.example.InternSwiftCodesProject.services.SwiftSnapshots;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Boot-time cost of the binary directory snapshot: mapping, verifying and decoding a snapshot of N rows
+// (what startup does instead of the CSV import, see CsvImportBenchmark), and writing one from the table
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SnapshotLoadBenchmark {
+    @Param({"150000"})
+    int rows;
+
+    @Param({"true", "false"})
+    boolean compress;
+
+    private ConfigurableApplicationContext context;
+    private SwiftSnapshots snapshots;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        BenchmarkContext.load(context, new SyntheticSwiftCodes(rows, 9));
+        file = Files.createTempDirectory("swift-snapshot-benchmark").resolve("directory.snap");
+        snapshots = new SwiftSnapshots(context.getBean(JdbcTemplate.class), file.toString(), compress, false);
+        snapshots.write();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public SwiftSnapshotFile.Contents read() throws IOException {
+        return SwiftSnapshotFile.read(file);
+    }
+
+    @Benchmark
+    public Map<String, Object> write() throws IOException {
+        return snapshots.write();
+    }
+}
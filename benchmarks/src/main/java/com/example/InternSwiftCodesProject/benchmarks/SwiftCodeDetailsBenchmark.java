@@ -0,0 +1,81 @@
+package com.example.InternSwiftCodesProject.benchmarks;
+
+import com.example.InternSwiftCodesProject.controllers.SWIFTCodeController;
+import com.example.InternSwiftCodesProject.services.SWIFTCodeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+// GET /v1/swift-codes/{swiftCode}: a headquarter with N branches versus a single branch, and a revalidation
+// answered with 304
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwiftCodeDetailsBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    @Param({"5", "50"})
+    int branchesPerBank;
+
+    private ConfigurableApplicationContext context;
+    private SWIFTCodeController controller;
+    private String headquarter;
+    private String branch;
+    private ServletWebRequest unconditional;
+    private MockHttpServletRequest revalidation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        SyntheticSwiftCodes codes = new SyntheticSwiftCodes(rows, branchesPerBank);
+        BenchmarkContext.load(context, codes);
+        controller = context.getBean(SWIFTCodeController.class);
+        int bank = codes.banks() / 2;
+        headquarter = codes.headquarterOf(bank);
+        branch = codes.branchOf(bank, 1);
+        // Without a response the request object keeps no state, so one instance serves every invocation
+        unconditional = new ServletWebRequest(new MockHttpServletRequest("GET", "/v1/swift-codes/" + headquarter));
+        revalidation = new MockHttpServletRequest("GET", "/v1/swift-codes/" + headquarter);
+        revalidation.addHeader("If-None-Match", context.getBean(SWIFTCodeService.class).getCodeVersion(headquarter).eTag());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> headquarterWithBranches() {
+        return controller.getSwiftCodeDetails(headquarter, unconditional);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> branch() {
+        return controller.getSwiftCodeDetails(branch, unconditional);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> headquarterNotModified() {
+        return controller.getSwiftCodeDetails(headquarter, new ServletWebRequest(revalidation));
+    }
+}
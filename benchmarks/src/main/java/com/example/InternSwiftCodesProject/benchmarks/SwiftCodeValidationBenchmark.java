@@ -0,0 +1,74 @@
+package com.example.InternSwiftCodesProject.benchmarks;
+
+import com.example.InternSwiftCodesProject.SwiftCode;
+import com.example.InternSwiftCodesProject.services.SwiftCodeValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// SWIFT code format check per code: the former length + String.matches check (the regex is compiled on every
+// call, and only length and alphanumerics are checked), the full ISO 9362 structure as a precompiled regex,
+// and SwiftCodeValidator's single loop. Inputs are the synthetic codes with every eighth one broken.
+// Run with -prof gc to compare allocation per operation as well.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwiftCodeValidationBenchmark {
+    private static final int CODES = 1024;
+    private static final Pattern BIC = Pattern.compile("^[A-Z]{4}[A-Z]{2}[A-Z0-9]{2}([A-Z0-9]{3})?$");
+
+    private final String[] swiftCodes = new String[CODES];
+    private final String[] countries = new String[CODES];
+    private final SwiftCodeValidator validator = new SwiftCodeValidator();
+
+    @Setup
+    public void setUp() {
+        SyntheticSwiftCodes synthetic = new SyntheticSwiftCodes(CODES, 9);
+        String[] broken = {"BANK@PLPW", "BANKPL", "BAN1PLPWXXX", "BANKDEFFXXX"};
+        for (int i = 0; i < CODES; i++) {
+            SwiftCode code = synthetic.codeAt(i);
+            swiftCodes[i] = i % 8 == 7 ? broken[i / 8 % broken.length] : code.getSwiftCode();
+            countries[i] = code.getCountryISO2();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CODES)
+    public void lengthAndMatches(Blackhole blackhole) {
+        for (String swiftCode : swiftCodes) {
+            blackhole.consume(swiftCode.length() >= 8 && swiftCode.length() <= 11 && swiftCode.matches("^[A-Za-z0-9]+$"));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CODES)
+    public void precompiledIsoRegex(Blackhole blackhole) {
+        for (int i = 0; i < CODES; i++) {
+            String swiftCode = swiftCodes[i];
+            blackhole.consume(BIC.matcher(swiftCode).matches() && swiftCode.regionMatches(4, countries[i], 0, 2));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CODES)
+    public void validator(Blackhole blackhole) {
+        for (int i = 0; i < CODES; i++) {
+            blackhole.consume(validator.validate(swiftCodes[i], countries[i]));
+        }
+    }
+}
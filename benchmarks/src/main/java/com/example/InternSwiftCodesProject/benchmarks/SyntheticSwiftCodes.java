@@ -0,0 +1,105 @@
+package com.example.InternSwiftCodesProject.benchmarks;
+
+import com.example.InternSwiftCodesProject.SwiftCode;
+import com.example.InternSwiftCodesProject.services.SWIFTCodeService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Deterministic generator of valid SWIFT codes: banks of one headquarter (XXX) and N branches, spread over
+// countries with a skewed distribution so there are large (US, DE), medium (PL) and small (MT) countries
+public final class SyntheticSwiftCodes {
+    private static final String[] COUNTRIES = {"US", "DE", "GB", "FR", "JP", "IT", "ES", "PL", "NL", "CH", "MT"};
+    private static final int[] WEIGHTS = {300, 150, 120, 100, 80, 70, 60, 50, 40, 29, 1};
+    private static final int TOTAL_WEIGHT = 1000;
+    public static final String CSV_HEADER = "COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE";
+
+    private final int rows;
+    private final int branchesPerBank;
+
+    public SyntheticSwiftCodes(int rows, int branchesPerBank) {
+        if (branchesPerBank < 0 || branchesPerBank > 998) {
+            throw new IllegalArgumentException("branchesPerBank must be between 0 and 998");
+        }
+        this.rows = rows;
+        this.branchesPerBank = branchesPerBank;
+    }
+
+    public Iterator<SwiftCode> iterator() {
+        return new Iterator<>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < rows;
+            }
+
+            @Override
+            public SwiftCode next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return codeAt(row++);
+            }
+        };
+    }
+
+    public SwiftCode codeAt(int row) {
+        int bank = row / (branchesPerBank + 1);
+        int branch = row % (branchesPerBank + 1);
+        String country = countryOf(bank);
+        String swiftCode = prefixOf(bank) + (branch == 0 ? "XXX" : String.format("%03d", branch));
+        return new SwiftCode(swiftCode, "SYNTHETIC BANK " + bank, "STREET " + branch + ", CITY " + bank % 100,
+                country, SWIFTCodeService.getCorrectCountryName(country), branch == 0);
+    }
+
+    public String headquarterOf(int bank) {
+        return prefixOf(bank) + "XXX";
+    }
+
+    public String branchOf(int bank, int branch) {
+        return prefixOf(bank) + String.format("%03d", branch);
+    }
+
+    public int banks() {
+        return (rows + branchesPerBank) / (branchesPerBank + 1);
+    }
+
+    // The same rows in the upload/seed CSV format
+    public byte[] toCsv() {
+        StringBuilder csv = new StringBuilder(rows * 120).append(CSV_HEADER).append('\n');
+        for (int row = 0; row < rows; row++) {
+            SwiftCode code = codeAt(row);
+            csv.append(code.getCountryISO2()).append(',')
+                    .append(code.getSwiftCode()).append(",BIC11,")
+                    .append(code.getBankName()).append(",\"")
+                    .append(code.getAddress()).append("\",CITY,")
+                    .append(code.getCountryName()).append(",UTC\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Bank code (4 letters, unique per bank) + country + location
+    private String prefixOf(int bank) {
+        char[] bankCode = new char[4];
+        int value = bank;
+        for (int i = 3; i >= 0; i--) {
+            bankCode[i] = (char) ('A' + value % 26);
+            value /= 26;
+        }
+        return new String(bankCode) + countryOf(bank) + (char) ('A' + bank % 26) + (char) ('0' + bank % 10);
+    }
+
+    private static String countryOf(int bank) {
+        // Multiplicative hash spreads consecutive banks over the weighted buckets
+        int bucket = (int) ((bank * 2654435761L) % TOTAL_WEIGHT);
+        for (int i = 0; i < COUNTRIES.length; i++) {
+            bucket -= WEIGHTS[i];
+            if (bucket < 0) {
+                return COUNTRIES[i];
+            }
+        }
+        return COUNTRIES[COUNTRIES.length - 1];
+    }
+}
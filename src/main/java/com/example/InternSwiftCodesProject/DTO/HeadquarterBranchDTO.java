@@ -0,0 +1,11 @@
+package com.example.InternSwiftCodesProject.DTO;
+
+// A branch row together with its headquarter's code, so the branches of many headquarters can be
+// fetched in one projection query and grouped in memory
+public record HeadquarterBranchDTO(String headquarterSwift, String address, String bankName, String countryISO2,
+                                   String countryName, boolean isHeadquarter, String swiftCode) {
+
+    public SWIFTCodeDTO toDto() {
+        return new SWIFTCodeDTO(address, bankName, countryISO2, countryName, isHeadquarter, swiftCode);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.InternSwiftCodesProject;
+
+import com.example.InternSwiftCodesProject.DTO.SWIFTCodeDTO;
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// R2DBC counterparts of the DTO projections in SWIFTCodeRepo used by the read endpoints, for the "reactive" profile.
+// Plain SQL on the same swift_codes table and indexes; rows are mapped straight to the shared DTOs.
+// The connection factory is private to this class: a ConnectionFactory bean would make Spring Boot skip the
+// DataSource that JPA, Flyway and the in-memory indexes still need.
+@Repository
+@Profile("reactive")
+public class ReactiveSWIFTCodeRepo {
+    private static final String SELECT_DTO = "SELECT address, bank_name, countryiso2, country_name, headquarter_flag, swift_code "
+            + "FROM swift_codes ";
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+
+    // Constructor-based dependency injection; an r2dbc:pool: URL gives a pooled factory sized by its options
+    public ReactiveSWIFTCodeRepo(@Value("${swift.reactive.r2dbc.url}") String url,
+                                 @Value("${spring.datasource.username}") String username,
+                                 @Value("${spring.datasource.password}") String password) {
+        this.connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionFactory instanceof Closeable closeable) {
+            Mono.from(closeable.close()).block();
+        }
+    }
+
+    // SWIFTCodeRepo.findDtoBySwiftCode
+    public Mono<SWIFTCodeDTO> findDtoBySwiftCode(String swiftCode) {
+        return databaseClient.sql(SELECT_DTO + "WHERE swift_code = :swiftCode")
+                .bind("swiftCode", swiftCode)
+                .map(ReactiveSWIFTCodeRepo::toDto)
+                .one();
+    }
+
+    // SWIFTCodeRepo.findBranchDtosByHeadquarter
+    public Flux<SWIFTCodeDTO> findBranchDtosByHeadquarter(String headquarterSwift) {
+        return databaseClient.sql(SELECT_DTO + "WHERE headquarter_swift = :headquarterSwift ORDER BY swift_code")
+                .bind("headquarterSwift", headquarterSwift)
+                .map(ReactiveSWIFTCodeRepo::toDto)
+                .all();
+    }
+
+    // SWIFTCodeRepo.findDtosByCountryISO2; rows are emitted as the driver decodes them, not after the last one
+    public Flux<SWIFTCodeDTO> findDtosByCountryISO2(String countryISO2) {
+        return databaseClient.sql(SELECT_DTO + "WHERE countryiso2 = :countryISO2 ORDER BY swift_code")
+                .bind("countryISO2", countryISO2)
+                .map(ReactiveSWIFTCodeRepo::toDto)
+                .all();
+    }
+
+    private static SWIFTCodeDTO toDto(Readable row) {
+        return new SWIFTCodeDTO(
+                row.get("address", String.class),
+                row.get("bank_name", String.class),
+                row.get("countryiso2", String.class),
+                row.get("country_name", String.class),
+                Boolean.TRUE.equals(row.get("headquarter_flag", Boolean.class)),
+                row.get("swift_code", String.class)
+        );
+    }
+}
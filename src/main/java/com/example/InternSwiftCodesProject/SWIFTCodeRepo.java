@@ -1,21 +1,71 @@
 package com.example.InternSwiftCodesProject;
 
+import com.example.InternSwiftCodesProject.DTO.HeadquarterBranchDTO;
+import com.example.InternSwiftCodesProject.DTO.SWIFTCodeDTO;
+import com.example.InternSwiftCodesProject.DTO.SWIFTCodeSimpleDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
 public interface SWIFTCodeRepo extends JpaRepository<SwiftCode, String> {
     Optional<SwiftCode> findBySwiftCode(String swiftCode);
-    List<SwiftCode> findByCountryISO2IgnoreCase(String countryISO2);
+    // Exact match on the stored upper-case code, so the (countryiso2, swift_code) index serves filter and order
+    List<SwiftCode> findByCountryISO2OrderBySwiftCode(String countryISO2);
     List<SwiftCode> findByHeadquarter_SwiftCode(String headquarterSwiftCode);
-    List<SwiftCode> findBySwiftCodeStartingWithAndHeadquarterFlagFalse(String prefix);
     List<SwiftCode> findAll();
 
     boolean existsBySwiftCode(String upperCase);
 
-    List<SwiftCode> findByHeadquarterIsNullAndSwiftCodeStartingWith(String swiftPrefix);
-    List<SwiftCode> findByHeadquarter(SwiftCode headquarter);
+    // DTO projections for the read endpoints: they select scalar columns only, so no entities become managed
+    // and no headquarter rows are loaded. s.headquarter.swiftCode is the foreign key column, not a join.
+    String DTO_COLUMNS = "s.address, s.bankName, s.countryISO2, s.countryName, s.headquarterFlag, s.swiftCode";
+
+    @Query("SELECT new com.example.InternSwiftCodesProject.DTO.SWIFTCodeDTO(" + DTO_COLUMNS + ") "
+            + "FROM SwiftCode s WHERE s.swiftCode = :swiftCode")
+    Optional<SWIFTCodeDTO> findDtoBySwiftCode(@Param("swiftCode") String swiftCode);
+
+    @Query("SELECT new com.example.InternSwiftCodesProject.DTO.SWIFTCodeDTO(" + DTO_COLUMNS + ") "
+            + "FROM SwiftCode s WHERE s.swiftCode IN :swiftCodes")
+    List<SWIFTCodeDTO> findDtosBySwiftCodeIn(@Param("swiftCodes") Collection<String> swiftCodes);
+
+    @Query("SELECT new com.example.InternSwiftCodesProject.DTO.SWIFTCodeDTO(" + DTO_COLUMNS + ") "
+            + "FROM SwiftCode s WHERE s.countryISO2 = :countryISO2 ORDER BY s.swiftCode")
+    List<SWIFTCodeDTO> findDtosByCountryISO2(@Param("countryISO2") String countryISO2);
+
+    @Query("SELECT new com.example.InternSwiftCodesProject.DTO.SWIFTCodeSimpleDTO("
+            + "s.address, s.bankName, s.countryISO2, s.headquarterFlag, s.swiftCode) "
+            + "FROM SwiftCode s WHERE s.swiftCode IN :swiftCodes ORDER BY s.swiftCode")
+    List<SWIFTCodeSimpleDTO> findSimpleDtosBySwiftCodeIn(@Param("swiftCodes") Collection<String> swiftCodes);
+
+    @Query("SELECT new com.example.InternSwiftCodesProject.DTO.SWIFTCodeDTO(" + DTO_COLUMNS + ") "
+            + "FROM SwiftCode s WHERE s.headquarter.swiftCode = :headquarterSwift ORDER BY s.swiftCode")
+    List<SWIFTCodeDTO> findBranchDtosByHeadquarter(@Param("headquarterSwift") String headquarterSwift);
+
+    // Branches of several headquarters in one query, for grouping by headquarter in memory
+    @Query("SELECT new com.example.InternSwiftCodesProject.DTO.HeadquarterBranchDTO(s.headquarter.swiftCode, " + DTO_COLUMNS + ") "
+            + "FROM SwiftCode s WHERE s.headquarter.swiftCode IN :headquarterSwifts ORDER BY s.swiftCode")
+    List<HeadquarterBranchDTO> findBranchDtosByHeadquarterIn(@Param("headquarterSwifts") Collection<String> headquarterSwifts);
+
+    // Link every orphan branch of the bank prefix to the headquarter in one statement; returns the number linked
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE swift_codes SET headquarter_swift = :headquarterSwift "
+            + "WHERE bank_prefix = :bankPrefix AND headquarter_swift IS NULL AND headquarter_flag = FALSE",
+            nativeQuery = true)
+    int linkOrphanBranches(@Param("headquarterSwift") String headquarterSwift, @Param("bankPrefix") String bankPrefix);
+
+    // Detach all branches from the headquarter in one statement; returns the number unlinked
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE swift_codes SET headquarter_swift = NULL WHERE headquarter_swift = :headquarterSwift",
+            nativeQuery = true)
+    int unlinkBranches(@Param("headquarterSwift") String headquarterSwift);
 }
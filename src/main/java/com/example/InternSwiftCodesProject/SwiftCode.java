@@ -21,9 +21,19 @@ public class SwiftCode {
     private String countryISO2;
     private String countryName;
     private boolean  headquarterFlag;
-    @ManyToOne(cascade = CascadeType.MERGE)
+    // Lazy: loading a branch must not pull in its headquarter row; reading getHeadquarter().getSwiftCode()
+    // only needs the foreign key and does not initialise the proxy
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.MERGE)
     @JoinColumn(name="headquarter_swift", referencedColumnName = "swiftCode")
     private SwiftCode headquarter;
+    // First 8 characters of the code, stored so HQ/branch lookups can use an index (see V2 migration)
+    @Column(name = "bank_prefix", length = 8)
+    @Setter(AccessLevel.NONE)
+    private String bankPrefix;
+    // Hash of the imported content, compared by delta imports (see V3 migration and contentHashOf)
+    @Column(name = "content_hash")
+    @Setter(AccessLevel.NONE)
+    private Long contentHash;
 
     public SwiftCode(String swiftCode, String bankName, String address, String countryISO2, String countryName, boolean isHeadquarter) {
         this.swiftCode = swiftCode;
@@ -34,4 +44,33 @@ public class SwiftCode {
         this.headquarterFlag = isHeadquarter;
         this.headquarter = null;
     }
+
+    public static String bankPrefixOf(String swiftCode) {
+        return swiftCode.length() > 8 ? swiftCode.substring(0, 8) : swiftCode;
+    }
+
+    // 64-bit FNV-1a over the normalised content fields; the headquarter flag and bank prefix follow from the code
+    public static long contentHashOf(String bankName, String address, String countryISO2, String countryName) {
+        long hash = 0xcbf29ce484222325L;
+        for (String field : new String[]{bankName, address, countryISO2, countryName}) {
+            if (field != null) {
+                for (int i = 0; i < field.length(); i++) {
+                    hash = (hash ^ field.charAt(i)) * 0x100000001b3L;
+                }
+            }
+            hash = (hash ^ 0x1f) * 0x100000001b3L; // field separator, so "ab","c" and "a","bc" differ
+        }
+        return hash;
+    }
+
+    public static long contentHashOf(SwiftCode swiftCode) {
+        return contentHashOf(swiftCode.getBankName(), swiftCode.getAddress(), swiftCode.getCountryISO2(), swiftCode.getCountryName());
+    }
+
+    @PrePersist
+    @PreUpdate
+    void deriveStoredColumns() {
+        this.bankPrefix = swiftCode != null ? bankPrefixOf(swiftCode) : null;
+        this.contentHash = contentHashOf(this);
+    }
 }
@@ -1,45 +1,132 @@
 package com.example.InternSwiftCodesProject.controllers;
 
-import com.example.InternSwiftCodesProject.services.CSVParserService;
+import com.example.InternSwiftCodesProject.services.CsvImportPipeline;
+import com.example.InternSwiftCodesProject.services.ImportMode;
+import com.example.InternSwiftCodesProject.services.UploadFormat;
+import com.example.InternSwiftCodesProject.services.UploadJob;
+import com.example.InternSwiftCodesProject.services.UploadJobService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Objects;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
 
 
 @RestController
+@Profile("!reactive") // multipart uploads are servlet-only
 
 
 @RequestMapping("/upload")
 public class CsvUploadController {
-    private final CSVParserService csvParserService;
+    private final CsvImportPipeline importPipeline;
+    private final UploadJobService uploadJobService;
     // Constructor-based dependency injection
-    public CsvUploadController(CSVParserService csvParserService) {
-        this.csvParserService = csvParserService;
+    public CsvUploadController(CsvImportPipeline importPipeline, UploadJobService uploadJobService) {
+        this.importPipeline = importPipeline;
+        this.uploadJobService = uploadJobService;
     }
 
     @PostMapping("/swift")
-        public ResponseEntity<String> uploadCSV(@RequestParam("file") MultipartFile file) {
+        public ResponseEntity<?> uploadCSV(@RequestParam("file") MultipartFile file,
+                                           @RequestParam(value = "mode", defaultValue = "append") String mode) {
 
         // Check if file is empty
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().body("File is empty");
         }
-        // Check if the uploaded file has a .csv extension
-        if(!Objects.requireNonNull(file.getOriginalFilename()).endsWith(".csv")) {
-            return ResponseEntity.badRequest().body("Only CSV files are accepted.");
+        // Check if the uploaded file is a CSV, a gzip-compressed CSV or a ZIP archive of CSVs
+        if (UploadFormat.fromFileName(file.getOriginalFilename()).isEmpty()) {
+            return ResponseEntity.badRequest().body("Only .csv, .csv.gz and .zip files are accepted.");
+        }
+        // append: insert new codes only; delta: apply the file as the complete directory (inserts, updates, deletes);
+        // merge: inserts and updates only
+        Optional<ImportMode> importMode = ImportMode.fromParameter(mode);
+        if (importMode.isEmpty()) {
+            return ResponseEntity.badRequest().body("Unknown import mode '" + mode + "'. Use 'append', 'delta' or 'merge'.");
+        }
+        try {
+            // Queue the import and answer right away; progress is polled from the job endpoint
+            UploadJob job = uploadJobService.submit(file, importMode.get());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/upload/jobs/" + job.getId()))
+                    .body(job.snapshot());
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Too many uploads in progress. Try again later.");
+        } catch (Exception e) {
+            // Return the error message if the upload could not be stored for the import
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Import a CSV file that is already on the server, inside swift.import.local.directory: no upload or spooled
+    // copy, and the file is parsed memory-mapped on several threads. Runs as an upload job.
+    @PostMapping("/local")
+    public ResponseEntity<?> importLocalFile(@RequestParam("path") String path,
+                                             @RequestParam(value = "mode", defaultValue = "append") String mode) {
+        if (!uploadJobService.isLocalImportEnabled()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Local imports are disabled (swift.import.local.directory is not set).");
+        }
+        Optional<ImportMode> importMode = ImportMode.fromParameter(mode);
+        if (importMode.isEmpty()) {
+            return ResponseEntity.badRequest().body("Unknown import mode '" + mode + "'. Use 'append', 'delta' or 'merge'.");
+        }
+        Optional<Path> file = uploadJobService.resolveLocalFile(path);
+        if (file.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No CSV file '" + path + "' in the local import directory.");
         }
         try {
-            // Pass the file input stream to the parser service
-            csvParserService.parseAndStoreSwiftData(file.getInputStream());
-            return ResponseEntity.ok("Successfully uploaded");
-        }catch (Exception e) {
-            // Return the error message if something goes wrong during parsing
+            UploadJob job = uploadJobService.submitLocal(file.get(), importMode.get());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/upload/jobs/" + job.getId()))
+                    .body(job.snapshot());
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Too many uploads in progress. Try again later.");
+        } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    // Progress of an upload job: rows/sec, added/skipped/rejected counts and ETA
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId) {
+        Optional<UploadJob> job = uploadJobService.getJob(jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "error", "Upload job not found",
+                    "message", "No upload job with id " + jobId + " exists or it has expired."));
+        }
+        return ResponseEntity.ok(job.get().snapshot());
+    }
+
+    // Downloadable CSV of the rows a job skipped or rejected, with the reason for each
+    @GetMapping("/jobs/{jobId}/rejects")
+    public ResponseEntity<String> getJobRejects(@PathVariable String jobId) {
+        Optional<UploadJob> job = uploadJobService.getJob(jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Upload job not found");
+        }
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"rejects-" + jobId + ".csv\"")
+                .body(uploadJobService.renderRejectReport(job.get()));
+    }
+
+    // Queue depths and per-stage throughput of the import pipeline, for tuning workers and queue sizes
+    @GetMapping("/pipeline")
+    public ResponseEntity<Map<String, Object>> getPipelineStats() {
+        return ResponseEntity.ok(importPipeline.getStats());
+    }
 }
@@ -0,0 +1,151 @@
+package com.example.InternSwiftCodesProject.controllers;
+
+import com.example.InternSwiftCodesProject.DTO.SWIFTCodeDTO;
+import com.example.InternSwiftCodesProject.DTO.SWIFTCodeSimpleDTO;
+import com.example.InternSwiftCodesProject.ReactiveSWIFTCodeRepo;
+import com.example.InternSwiftCodesProject.services.SWIFTCodeService;
+import com.example.InternSwiftCodesProject.services.SwiftMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Non-blocking counterpart of the read endpoints of SWIFTCodeController, active with the "reactive" profile
+// (WebFlux on Netty, R2DBC). Same URLs, validation, DTOs and error bodies; write and upload endpoints are not served.
+@RestController
+@Profile("reactive")
+@RequestMapping("/v1/swift-codes")
+public class ReactiveSWIFTCodeController {
+    // Codes serialised into one buffer before it is written, so a large country is not one write per row
+    private static final int ROWS_PER_WRITE = 256;
+
+    private final ReactiveSWIFTCodeRepo reactiveRepo;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter codeWriter;
+    private final SwiftMetrics metrics;
+
+    // Constructor-based dependency injection
+    public ReactiveSWIFTCodeController(ReactiveSWIFTCodeRepo reactiveRepo, ObjectMapper objectMapper, SwiftMetrics metrics) {
+        this.reactiveRepo = reactiveRepo;
+        this.objectMapper = objectMapper;
+        this.codeWriter = objectMapper.writerFor(SWIFTCodeSimpleDTO.class);
+        this.metrics = metrics;
+    }
+
+    // Fetch full details of a SWIFT code (branch or HQ)
+    @GetMapping("/{swiftCode}")
+    public Mono<ResponseEntity<?>> getSwiftCodeDetails(@PathVariable String swiftCode) {
+        String code = swiftCode.trim().toUpperCase();
+
+        if (code.length() < 8 || code.length() > 11) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Invalid SWIFT code format");
+            errorResponse.put("message", "SWIFT code should be exactly 8 to 11 characters long");
+            return Mono.just(ResponseEntity.badRequest().body(errorResponse));
+        }
+
+        return reactiveRepo.findDtoBySwiftCode(code)
+                .flatMap(details -> details.isHeadquarter()
+                        ? reactiveRepo.findBranchDtosByHeadquarter(code).collectList().map(branches -> withBranches(details, branches))
+                        : Mono.just((Object) details))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .switchIfEmpty(Mono.fromSupplier(() -> notFound(code)));
+    }
+
+    // All codes of a country, written in chunks while the rows arrive
+    @GetMapping("/country/{countryISO2}")
+    public Mono<Void> getSwiftCodesByCountry(@PathVariable String countryISO2, ServerHttpResponse response) {
+        String iso2 = countryISO2.toUpperCase().trim();
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        if (!SWIFTCodeService.isValidCountryCode(iso2)) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Invalid country code");
+            errorResponse.put("message", "Country ISO2 code '" + iso2 + "' is not valid.");
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            return response.writeWith(Mono.fromCallable(() -> response.bufferFactory().wrap(objectMapper.writeValueAsBytes(errorResponse))));
+        }
+
+        return response.writeWith(countryListing(iso2, reactiveRepo.findDtosByCountryISO2(iso2), response));
+    }
+
+    // The response is committed by its first write, so the status only has to be settled before the first
+    // chunk leaves (200, the default) or before an empty listing completes (404, nothing written)
+    private Flux<DataBuffer> countryListing(String iso2, Flux<SWIFTCodeDTO> rows, ServerHttpResponse response) {
+        AtomicInteger written = new AtomicInteger();
+        // Same body as the servlet endpoint: {"countryISO2": ..., "countryName": ..., "swiftCodes": [...]}
+        Flux<byte[]> codes = rows.buffer(ROWS_PER_WRITE).map(chunk -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(chunk.size() * 160);
+            try {
+                for (SWIFTCodeDTO swiftCode : chunk) {
+                    if (written.getAndIncrement() > 0) {
+                        out.write(',');
+                    } else {
+                        out.write(("{\"countryISO2\":" + json(iso2) + ",\"countryName\":" + json(swiftCode.getCountryName())
+                                + ",\"swiftCodes\":[").getBytes(StandardCharsets.UTF_8));
+                    }
+                    out.write(codeWriter.writeValueAsBytes(new SWIFTCodeSimpleDTO(
+                            swiftCode.getAddress(),
+                            swiftCode.getBankName(),
+                            swiftCode.getCountryISO2(),
+                            swiftCode.isHeadquarter(),
+                            swiftCode.getSwiftCode()
+                    )));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        });
+
+        return codes
+                .concatWith(Mono.fromSupplier(() -> written.get() > 0 ? "]}".getBytes(StandardCharsets.UTF_8) : null))
+                .map(bytes -> response.bufferFactory().wrap(bytes))
+                .doOnComplete(() -> {
+                    if (written.get() == 0) {
+                        response.setStatusCode(HttpStatus.NOT_FOUND);
+                        response.getHeaders().setContentType(null);
+                    } else {
+                        metrics.recordCountryResponse(written.get());
+                    }
+                });
+    }
+
+    private Object withBranches(SWIFTCodeDTO headquarter, List<SWIFTCodeDTO> branches) {
+        metrics.recordBranchFanOut(branches.size());
+        return SWIFTCodeService.withBranches(headquarter, branches);
+    }
+
+    private String json(String value) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private static ResponseEntity<?> notFound(String swiftCode) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "SWIFT code not found");
+        errorResponse.put("message", "The SWIFT code is correctly formatted but does not exist in the database.");
+        errorResponse.put("expectedLength", "8 to 11 characters");
+        errorResponse.put("providedSwiftCode", swiftCode);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+}
@@ -1,27 +1,70 @@
 package com.example.InternSwiftCodesProject.controllers;
 
-import com.example.InternSwiftCodesProject.DTO.SWIFTCodeDTO;
 import com.example.InternSwiftCodesProject.DTO.SWIFTCodeSimpleDTO;
 import com.example.InternSwiftCodesProject.DTO.SwiftCodeWithBranchesDTO;
 import com.example.InternSwiftCodesProject.SwiftCode;
+import com.example.InternSwiftCodesProject.services.CountryListingCache;
+import com.example.InternSwiftCodesProject.services.CountryListingService;
 import com.example.InternSwiftCodesProject.services.SWIFTCodeService;
+import com.example.InternSwiftCodesProject.services.SwiftCodeValidator;
+import com.example.InternSwiftCodesProject.services.SwiftCodeVersions;
+import com.example.InternSwiftCodesProject.services.SwiftMetrics;
+import com.example.InternSwiftCodesProject.services.SwiftSnapshots;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 
+// Servlet (Spring MVC) API; with the "reactive" profile ReactiveSWIFTCodeController serves the reads instead
+@Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping("/v1/swift-codes")
 public class SWIFTCodeController {
+    private static final int MAX_RESULT_LIMIT = 1000;
     private final SWIFTCodeService swiftCodeService;
-    public SWIFTCodeController(SWIFTCodeService swiftCodeService) {
+    private final CountryListingService countryListingService;
+    private final ObjectMapper objectMapper;
+    private final SwiftMetrics metrics;
+    private final CacheControl cacheControl;
+    private final SwiftCodeValidator swiftCodeValidator;
+    private final SwiftSnapshots snapshots;
+    public SWIFTCodeController(SWIFTCodeService swiftCodeService, CountryListingService countryListingService,
+                               ObjectMapper objectMapper, SwiftMetrics metrics,
+                               @Value("${swift.http.cache.max-age:PT1M}") Duration maxAge,
+                               SwiftCodeValidator swiftCodeValidator, SwiftSnapshots snapshots) {
         this.swiftCodeService = swiftCodeService;
+        this.swiftCodeValidator = swiftCodeValidator;
+        this.snapshots = snapshots;
+        this.countryListingService = countryListingService;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        // Shared caches may keep a response for max-age and then revalidate it with its ETag
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
     }
 
     @GetMapping("/{swiftCode}")
     // Fetch full details of a SWIFT code (branch or HQ)
-    public ResponseEntity<?> getSwiftCodeDetails(@PathVariable String swiftCode) {
+    public ResponseEntity<?> getSwiftCodeDetails(@PathVariable String swiftCode, WebRequest webRequest) {
         Map<String, String> errorResponse = new HashMap<>();
         swiftCode=swiftCode.trim().toUpperCase();
 
@@ -32,113 +75,266 @@ public class SWIFTCodeController {
             return ResponseEntity.badRequest().body(errorResponse);
         }
 
-        // Fetch SWIFT code details from DB
-        Optional<SwiftCode> swiftCodeOptional = swiftCodeService.getSwiftCodeDetails(swiftCode);
+        // Only a known code is validated, so a 404 never carries an ETag that could later turn into a 304;
+        // a client that still has the current version gets 304 before anything is read or serialised
+        if (swiftCodeService.isKnownCode(swiftCode)
+                && isNotModified(webRequest, swiftCodeService.getCodeVersion(swiftCode))) {
+            return notModified();
+        }
 
+        // Fetch the response from the cache, or build it from the DB
+        Optional<Object> response = swiftCodeService.getSwiftCodeResponse(swiftCode);
 
         // Return 404 if not found
-        if (swiftCodeOptional.isEmpty()) {
+        if (response.isEmpty()) {
             errorResponse.put("error", "SWIFT code not found");
             errorResponse.put("message", "The SWIFT code is correctly formatted but does not exist in the database.");
             errorResponse.put("expectedLength", "8 to 11 characters");
             errorResponse.put("providedSwiftCode", swiftCode);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
         }
-//        if (swiftCodeOptional.isEmpty()) {
-//            return ResponseEntity.notFound().build();
-//        }
-
-        SwiftCode swiftCodeDetails = swiftCodeOptional.get();
-
-        // If the SWIFT code is a headquarter, include all its branches
-        if (swiftCodeDetails.isHeadquarterFlag()) {
-            List<SwiftCode> branchesList = swiftCodeService.getBranchesForHeadquarter(swiftCode);
-            List<SWIFTCodeDTO> branches = new ArrayList<>();
-
-            for (SwiftCode branch : branchesList) {
-                branches.add(new SWIFTCodeDTO(
-                        branch.getAddress(),
-                        branch.getBankName(),
-                        branch.getCountryISO2(),
-                        branch.getCountryName(),
-                        branch.isHeadquarterFlag(),
-                        branch.getSwiftCode()
-                ));
-            }
 
-            // Return detailed HQ data with all linked branches
-            SwiftCodeWithBranchesDTO response = new SwiftCodeWithBranchesDTO(
-                    swiftCodeDetails.getAddress(),
-                    swiftCodeDetails.getBankName(),
-                    swiftCodeDetails.getCountryISO2(),
-                    swiftCodeDetails.getCountryName(),
-                    swiftCodeDetails.isHeadquarterFlag(),
-                    swiftCodeDetails.getSwiftCode(),
-                    branches
-            );
+        // HQs are returned with all linked branches, branches as simple details
+        if (response.get() instanceof SwiftCodeWithBranchesDTO headquarter) {
+            metrics.recordBranchFanOut(headquarter.getBranches().size());
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).body(response.get());
+    }
 
-            return ResponseEntity.ok(response);
+    // Hit/miss/eviction counters of the SWIFT code details cache
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(swiftCodeService.getDetailsCacheStats());
+    }
+
+    // Entry/byte counts and hit/miss counters of the pre-serialised country listings
+    @GetMapping("/cache/country/stats")
+    public ResponseEntity<Map<String, Object>> getCountryListingCacheStats() {
+        return ResponseEntity.ok(swiftCodeService.getCountryListingCacheStats());
+    }
+
+    // Memory-footprint report of the compact in-memory encoding versus SwiftCode entities
+    @GetMapping("/directory/footprint")
+    public ResponseEntity<Map<String, Object>> getDirectoryFootprint() {
+        return ResponseEntity.ok(swiftCodeService.getDirectoryFootprint());
+    }
+
+    // Write the current table to the binary snapshot file now, instead of waiting for shutdown
+    @PostMapping("/directory/snapshot")
+    public ResponseEntity<?> writeDirectorySnapshot() {
+        if (!snapshots.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorBody("Snapshots disabled",
+                    "Set swift.snapshot.path to write directory snapshots."));
+        }
+        try {
+            return ResponseEntity.ok(snapshots.write());
+        } catch (IOException e) {
+            log.atError().setMessage("Could not write SWIFT snapshot").setCause(e).log();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorBody("Snapshot not written", e.getMessage()));
         }
+    }
 
-        // Return simple branch info
-        SWIFTCodeDTO response = new SWIFTCodeDTO(
-                swiftCodeDetails.getAddress(),
-                swiftCodeDetails.getBankName(),
-                swiftCodeDetails.getCountryISO2(),
-                swiftCodeDetails.getCountryName(),
-                swiftCodeDetails.isHeadquarterFlag(),
-                swiftCodeDetails.getSwiftCode()
-        );
+    // Download the last written snapshot, e.g. to place it at swift.snapshot.path of a replica before it starts
+    @GetMapping("/directory/snapshot")
+    public ResponseEntity<?> getDirectorySnapshot() {
+        Optional<Path> file = snapshots.file();
+        if (file.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorBody("Snapshot not found",
+                    "No directory snapshot has been written yet."));
+        }
+        Resource resource = new FileSystemResource(file.get());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.get().getFileName() + "\"")
+                .body(resource);
+    }
+
+    // Codes starting with a bank (4-char), location (6-char) or longer prefix, served from the prefix index
+    @GetMapping("/prefix/{prefix}")
+    public ResponseEntity<?> getSwiftCodesByPrefix(@PathVariable String prefix,
+                                                   @RequestParam(defaultValue = "100") int limit) {
+        prefix = prefix.toUpperCase().trim();
+        Map<String, String> errorResponse = new HashMap<>();
 
+        if (prefix.length() < 4 || prefix.length() > 11 || !isAlphanumeric(prefix)) {
+            errorResponse.put("error", "Invalid SWIFT code prefix");
+            errorResponse.put("message", "Prefix must be 4 to 11 letters A-Z or digits 0-9.");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        if (limit < 1 || limit > MAX_RESULT_LIMIT) {
+            errorResponse.put("error", "Invalid limit");
+            errorResponse.put("message", "Limit must be between 1 and " + MAX_RESULT_LIMIT + ".");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+
+        int total = swiftCodeService.countByPrefix(prefix);
+        List<SWIFTCodeSimpleDTO> swiftCodeDTOs = swiftCodeService.findByPrefix(prefix, limit);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("prefix", prefix);
+        response.put("total", total);
+        response.put("truncated", total > swiftCodeDTOs.size());
+        response.put("swiftCodes", swiftCodeDTOs);
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/country/{countryISO2}")
-    public ResponseEntity<?> getSwiftCodesByCountry(@PathVariable String countryISO2) {
-        countryISO2=countryISO2.toUpperCase().trim();
-        List<SwiftCode> swiftCodes = swiftCodeService.getSwiftCodesByCountry (countryISO2);
+    // Resolve up to MAX_RESULT_LIMIT codes in one request: results maps each valid code to its details (HQs with
+    // branches, as in GET /{swiftCode}) or to null when it does not exist
+    @PostMapping("/lookup")
+    public ResponseEntity<?> lookupSwiftCodes(@RequestBody List<String> swiftCodes) {
+        Map<String, String> errorResponse = new HashMap<>();
+
+        if (swiftCodes.isEmpty() || swiftCodes.size() > MAX_RESULT_LIMIT) {
+            errorResponse.put("error", "Invalid lookup request");
+            errorResponse.put("message", "Provide between 1 and " + MAX_RESULT_LIMIT + " SWIFT codes.");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+
+        // Normalise, de-duplicate and validate in one pass, keeping the request order; a code is valid by the same
+        // rules as a code being added
+        Set<String> codes = new LinkedHashSet<>();
+        Set<String> invalid = new LinkedHashSet<>();
+        for (String swiftCode : swiftCodes) {
+            String code = swiftCode == null ? "" : swiftCode.trim().toUpperCase();
+            if (swiftCodeValidator.isValid(code, null)) {
+                codes.add(code);
+            } else {
+                invalid.add(code);
+            }
+        }
+
+        Map<String, Object> found = codes.isEmpty() ? Map.of() : swiftCodeService.getSwiftCodeResponses(codes);
+        Map<String, Object> results = new LinkedHashMap<>();
+        List<String> notFound = new ArrayList<>();
+        for (String code : codes) {
+            Object details = found.get(code);
+            results.put(code, details);
+            if (details == null) {
+                notFound.add(code);
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("requested", swiftCodes.size());
+        response.put("found", codes.size() - notFound.size());
+        response.put("results", results);
+        response.put("notFound", notFound);
+        response.put("invalid", invalid);
+        return ResponseEntity.ok(response);
+    }
+
+    // One keyset page of a country's codes; pass nextCursor of a page as "after" to get the following one
+    @GetMapping("/country/{countryISO2}/page")
+    public ResponseEntity<?> getSwiftCodesByCountryPage(@PathVariable String countryISO2,
+                                                        @RequestParam(required = false) String after,
+                                                        @RequestParam(defaultValue = "100") int limit,
+                                                        WebRequest webRequest) {
+        countryISO2 = countryISO2.toUpperCase().trim();
         Map<String, String> errorResponse = new HashMap<>();
 
-        // Validate ISO2 code
         if (!SWIFTCodeService.isValidCountryCode(countryISO2)) {
             errorResponse.put("error", "Invalid country code");
             errorResponse.put("message", "Country ISO2 code '" + countryISO2 + "' is not valid.");
             return ResponseEntity.badRequest().body(errorResponse);
         }
+        if (limit < 1 || limit > MAX_RESULT_LIMIT) {
+            errorResponse.put("error", "Invalid limit");
+            errorResponse.put("message", "Limit must be between 1 and " + MAX_RESULT_LIMIT + ".");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        // A page only depends on the country's codes and the query, so it shares the country's version. It is taken
+        // before the page is read and only validated once the country is known to have codes.
+        SwiftCodeVersions.Version version = swiftCodeService.getCountryVersion(countryISO2);
 
-
-        if (swiftCodes.isEmpty()) {
-            System.out.println("Error: Not Found");
+        CountryListingService.CountryPage page = countryListingService.getPage(countryISO2, after, limit);
+        // Like the full listing, a country without any codes is not found; an empty later page just ends the listing
+        if (page.swiftCodes().isEmpty() && after == null) {
             return ResponseEntity.notFound().build();
         }
-        String countryName = swiftCodes.get(0).getCountryName();
+        if (isNotModified(webRequest, version)) {
+            return notModified();
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("countryISO2", countryISO2);
+        response.put("countryName", SWIFTCodeService.getCorrectCountryName(countryISO2));
+        response.put("swiftCodes", page.swiftCodes());
+        response.put("nextCursor", page.nextCursor());
+        return ResponseEntity.ok().cacheControl(cacheControl).body(response);
+    }
 
-        List<SWIFTCodeSimpleDTO> swiftCodeDTOs = new ArrayList<>();
+    // All codes of a country as NDJSON (one SWIFT code object per line), written while rows are read
+    @GetMapping("/country/{countryISO2}/stream")
+    public ResponseEntity<StreamingResponseBody> streamSwiftCodesByCountry(@PathVariable String countryISO2) {
+        String iso2 = countryISO2.toUpperCase().trim();
 
-        for (SwiftCode swiftCode : swiftCodes) {
-            swiftCodeDTOs.add(new SWIFTCodeSimpleDTO(
-                    swiftCode.getAddress(),
-                    swiftCode.getBankName(),
-                    swiftCode.getCountryISO2(),
-                    swiftCode.isHeadquarterFlag(),
-                    swiftCode.getSwiftCode()
-            ));
+        if (!SWIFTCodeService.isValidCountryCode(iso2)) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Invalid country code");
+            errorResponse.put("message", "Country ISO2 code '" + iso2 + "' is not valid.");
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, errorResponse));
         }
 
-        // Build final response structure
-        Map<String, Object> response = new LinkedHashMap<>();
-        response.put("countryISO2", countryISO2.toUpperCase());
-        response.put("countryName", countryName);
-        response.put("swiftCodes", swiftCodeDTOs);
+        ObjectWriter writer = objectMapper.writerFor(SWIFTCodeSimpleDTO.class);
+        StreamingResponseBody body = out -> {
+            OutputStream buffered = new BufferedOutputStream(out);
+            try {
+                countryListingService.stream(iso2, swiftCode -> {
+                    try {
+                        buffered.write(writer.writeValueAsBytes(swiftCode));
+                        buffered.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // client went away; stop reading rows
+            }
+            buffered.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 
+    @GetMapping("/country/{countryISO2}")
+    public ResponseEntity<?> getSwiftCodesByCountry(@PathVariable String countryISO2, WebRequest webRequest) {
+        countryISO2=countryISO2.toUpperCase().trim();
+        Map<String, String> errorResponse = new HashMap<>();
 
-        return ResponseEntity.ok(response);
+        // Validate ISO2 code
+        if (!SWIFTCodeService.isValidCountryCode(countryISO2)) {
+            errorResponse.put("error", "Invalid country code");
+            errorResponse.put("message", "Country ISO2 code '" + countryISO2 + "' is not valid.");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        boolean acceptsGzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        SwiftCodeVersions.Version version = encodingVariant(swiftCodeService.getCountryVersion(countryISO2), acceptsGzip);
+        // The body is serialised (and compressed) once per change of the country, not per request
+        Optional<CountryListingCache.Listing> listing = swiftCodeService.getCountryListingBody(countryISO2);
+
+        if (listing.isEmpty()) {
+            log.atDebug().setMessage("No SWIFT codes for country").addKeyValue("countryISO2", countryISO2).log();
+            return ResponseEntity.notFound().build();
+        }
+        // Validated only once the country is known to have codes, so its 404 carries no ETag
+        if (isNotModified(webRequest, version)) {
+            return notModified();
+        }
+        metrics.recordCountryResponse(listing.get().size());
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (listing.get().gzip() != null && acceptsGzip) {
+            return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(listing.get().gzip());
+        }
+        return ok.body(listing.get().json());
     }
 
     @PostMapping
     public ResponseEntity<Map<String, String>> addSwiftCode( @RequestBody SwiftCode swiftCode) {
-        Map<String, String> errorResponse = new HashMap<>();
-
         // Normalize input
         String swift = swiftCode.getSwiftCode().trim().toUpperCase();
         String countryISO2 = swiftCode.getCountryISO2().trim().toUpperCase();
@@ -148,9 +344,8 @@ public class SWIFTCodeController {
 
         // Basic field validations
         if (swift.isEmpty() || countryISO2.isEmpty() || countryName.isEmpty() || bankName.isEmpty()) {
-            errorResponse.put("error", "Missing required fields");
-            errorResponse.put("message", "All fields (swiftCode, countryISO2, countryName, address, bankName) must be provided.");
-            return ResponseEntity.badRequest().body(errorResponse);
+            return ResponseEntity.badRequest().body(errorBody("Missing required fields",
+                    "All fields (swiftCode, countryISO2, countryName, address, bankName) must be provided."));
         }
 
         if(address.isEmpty()){
@@ -159,41 +354,32 @@ public class SWIFTCodeController {
 
 
         if(address.length()<3 || address.length()>500) {
-            errorResponse.put("error", "Address must be between 3 and 500 characters");
-            return ResponseEntity.badRequest().body(errorResponse);
+            return ResponseEntity.badRequest().body(errorBody("Address must be between 3 and 500 characters", null));
 
         }
 
-        // Validate SWIFT code length
-        if (swift.length() <8 || swift.length() >11) {
-            errorResponse.put("error", "Invalid SWIFT code format");
-            errorResponse.put("message", "SWIFT code should be exactly between 8 and 11 characters. ");
+        // ISO 9362 structure, with the country letters checked against countryISO2
+        SwiftCodeValidator.Violation violation = swiftCodeValidator.validate(swift, countryISO2);
+        if (violation != null) {
+            Map<String, String> errorResponse = errorBody(violation.getError(), violation.getMessage());
             errorResponse.put("providedSwiftCode", swift);
             return ResponseEntity.badRequest().body(errorResponse);
         }
-        if (!swift.matches("^[A-Za-z0-9]+$")) {
-            errorResponse.put("error", "Invalid characters in SWIFT code");
-            errorResponse.put("message", "SWIFT code must contain only  letters A-Z(a-z) and digits 0-9.");
-            return ResponseEntity.badRequest().body(errorResponse);
-        }
 
 
         if(swiftCodeService.existsBySwiftCode(swift)) {
-            errorResponse.put("error", "Duplicate SWIFT code");
-            errorResponse.put("message", "SWIFT code " + swift + " already exists in the database.");
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorBody("Duplicate SWIFT code",
+                    "SWIFT code " + swift + " already exists in the database."));
         }
 
         if (!SWIFTCodeService.isValidCountryCode(countryISO2)) {
-            errorResponse.put("error", "Invalid country code");
-            errorResponse.put("message", "Country ISO2 code '" + countryISO2 + "' is not valid.");
-            return ResponseEntity.badRequest().body(errorResponse);
+            return ResponseEntity.badRequest().body(errorBody("Invalid country code",
+                    "Country ISO2 code '" + countryISO2 + "' is not valid."));
         }
         String correctCountryName = SWIFTCodeService.getCorrectCountryName(countryISO2);
         if (!countryName.equals(correctCountryName)) {
-            errorResponse.put("error", "Country name mismatch");
-            errorResponse.put("message", "The provided country name '" + countryName + "' does not match the expected name '" + correctCountryName + "'.");
-            return ResponseEntity.badRequest().body(errorResponse);
+            return ResponseEntity.badRequest().body(errorBody("Country name mismatch",
+                    "The provided country name '" + countryName + "' does not match the expected name '" + correctCountryName + "'."));
         }
 
         // Determine if this is a headquarter
@@ -224,16 +410,8 @@ public class SWIFTCodeController {
         }
 
         // === CASE 2: Headquarter ===
-        // First, save the HQ itself
-        SwiftCode savedHQ = swiftCodeService.saveSwiftCode(swiftCode);
-        // Link any orphan branches with the same prefix
-        List<SwiftCode> orphanBranches = swiftCodeService.findBranchesByPrefix(swiftPrefix);
-        for (SwiftCode branch : orphanBranches) {
-            if (branch.getHeadquarter() == null) {
-                branch.setHeadquarter(savedHQ);
-                swiftCodeService.saveSwiftCode(branch);
-            }
-        }
+        // Saving the HQ also links any orphan branches with the same prefix
+        swiftCodeService.saveSwiftCode(swiftCode);
 
         return ResponseEntity.ok(Map.of("message", "Headquarter added. Linked orphan branches if found."));
     }
@@ -275,8 +453,89 @@ public class SWIFTCodeController {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
 
+    // Evaluates If-None-Match (or If-Modified-Since without it) against the version and sets ETag and
+    // Last-Modified on the response, so they are also sent with the 200 built afterwards
+    private static boolean isNotModified(WebRequest webRequest, SwiftCodeVersions.Version version) {
+        return webRequest.checkNotModified(version.eTag(), version.lastModified().toEpochMilli());
+    }
+
+    // A gzip body is a different representation from the identity one, so a client accepting gzip is validated
+    // against its own strong ETag ("...-gzip"). The tag is chosen before the listing is read; a listing too small
+    // to compress is then sent uncompressed under it, which still gives each tag a single body.
+    private static SwiftCodeVersions.Version encodingVariant(SwiftCodeVersions.Version version, boolean gzip) {
+        if (!gzip) {
+            return version;
+        }
+        String eTag = version.eTag();
+        return new SwiftCodeVersions.Version(eTag.substring(0, eTag.length() - 1) + "-gzip\"", version.lastModified());
+    }
+
+    // Error body of a rejected request; built only once a check has failed
+    private static Map<String, String> errorBody(String error, String message) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", error);
+        if (message != null) {
+            errorResponse.put("message", message);
+        }
+        return errorResponse;
+    }
 
+    // Upper-case letters and digits only; checked per character so the request does not compile a regex
+    private static boolean isAlphanumeric(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c >= 'A' && c <= 'Z') && !(c >= '0' && c <= '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
 
+    // True when the client lists gzip with a non-zero q-value, or lists no gzip but accepts * (an explicit gzip
+    // entry takes precedence over *). Parsed by hand, as it runs on every country listing request.
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            int semicolon = coding.indexOf(';');
+            String name = (semicolon < 0 ? coding : coding.substring(0, semicolon)).trim();
+            boolean gzip = name.equalsIgnoreCase("gzip");
+            if (gzip || name.equals("*")) {
+                boolean accepted = semicolon < 0 || !hasZeroQuality(coding.substring(semicolon + 1));
+                if (gzip) {
+                    return accepted;
+                }
+                wildcard = accepted;
+            }
+        }
+        return wildcard != null && wildcard;
+    }
 
+    // True for a "q=0", "q=0.", "q=0.0" ... parameter (case-insensitive, optional spaces around "=")
+    private static boolean hasZeroQuality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            int equals = parameter.indexOf('=');
+            if (equals < 0 || !parameter.substring(0, equals).trim().equalsIgnoreCase("q")) {
+                continue;
+            }
+            String value = parameter.substring(equals + 1).trim();
+            if (value.isEmpty() || value.charAt(0) != '0') {
+                return false;
+            }
+            for (int i = 1; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c != '0' && !(c == '.' && i == 1)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
 
+    private ResponseEntity<?> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+    }
 }
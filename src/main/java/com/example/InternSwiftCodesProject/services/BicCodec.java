@@ -0,0 +1,85 @@
+package com.example.InternSwiftCodesProject.services;
+
+// Packs a SWIFT/BIC code of up to 11 characters [0-9A-Z] into a long and a short, 6 bits per character.
+// Characters 1-10 go into the long (first character in the highest bits) and character 11 into the short.
+// Unused positions are 0, so shorter codes need no length field and the packed values sort in the same
+// order as the codes themselves.
+final class BicCodec {
+    static final int MAX_LENGTH = 11;
+    private static final int HIGH_CHARS = 10;
+    private static final int BITS = 6;
+    private static final int MASK = (1 << BITS) - 1;
+    // Larger than any character value; fills the tail of a prefix to get the upper bound of its range
+    static final int FILL_MAX = MASK;
+
+    private BicCodec() {
+    }
+
+    static boolean isEncodable(String code) {
+        if (code == null || code.isEmpty() || code.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < code.length(); i++) {
+            if (valueOf(code.charAt(i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static long packHigh(String code) {
+        return packHigh(code, 0);
+    }
+
+    static short packLow(String code) {
+        return packLow(code, 0);
+    }
+
+    // Positions past the end of the code are set to fill (0 for an exact code, FILL_MAX for a range upper bound)
+    static long packHigh(String code, int fill) {
+        long packed = 0;
+        for (int i = 0; i < HIGH_CHARS; i++) {
+            packed = (packed << BITS) | (i < code.length() ? valueOf(code.charAt(i)) : fill);
+        }
+        return packed;
+    }
+
+    static short packLow(String code, int fill) {
+        return (short) (code.length() > HIGH_CHARS ? valueOf(code.charAt(HIGH_CHARS)) : fill);
+    }
+
+    static String unpack(long high, short low) {
+        StringBuilder code = new StringBuilder(MAX_LENGTH);
+        for (int i = HIGH_CHARS - 1; i >= 0; i--) {
+            int value = (int) (high >>> (i * BITS)) & MASK;
+            if (value == 0) {
+                return code.toString();
+            }
+            code.append(charOf(value));
+        }
+        if (low != 0) {
+            code.append(charOf(low));
+        }
+        return code.toString();
+    }
+
+    static int compare(long highA, short lowA, long highB, short lowB) {
+        int result = Long.compare(highA, highB);
+        return result != 0 ? result : Short.compare(lowA, lowB);
+    }
+
+    // '0'-'9' -> 1-10, 'A'-'Z' -> 11-36, anything else -> 0 (not encodable)
+    private static int valueOf(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 1;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 11;
+        }
+        return 0;
+    }
+
+    private static char charOf(int value) {
+        return value <= 10 ? (char) ('0' + value - 1) : (char) ('A' + value - 11);
+    }
+}
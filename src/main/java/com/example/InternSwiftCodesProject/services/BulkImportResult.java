@@ -0,0 +1,157 @@
+package com.example.InternSwiftCodesProject.services;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Running totals of a bulk import; counters are thread-safe so they can be read while the import is in progress
+public class BulkImportResult {
+    // Rows logged individually per skip reason; the rest only show up in the reason counts
+    static final int LOGGED_EXAMPLES_PER_REASON = 5;
+    // Reasons embed the offending value (e.g. the country code), so cap how many distinct ones are counted
+    static final int MAX_COUNTED_REASONS = 100;
+    static final String OTHER_REASONS = "other";
+
+    private final AtomicLong added = new AtomicLong();
+    // Delta imports only: stored codes rewritten, left as they were, and removed
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong linkedBranches = new AtomicLong();
+    // Delta imports only: why the deletes of the file were not applied, or null
+    private volatile String deletesRefused;
+
+    // Rows that were skipped or rejected, with the reason, kept up to maxReportedRows entries
+    private final int maxReportedRows;
+    private final AtomicLong reportedRows = new AtomicLong();
+    private final Queue<RejectedRow> rejectReport = new ConcurrentLinkedQueue<>();
+    private final Map<String, LongAdder> reasonCounts = new ConcurrentHashMap<>();
+
+    public BulkImportResult() {
+        this(0);
+    }
+
+    public BulkImportResult(int maxReportedRows) {
+        this.maxReportedRows = maxReportedRows;
+    }
+
+    public long getAdded() {
+        return added.get();
+    }
+
+    public long getUpdated() {
+        return updated.get();
+    }
+
+    public long getUnchanged() {
+        return unchanged.get();
+    }
+
+    public long getDeleted() {
+        return deleted.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getLinkedBranches() {
+        return linkedBranches.get();
+    }
+
+    public String getDeletesRefused() {
+        return deletesRefused;
+    }
+
+    // Total rows read so far, whatever happened to them
+    public long getProcessed() {
+        return getAdded() + getUpdated() + getUnchanged() + getSkipped() + getRejected();
+    }
+
+    public List<RejectedRow> getRejectReport() {
+        return List.copyOf(rejectReport);
+    }
+
+    // True if more rows were skipped or rejected than the report keeps
+    public boolean isRejectReportTruncated() {
+        return reportedRows.get() > maxReportedRows;
+    }
+
+    // Skipped and rejected rows per reason, most frequent first
+    public Map<String, Long> getReasonCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        reasonCounts.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                .forEach(entry -> counts.put(entry.getKey(), entry.getValue().sum()));
+        return counts;
+    }
+
+    void addAdded(long count) {
+        added.addAndGet(count);
+    }
+
+    void addUpdated(long count) {
+        updated.addAndGet(count);
+    }
+
+    void addUnchanged(long count) {
+        unchanged.addAndGet(count);
+    }
+
+    void addDeleted(long count) {
+        deleted.addAndGet(count);
+    }
+
+    void addSkipped(long count) {
+        skipped.addAndGet(count);
+    }
+
+    void addRejected(long count) {
+        rejected.addAndGet(count);
+    }
+
+    void addLinkedBranches(long count) {
+        linkedBranches.addAndGet(count);
+    }
+
+    void refuseDeletes(String reason) {
+        deletesRefused = reason;
+    }
+
+    // Record a skipped or rejected row; returns true while it is among the first examples of its reason,
+    // so callers log a sample of each reason instead of every row
+    boolean report(String swiftCode, String reason) {
+        if (reportedRows.incrementAndGet() <= maxReportedRows) {
+            rejectReport.add(new RejectedRow(swiftCode, reason));
+        }
+        LongAdder count = reasonCounts.get(reason);
+        if (count == null) {
+            String key = reasonCounts.size() < MAX_COUNTED_REASONS ? reason : OTHER_REASONS;
+            count = reasonCounts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        count.increment();
+        return count.sum() <= LOGGED_EXAMPLES_PER_REASON;
+    }
+
+    @Override
+    public String toString() {
+        return getAdded() + " added, " + getUpdated() + " updated, " + getUnchanged() + " unchanged, "
+                + getDeleted() + " deleted, " + getSkipped() + " skipped, " + getRejected() + " rejected, "
+                + getLinkedBranches() + " branch(es) linked"
+                + (deletesRefused != null ? "; deletes refused: " + deletesRefused : "");
+    }
+
+    public record RejectedRow(String swiftCode, String reason) {
+    }
+}
@@ -4,55 +4,115 @@ import com.example.InternSwiftCodesProject.controllers.SWIFTCodeController;
 import com.example.InternSwiftCodesProject.SWIFTCodeRepo;
 import com.example.InternSwiftCodesProject.SwiftCode;
 import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
+@Slf4j
 @Service
 public class CSVParserService {
     private final SWIFTCodeRepo repository;
 
     private SWIFTCodeController swiftCodeController;
 
+    private final CsvImportPipeline importPipeline;
 
-    // Constructor injection of dependencies
-    public CSVParserService(SWIFTCodeRepo repository, SWIFTCodeController swiftCodeController) {
+    private final SwiftSnapshots snapshots;
+
+    private final SeedImports seedImports;
+
+    // Constructor injection of dependencies; the controller is resolved lazily because the "reactive" profile has
+    // no servlet controller and only the row-by-row import below needs it
+    public CSVParserService(SWIFTCodeRepo repository, @Lazy SWIFTCodeController swiftCodeController,
+                            CsvImportPipeline importPipeline, SwiftSnapshots snapshots, SeedImports seedImports) {
         this.swiftCodeController = swiftCodeController;
         this.repository = repository;
+        this.importPipeline = importPipeline;
+        this.snapshots = snapshots;
+        this.seedImports = seedImports;
     }
     // This method is automatically called after the service is initialized
     @PostConstruct
     public void init() {
+        // A valid binary snapshot has already populated the read model; the seed files below are still checked,
+        // so an edited one is applied on top of it
+        Optional<SwiftSnapshotFile.Contents> snapshot = snapshots.startupSnapshot();
+        if (snapshot.isPresent()) {
+            if (snapshots.isSeedingTable()) {
+                // Empty table, e.g. a new replica: store the snapshot rows through the bulk import
+                Iterator<SwiftDirectoryEntry> entries = snapshot.get().entries().iterator();
+                BulkImportResult result = importPipeline.run(new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public SwiftCode next() {
+                        return entries.next().toSwiftCode();
+                    }
+                });
+                log.atInfo().setMessage("Table seeded from SWIFT snapshot").addKeyValue("added", result.getAdded()).log();
+            }
+            snapshots.release();
+        }
+
         try {
             // Resolve all CSV files located in the classpath under 'data/' folder
             PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
             Resource[] resources = resolver.getResources("classpath:data/*.csv");
 
+            boolean changed = false;
             // Loop through each found resource (CSV file)
             for (Resource resource : resources) {
-                // Skip files that don't have .csv extension
-                if (!Objects.requireNonNull(resource.getFilename()).endsWith(".csv")) {
+                String fileName = Objects.requireNonNull(resource.getFilename());
+                try {
+                    // A file with the fingerprint of its last successful import is already in the table
+                    SeedImports.Fingerprint fingerprint;
+                    try (InputStream inputStream = resource.getInputStream()) {
+                        fingerprint = SeedImports.of(inputStream);
+                    }
+                    if (fingerprint.equals(seedImports.find(fileName).orElse(null))) {
+                        log.atInfo().setMessage("Skipping unchanged CSV")
+                                .addKeyValue("file", fileName)
+                                .addKeyValue("rows", fingerprint.rows())
+                                .log();
+                        continue;
+                    }
 
-                }
-                // Try to open and parse each file
-                try (InputStream inputStream = resource.getInputStream()) {
-                    System.out.println("Processing: " + resource.getFilename());
-                    parseAndStoreSwiftData(inputStream);
+                    // New or edited file: insert its new codes and update the changed ones; codes from other
+                    // files or added through the API are left alone
+                    log.atInfo().setMessage("Processing CSV").addKeyValue("file", fileName).log();
+                    BulkImportResult result = new BulkImportResult();
+                    try (InputStream inputStream = resource.getInputStream()) {
+                        importSwiftData(inputStream, result, ImportMode.MERGE);
+                    }
+                    seedImports.record(fileName, fingerprint);
+                    changed = true;
                 } catch (Exception e) {
-                    System.err.println("Error reading file: " + resource.getFilename() + " - " + e.getMessage());
+                    // Not recorded, so the next start tries the file again
+                    log.atError().setMessage("Error reading CSV").addKeyValue("file", fileName).setCause(e).log();
                 }
             }
-            System.out.println("All CSVs processed.");
+            log.info("All CSVs processed.");
+            // Next boot starts from the snapshot instead
+            if (snapshots.isEnabled() && (changed || snapshots.file().isEmpty())) {
+                snapshots.write();
+            }
 
         } catch (Exception e) {
-            System.err.println("Error while loading default SWIFT codes: " + e.getMessage());
+            log.error("Error while loading default SWIFT codes", e);
         }
     }
 
@@ -62,37 +122,139 @@ public class CSVParserService {
     public void parseAndStoreSwiftData(InputStream stream) {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
             // Use Apache Commons CSV to parse the data with headers
-            CSVParser csvParser = CSVParser.parse(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader());
-            int added = 0; // Track successfully added records
-            int skipped = 0;// Track skipped records
+            CSVParser csvParser = CSVParser.parse(reader, CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).get());
+            // Counts per skip reason, with only the first few rows of each reason logged
+            BulkImportResult result = new BulkImportResult();
 
             // Iterate over each CSV record
             for (CSVRecord record : csvParser) {
-                // Create a SwiftCode object from CSV data
-                SwiftCode swiftCode = new SwiftCode(
-                        record.get("SWIFT CODE").trim(),
-                        record.get("NAME").trim(),
-                        record.get("ADDRESS").trim(),
-                        record.get("COUNTRY ISO2 CODE").trim().toUpperCase(),
-                        record.get("COUNTRY NAME").trim().toUpperCase(),
-                        record.get("SWIFT CODE").trim().endsWith("XXX")
-                );
+                SwiftCode swiftCode = toSwiftCode(record);
 
                 // Try to add the SWIFT code using the controller
                 ResponseEntity<Map<String, String>> response = swiftCodeController.addSwiftCode(swiftCode);
                 if (response.getStatusCode().is2xxSuccessful()) {
-                    added++;
+                    result.addAdded(1);
                 } else {
-                    skipped++;
-                    System.out.println("Skipped SWIFT: " + swiftCode.getSwiftCode() + " Reason: " + Objects.requireNonNull(response.getBody()).get("message"));
+                    result.addSkipped(1);
+                    String reason = Objects.requireNonNull(response.getBody()).get("message");
+                    if (result.report(swiftCode.getSwiftCode(), reason)) {
+                        log.atInfo().setMessage("Skipped SWIFT code")
+                                .addKeyValue("swiftCode", swiftCode.getSwiftCode())
+                                .addKeyValue("reason", reason)
+                                .log();
+                    }
                 }
             }
 
-            System.out.println("Import complete: " + added + " added, " + skipped + " skipped.");
+            log.atInfo().setMessage("Import complete")
+                    .addKeyValue("added", result.getAdded())
+                    .addKeyValue("skipped", result.getSkipped())
+                    .addKeyValue("skipReasons", result.getReasonCounts())
+                    .log();
+
+        } catch (Exception e) {
+            log.error("Error during import", e);
+        }
+    }
 
+    // Parses a single CSV input stream and stores it through the staged, batched import pipeline
+    public BulkImportResult bulkImportSwiftData(InputStream stream) {
+        BulkImportResult result = new BulkImportResult();
+        try {
+            importSwiftData(stream, result);
         } catch (Exception e) {
-            System.err.println("Error during import: " + e.getMessage());
+            log.error("Error during import", e);
+        }
+        return result;
+    }
+
+    // Same as bulkImportSwiftData, but reports progress into the given result and lets failures propagate
+    public void importSwiftData(InputStream stream, BulkImportResult result) throws IOException {
+        importSwiftData(stream, result, ImportMode.APPEND);
+    }
+
+    public void importSwiftData(InputStream stream, BulkImportResult result, ImportMode mode) throws IOException {
+        importSwiftData(List.of(stream).iterator(), result, mode);
+    }
+
+    // Several CSV streams, each with its own header (e.g. the entries of a ZIP upload), imported as one file: their
+    // records are chained into a single pipeline run, so a delta import sees them together as the whole directory.
+    // Streams are taken from the iterator only when the previous one is exhausted, and each is closed after use.
+    public void importSwiftData(Iterator<? extends InputStream> streams, BulkImportResult result, ImportMode mode) throws IOException {
+        CsvRecordChain records = new CsvRecordChain(streams);
+        try {
+            // Map records lazily; the pipeline's bounded queues keep heap use flat for any file size
+            importPipeline.run(records, result, mode);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            records.close();
+        }
+    }
+
+    // Imports a CSV file on the server's disk through the memory-mapped, chunk-parallel reader; bytesRead
+    // follows the parsed chunks. Failures propagate.
+    public void importSwiftFile(Path file, BulkImportResult result, ImportMode mode, int parserThreads,
+                                AtomicLong bytesRead) throws IOException {
+        try (MappedCsvReader records = MappedCsvReader.open(file, parserThreads, bytesRead)) {
+            importPipeline.run(records, result, mode);
+        }
+    }
+
+    // SwiftCode records of one CSV stream after the other
+    private static class CsvRecordChain implements Iterator<SwiftCode> {
+        private final Iterator<? extends InputStream> streams;
+        private CSVParser parser;
+        private Iterator<CSVRecord> records = Collections.emptyIterator();
+
+        CsvRecordChain(Iterator<? extends InputStream> streams) {
+            this.streams = streams;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (!records.hasNext()) {
+                    close();
+                    if (!streams.hasNext()) {
+                        return false;
+                    }
+                    parser = CSVParser.parse(new BufferedReader(new InputStreamReader(streams.next())),
+                            CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).get());
+                    records = parser.iterator();
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public SwiftCode next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return toSwiftCode(records.next());
         }
+
+        void close() throws IOException {
+            if (parser != null) {
+                parser.close();
+                parser = null;
+            }
+        }
+    }
+
+    // Create a SwiftCode object from CSV data
+    private static SwiftCode toSwiftCode(CSVRecord record) {
+        return new SwiftCode(
+                record.get("SWIFT CODE").trim(),
+                record.get("NAME").trim(),
+                record.get("ADDRESS").trim(),
+                record.get("COUNTRY ISO2 CODE").trim().toUpperCase(),
+                record.get("COUNTRY NAME").trim().toUpperCase(),
+                record.get("SWIFT CODE").trim().endsWith("XXX")
+        );
     }
 
 
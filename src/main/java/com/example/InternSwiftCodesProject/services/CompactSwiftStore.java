@@ -0,0 +1,395 @@
+package com.example.InternSwiftCodesProject.services;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+// Snapshot encoded into fixed-width rows instead of one object per field (swift.directory.encoding=compact).
+// Each row holds the packed BIC, dictionary ids for bank name and address, a country ordinal, the HQ flag
+// and the row number of its headquarter. Rows are sorted by code, so lookups are binary searches and a
+// prefix is a contiguous range. The rows can live in an off-heap direct buffer (swift.directory.off-heap).
+// Single-row writes do not touch the packed rows: they go to a small overlay of changed rows that reads merge
+// in, and the overlay is packed into new rows once it reaches MAX_CHANGES entries (or on reload).
+public final class CompactSwiftStore implements SwiftDirectorySnapshot {
+    // Row layout: code high (long) | code low (short) | bank name id (int) | address id (int) |
+    // country ordinal (short) | flags (byte) | headquarter row (int)
+    static final int ROW_BYTES = 25;
+    private static final int CODE_HIGH = 0;
+    private static final int CODE_LOW = 8;
+    private static final int BANK_NAME = 10;
+    private static final int ADDRESS = 14;
+    private static final int COUNTRY = 18;
+    private static final int FLAGS = 20;
+    private static final int HEADQUARTER = 21;
+    private static final byte HEADQUARTER_FLAG = 1;
+    private static final int NONE = -1;
+    static final int MAX_CHANGES = 1024;
+
+    private final ByteBuffer rows;
+    private final int rowCount;
+    // Bank names and addresses share one dictionary; identical strings are stored once
+    private final String[] dictionary;
+    private final String[] countryCodes;
+    private final String[] countryNames;
+    private final Map<String, int[]> rowsByCountry;
+    // Rows saved (or deleted, mapped to null) since the rows were packed
+    private final Map<String, SwiftDirectoryEntry> changes;
+    private final int size;
+
+    private CompactSwiftStore(ByteBuffer rows, int rowCount, String[] dictionary, String[] countryCodes,
+                              String[] countryNames, Map<String, int[]> rowsByCountry,
+                              Map<String, SwiftDirectoryEntry> changes, int size) {
+        this.rows = rows;
+        this.rowCount = rowCount;
+        this.changes = changes;
+        this.size = size;
+        this.dictionary = dictionary;
+        this.countryCodes = countryCodes;
+        this.countryNames = countryNames;
+        this.rowsByCountry = rowsByCountry;
+    }
+
+    public static CompactSwiftStore of(Collection<SwiftDirectoryEntry> entries, boolean offHeap) {
+        List<SwiftDirectoryEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(SwiftDirectoryEntry::getSwiftCode));
+
+        Map<String, Integer> rowOfCode = new HashMap<>(sorted.size() * 2);
+        for (int row = 0; row < sorted.size(); row++) {
+            String code = sorted.get(row).getSwiftCode();
+            if (!BicCodec.isEncodable(code)) {
+                throw new IllegalArgumentException("SWIFT code cannot be compactly encoded: " + code);
+            }
+            rowOfCode.put(code, row);
+        }
+
+        Map<String, Integer> dictionaryIds = new LinkedHashMap<>();
+        Map<String, Integer> countryIds = new LinkedHashMap<>();
+        List<String> countryCodes = new ArrayList<>();
+        List<String> countryNames = new ArrayList<>();
+        Map<String, List<Integer>> countryRows = new HashMap<>();
+
+        ByteBuffer rows = offHeap ? ByteBuffer.allocateDirect(sorted.size() * ROW_BYTES) : ByteBuffer.allocate(sorted.size() * ROW_BYTES);
+        for (int row = 0; row < sorted.size(); row++) {
+            SwiftDirectoryEntry entry = sorted.get(row);
+            // The name always follows from the ISO2 code, so the pair is stored once per country
+            int country = countryIds.computeIfAbsent(entry.getCountryISO2() + '\u0000' + entry.getCountryName(), key -> {
+                countryCodes.add(entry.getCountryISO2());
+                countryNames.add(entry.getCountryName());
+                return countryCodes.size() - 1;
+            });
+            countryRows.computeIfAbsent(entry.getCountryISO2(), key -> new ArrayList<>()).add(row);
+            Integer headquarterRow = entry.getHeadquarterSwift() != null ? rowOfCode.get(entry.getHeadquarterSwift()) : null;
+
+            int offset = row * ROW_BYTES;
+            rows.putLong(offset + CODE_HIGH, BicCodec.packHigh(entry.getSwiftCode()));
+            rows.putShort(offset + CODE_LOW, BicCodec.packLow(entry.getSwiftCode()));
+            rows.putInt(offset + BANK_NAME, intern(dictionaryIds, entry.getBankName()));
+            rows.putInt(offset + ADDRESS, intern(dictionaryIds, entry.getAddress()));
+            rows.putShort(offset + COUNTRY, (short) country);
+            rows.put(offset + FLAGS, entry.isHeadquarterFlag() ? HEADQUARTER_FLAG : 0);
+            rows.putInt(offset + HEADQUARTER, headquarterRow != null ? headquarterRow : NONE);
+        }
+        if (countryCodes.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many distinct countries for a compact store: " + countryCodes.size());
+        }
+
+        Map<String, int[]> rowsByCountry = new HashMap<>();
+        countryRows.forEach((iso2, list) -> rowsByCountry.put(iso2, list.stream().mapToInt(Integer::intValue).toArray()));
+
+        return new CompactSwiftStore(rows, sorted.size(), dictionaryIds.keySet().toArray(new String[0]),
+                countryCodes.toArray(new String[0]), countryNames.toArray(new String[0]), Collections.unmodifiableMap(rowsByCountry),
+                Map.of(), sorted.size());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean isOffHeap() {
+        return rows.isDirect();
+    }
+
+    @Override
+    public Collection<SwiftDirectoryEntry> entries() {
+        return merge(decode(0, rowCount), entry -> true);
+    }
+
+    @Override
+    public Optional<SwiftDirectoryEntry> get(String swiftCode) {
+        if (changes.containsKey(swiftCode)) {
+            return Optional.ofNullable(changes.get(swiftCode));
+        }
+        int row = find(swiftCode);
+        return row >= 0 ? Optional.of(decode(row)) : Optional.empty();
+    }
+
+    @Override
+    public boolean contains(String swiftCode) {
+        if (changes.containsKey(swiftCode)) {
+            return changes.get(swiftCode) != null;
+        }
+        return find(swiftCode) >= 0;
+    }
+
+    @Override
+    public List<SwiftDirectoryEntry> getByCountry(String countryISO2) {
+        int[] countryRows = rowsByCountry.getOrDefault(countryISO2, new int[0]);
+        List<SwiftDirectoryEntry> entries = new ArrayList<>(countryRows.length);
+        for (int row : countryRows) {
+            entries.add(decode(row));
+        }
+        return merge(entries, entry -> entry.getCountryISO2().equals(countryISO2));
+    }
+
+    @Override
+    public List<SwiftDirectoryEntry> getByPrefix(String prefix8) {
+        if (!BicCodec.isEncodable(prefix8)) {
+            return List.of();
+        }
+        return merge(decode(lowerBound(prefix8, 0), lowerBound(prefix8, BicCodec.FILL_MAX)),
+                entry -> entry.getSwiftCode().startsWith(prefix8));
+    }
+
+    @Override
+    public List<SwiftDirectoryEntry> getBranchesOf(String headquarterSwift) {
+        if (!changes.isEmpty()) {
+            // Changed rows carry their headquarter as a code, not a row number
+            List<SwiftDirectoryEntry> branches = new ArrayList<>();
+            if (headquarterSwift.length() >= 8 && contains(headquarterSwift)) {
+                for (SwiftDirectoryEntry entry : getByPrefix(headquarterSwift.substring(0, 8))) {
+                    if (headquarterSwift.equals(entry.getHeadquarterSwift())) {
+                        branches.add(entry);
+                    }
+                }
+            }
+            return branches;
+        }
+        int headquarterRow = find(headquarterSwift);
+        if (headquarterRow < 0 || headquarterSwift.length() < 8) {
+            return new ArrayList<>();
+        }
+        String prefix = headquarterSwift.substring(0, 8);
+        List<SwiftDirectoryEntry> branches = new ArrayList<>();
+        for (int row = lowerBound(prefix, 0), end = lowerBound(prefix, BicCodec.FILL_MAX); row < end; row++) {
+            if (rows.getInt(row * ROW_BYTES + HEADQUARTER) == headquarterRow) {
+                branches.add(decode(row));
+            }
+        }
+        return branches;
+    }
+
+    // Same rules as the hash snapshot: a new HQ adopts the orphan branches of its prefix. Only the changed rows are
+    // copied into the overlay.
+    @Override
+    public CompactSwiftStore withSaved(SwiftDirectoryEntry saved) {
+        Map<String, SwiftDirectoryEntry> changed = new HashMap<>();
+        changed.put(saved.getSwiftCode(), saved);
+        if (saved.isHeadquarterFlag()) {
+            for (SwiftDirectoryEntry entry : getByPrefix(saved.getPrefix())) {
+                if (!entry.isHeadquarterFlag() && entry.getHeadquarterSwift() == null) {
+                    changed.put(entry.getSwiftCode(), entry.withHeadquarterSwift(saved.getSwiftCode()));
+                }
+            }
+        }
+        return withChanges(changed, contains(saved.getSwiftCode()) ? size : size + 1);
+    }
+
+    // Branches of a removed HQ become orphans
+    @Override
+    public CompactSwiftStore withDeleted(String swiftCode) {
+        if (!contains(swiftCode)) {
+            return this;
+        }
+        Map<String, SwiftDirectoryEntry> changed = new HashMap<>();
+        changed.put(swiftCode, null);
+        for (SwiftDirectoryEntry branch : getBranchesOf(swiftCode)) {
+            changed.put(branch.getSwiftCode(), branch.withHeadquarterSwift(null));
+        }
+        return withChanges(changed, size - 1);
+    }
+
+    // Codes that could not be packed later are rejected up front, as in of()
+    private CompactSwiftStore withChanges(Map<String, SwiftDirectoryEntry> changed, int newSize) {
+        for (Map.Entry<String, SwiftDirectoryEntry> change : changed.entrySet()) {
+            if (change.getValue() != null && !BicCodec.isEncodable(change.getKey())) {
+                throw new IllegalArgumentException("SWIFT code cannot be compactly encoded: " + change.getKey());
+            }
+        }
+        Map<String, SwiftDirectoryEntry> merged = new HashMap<>(changes);
+        merged.putAll(changed);
+        CompactSwiftStore store = new CompactSwiftStore(rows, rowCount, dictionary, countryCodes, countryNames, rowsByCountry,
+                Collections.unmodifiableMap(merged), newSize);
+        // Pack the overlay into new rows once it is large enough to slow reads down
+        return merged.size() >= MAX_CHANGES ? of(store.entries(), isOffHeap()) : store;
+    }
+
+    // Packed entries with the overlay applied: changed codes replaced or dropped, and changed entries matching
+    // the filter added, ordered by SWIFT code
+    private List<SwiftDirectoryEntry> merge(List<SwiftDirectoryEntry> packed, Predicate<SwiftDirectoryEntry> filter) {
+        if (changes.isEmpty()) {
+            return packed;
+        }
+        List<SwiftDirectoryEntry> entries = new ArrayList<>(packed.size());
+        for (SwiftDirectoryEntry entry : packed) {
+            if (!changes.containsKey(entry.getSwiftCode())) {
+                entries.add(entry);
+            }
+        }
+        for (SwiftDirectoryEntry entry : changes.values()) {
+            if (entry != null && filter.test(entry)) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.comparing(SwiftDirectoryEntry::getSwiftCode));
+        return entries;
+    }
+
+    // Estimated memory of this store next to the same rows loaded as SwiftCode entities (compressed oops,
+    // Latin-1 compact strings). Persistence-context overhead of the entities is not included.
+    public Map<String, Object> footprint() {
+        long dictionaryBytes = arrayBytes(dictionary.length);
+        for (String value : dictionary) {
+            dictionaryBytes += stringBytes(value);
+        }
+        long countryBytes = 2 * arrayBytes(countryCodes.length);
+        for (int i = 0; i < countryCodes.length; i++) {
+            countryBytes += stringBytes(countryCodes[i]) + stringBytes(countryNames[i]);
+        }
+        long indexBytes = 0;
+        for (int[] countryRows : rowsByCountry.values()) {
+            indexBytes += align(16 + 4L * countryRows.length);
+        }
+        long rowBytes = (long) rowCount * ROW_BYTES;
+        long compactBytes = rowBytes + dictionaryBytes + countryBytes + indexBytes;
+
+        long entityBytes = 0;
+        for (int row = 0; row < rowCount; row++) {
+            int offset = row * ROW_BYTES;
+            int country = rows.getShort(offset + COUNTRY);
+            // Object header, five String references, the flag and the headquarter reference
+            entityBytes += align(12 + 5 * 4 + 1 + 4)
+                    + stringBytes(codeAt(row))
+                    + stringBytes(lookup(rows.getInt(offset + BANK_NAME)))
+                    + stringBytes(lookup(rows.getInt(offset + ADDRESS)))
+                    + stringBytes(countryCodes[country])
+                    + stringBytes(countryNames[country]);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rows", rowCount);
+        report.put("offHeap", isOffHeap());
+        report.put("pendingChanges", changes.size());
+        report.put("rowBytes", ROW_BYTES);
+        report.put("dictionaryStrings", dictionary.length);
+        report.put("countries", countryCodes.length);
+        Map<String, Object> compact = new LinkedHashMap<>();
+        compact.put("rows", rowBytes);
+        compact.put("dictionary", dictionaryBytes);
+        compact.put("countries", countryBytes);
+        compact.put("indexes", indexBytes);
+        compact.put("total", compactBytes);
+        compact.put("offHeap", isOffHeap() ? rowBytes : 0);
+        report.put("compactBytes", compact);
+        report.put("entityGraphBytes", entityBytes);
+        report.put("savedBytes", entityBytes - compactBytes);
+        report.put("ratio", compactBytes > 0 ? Math.round(entityBytes * 100.0 / compactBytes) / 100.0 : 0);
+        return report;
+    }
+
+    private int find(String swiftCode) {
+        if (!BicCodec.isEncodable(swiftCode)) {
+            return NONE;
+        }
+        long high = BicCodec.packHigh(swiftCode);
+        short low = BicCodec.packLow(swiftCode);
+        int row = lowerBound(high, low);
+        if (row < rowCount && rows.getLong(row * ROW_BYTES + CODE_HIGH) == high && rows.getShort(row * ROW_BYTES + CODE_LOW) == low) {
+            return row;
+        }
+        return NONE;
+    }
+
+    // First row whose code is not below the prefix padded with the given fill value
+    private int lowerBound(String prefix, int fill) {
+        return lowerBound(BicCodec.packHigh(prefix, fill), BicCodec.packLow(prefix, fill));
+    }
+
+    private int lowerBound(long high, short low) {
+        int from = 0;
+        int to = rowCount;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            int offset = mid * ROW_BYTES;
+            if (BicCodec.compare(rows.getLong(offset + CODE_HIGH), rows.getShort(offset + CODE_LOW), high, low) < 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    private List<SwiftDirectoryEntry> decode(int from, int to) {
+        List<SwiftDirectoryEntry> entries = new ArrayList<>(Math.max(0, to - from));
+        for (int row = from; row < to; row++) {
+            entries.add(decode(row));
+        }
+        return entries;
+    }
+
+    private SwiftDirectoryEntry decode(int row) {
+        int offset = row * ROW_BYTES;
+        int country = rows.getShort(offset + COUNTRY);
+        int headquarterRow = rows.getInt(offset + HEADQUARTER);
+        return new SwiftDirectoryEntry(
+                codeAt(row),
+                lookup(rows.getInt(offset + BANK_NAME)),
+                lookup(rows.getInt(offset + ADDRESS)),
+                countryCodes[country],
+                countryNames[country],
+                (rows.get(offset + FLAGS) & HEADQUARTER_FLAG) != 0,
+                headquarterRow != NONE ? codeAt(headquarterRow) : null);
+    }
+
+    private String codeAt(int row) {
+        int offset = row * ROW_BYTES;
+        return BicCodec.unpack(rows.getLong(offset + CODE_HIGH), rows.getShort(offset + CODE_LOW));
+    }
+
+    private String lookup(int id) {
+        return id != NONE ? dictionary[id] : null;
+    }
+
+    private static int intern(Map<String, Integer> dictionaryIds, String value) {
+        if (value == null) {
+            return NONE;
+        }
+        return dictionaryIds.computeIfAbsent(value, key -> dictionaryIds.size());
+    }
+
+    // String object plus its backing byte[]; two bytes per char once any char is outside Latin-1
+    private static long stringBytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int bytesPerChar = value.chars().allMatch(c -> c <= 0xFF) ? 1 : 2;
+        return 24 + align(16 + (long) value.length() * bytesPerChar);
+    }
+
+    private static long arrayBytes(int references) {
+        return align(16 + 4L * references);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.DTO.SWIFTCodeDTO;
+import com.example.InternSwiftCodesProject.DTO.SWIFTCodeSimpleDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+// Fully serialised GET /v1/swift-codes/country/{ISO2} bodies, keyed by upper-case ISO2 code, so a request for an
+// unchanged country is a map lookup and a write of the stored bytes. Bounded by the total size of the bodies.
+@Component
+public class CountryListingCache {
+    // JSON body, its gzip encoding (null when compression is off or the body is too small to gain) and the code count
+    public record Listing(byte[] json, byte[] gzip, int size) {
+        int weight() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+
+    private final Cache<String, Listing> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final ObjectMapper objectMapper;
+    private final boolean gzip;
+    private final int gzipMinSize;
+
+    public CountryListingCache(ObjectMapper objectMapper,
+                               @Value("${swift.cache.country.max-bytes:67108864}") long maxBytes,
+                               @Value("${swift.cache.country.gzip:true}") boolean gzip,
+                               @Value("${swift.cache.country.gzip-min-size:1024}") int gzipMinSize) {
+        this.objectMapper = objectMapper;
+        this.gzip = gzip;
+        this.gzipMinSize = gzipMinSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<String, Listing>weigher((countryISO2, listing) -> listing.weight())
+                .recordStats()
+                .build();
+    }
+
+    // The stored listing, or one built from the loader's rows (ordered by SWIFT code); null for a country
+    // without codes, which is not cached. As in SwiftCodeDetailsCache, the loader runs outside the cache and a
+    // listing built while any country was invalidated is returned but not stored.
+    public Listing get(String countryISO2, Function<String, List<SWIFTCodeDTO>> loader) {
+        Listing cached = cache.getIfPresent(countryISO2);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = invalidations.get();
+        List<SWIFTCodeDTO> swiftCodes = loader.apply(countryISO2);
+        if (swiftCodes.isEmpty()) {
+            return null;
+        }
+        Listing built = build(countryISO2, swiftCodes);
+        cache.asMap().compute(countryISO2, (iso2, current) -> invalidations.get() == seen ? built : current);
+        return built;
+    }
+
+    // Drop a country whose codes changed; it is rebuilt from its current rows on the next read
+    public void invalidate(String countryISO2) {
+        invalidations.incrementAndGet();
+        cache.invalidate(countryISO2.toUpperCase());
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("size", cache.estimatedSize());
+        response.put("bytes", cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L));
+        response.put("hits", stats.hitCount());
+        response.put("misses", stats.missCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("evictions", stats.evictionCount());
+        return response;
+    }
+
+    private Listing build(String countryISO2, List<SWIFTCodeDTO> swiftCodes) {
+        List<SWIFTCodeSimpleDTO> swiftCodeDTOs = new ArrayList<>(swiftCodes.size());
+        for (SWIFTCodeDTO swiftCode : swiftCodes) {
+            swiftCodeDTOs.add(new SWIFTCodeSimpleDTO(
+                    swiftCode.getAddress(),
+                    swiftCode.getBankName(),
+                    swiftCode.getCountryISO2(),
+                    swiftCode.isHeadquarter(),
+                    swiftCode.getSwiftCode()
+            ));
+        }
+
+        // Same structure the endpoint used to serialise on every request
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("countryISO2", countryISO2);
+        response.put("countryName", swiftCodes.get(0).getCountryName());
+        response.put("swiftCodes", swiftCodeDTOs);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            return new Listing(json, gzip && json.length >= gzipMinSize ? gzip(json) : null, swiftCodeDTOs.size());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.DTO.SWIFTCodeSimpleDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Country listings whose memory use does not grow with the size of the country: keyset pages
+// (cursor = last SWIFT code of the previous page) and a row-by-row stream over a DB cursor
+@Service
+public class CountryListingService {
+    private static final String SELECT_COLUMNS = "SELECT swift_code, bank_name, address, countryiso2, headquarter_flag FROM swift_codes ";
+    private static final String PAGE_SQL = SELECT_COLUMNS + "WHERE countryiso2 = ? AND swift_code > ? ORDER BY swift_code LIMIT ?";
+    private static final String STREAM_SQL = SELECT_COLUMNS + "WHERE countryiso2 = ? ORDER BY swift_code";
+    private static final RowMapper<SWIFTCodeSimpleDTO> ROW_MAPPER = (rs, rowNum) -> new SWIFTCodeSimpleDTO(
+            rs.getString("address"),
+            rs.getString("bank_name"),
+            rs.getString("countryiso2"),
+            rs.getBoolean("headquarter_flag"),
+            rs.getString("swift_code"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SwiftDirectory directory;
+    private final int fetchSize;
+
+    // Constructor-based dependency injection
+    public CountryListingService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 SwiftDirectory directory,
+                                 @Value("${swift.country.stream.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.directory = directory;
+        this.fetchSize = fetchSize;
+    }
+
+    // One page of a country's codes, ordered by SWIFT code; nextCursor is null on the last page
+    public record CountryPage(List<SWIFTCodeSimpleDTO> swiftCodes, String nextCursor) {
+    }
+
+    // Codes after the cursor (exclusive; null for the first page), at most limit of them
+    public CountryPage getPage(String countryISO2, String after, int limit) {
+        String cursor = after != null ? after.toUpperCase() : "";
+        List<SWIFTCodeSimpleDTO> rows;
+        if (directory.isEnabled()) {
+            rows = pageFromDirectory(countryISO2, cursor, limit + 1);
+        } else {
+            // One row more than asked tells whether another page follows
+            rows = jdbcTemplate.query(PAGE_SQL, ROW_MAPPER, countryISO2, cursor, limit + 1);
+        }
+        if (rows.size() <= limit) {
+            return new CountryPage(rows, null);
+        }
+        List<SWIFTCodeSimpleDTO> page = new ArrayList<>(rows.subList(0, limit));
+        return new CountryPage(page, page.get(limit - 1).getSwiftCode());
+    }
+
+    // Hand every code of the country to the consumer in SWIFT code order, fetching fetchSize rows at a time
+    public void stream(String countryISO2, Consumer<SWIFTCodeSimpleDTO> consumer) {
+        if (directory.isEnabled()) {
+            for (SwiftDirectoryEntry entry : directory.snapshot().getByCountry(countryISO2)) {
+                consumer.accept(toSimpleDto(entry));
+            }
+            return;
+        }
+        // PostgreSQL only uses a server-side cursor inside a transaction; otherwise it buffers the whole result
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(STREAM_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, countryISO2);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(ROW_MAPPER.mapRow(rs, rs.getRow()))));
+    }
+
+    private List<SWIFTCodeSimpleDTO> pageFromDirectory(String countryISO2, String cursor, int limit) {
+        List<SwiftDirectoryEntry> entries = directory.snapshot().getByCountry(countryISO2);
+        // Entries are sorted by code: binary search for the first one after the cursor
+        int from = 0;
+        int to = entries.size();
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (entries.get(mid).getSwiftCode().compareTo(cursor) <= 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        List<SWIFTCodeSimpleDTO> rows = new ArrayList<>();
+        for (int i = from; i < entries.size() && rows.size() < limit; i++) {
+            rows.add(toSimpleDto(entries.get(i)));
+        }
+        return rows;
+    }
+
+    private static SWIFTCodeSimpleDTO toSimpleDto(SwiftDirectoryEntry entry) {
+        return new SWIFTCodeSimpleDTO(
+                entry.getAddress(),
+                entry.getBankName(),
+                entry.getCountryISO2(),
+                entry.isHeadquarterFlag(),
+                entry.getSwiftCode());
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.SwiftCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Staged import: the calling thread reads records, a pool of workers validates and normalises them,
+// and a single writer deduplicates and stores them in batches. Stages are joined by bounded queues,
+// so a slow writer throttles the reader instead of letting parsed rows pile up on the heap.
+@Service
+public class CsvImportPipeline {
+    // Marker batch telling the next stage that one upstream producer is done; compared by identity
+    private static final List<SwiftCode> END_OF_STREAM = new ArrayList<>(0);
+
+    private final SwiftCodeBulkImporter bulkImporter;
+    private final SwiftMetrics metrics;
+    private final int workers;
+    private final int queueCapacity;
+    private final int handoffSize;
+    private final ThreadFactory stageThreads;
+
+    private final Set<ImportPipelineRun> activeRuns = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<ImportPipelineRun> lastRun = new AtomicReference<>();
+
+    // Constructor-based dependency injection; 0 workers means one per available core.
+    // Stages run on virtual threads when spring.threads.virtual.enabled is set and the JVM is 21 or newer
+    public CsvImportPipeline(SwiftCodeBulkImporter bulkImporter,
+                             SwiftMetrics metrics,
+                             @Value("${swift.import.pipeline.workers:0}") int workers,
+                             @Value("${swift.import.pipeline.queue-capacity:64}") int queueCapacity,
+                             @Value("${swift.import.pipeline.handoff-size:256}") int handoffSize,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (workers < 0 || queueCapacity < 1 || handoffSize < 1) {
+            throw new IllegalArgumentException("Invalid import pipeline configuration");
+        }
+        this.bulkImporter = bulkImporter;
+        this.metrics = metrics;
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        this.handoffSize = handoffSize;
+        this.stageThreads = virtualThreads && JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)
+                ? new VirtualThreadTaskExecutor("swift-import-").getVirtualThreadFactory()
+                : new CustomizableThreadFactory("swift-import-");
+    }
+
+    public BulkImportResult run(Iterator<SwiftCode> records) {
+        return run(records, new BulkImportResult());
+    }
+
+    public BulkImportResult run(Iterator<SwiftCode> records, BulkImportResult result) {
+        return run(records, result, ImportMode.APPEND);
+    }
+
+    // Run the whole pipeline; returns once every accepted row is written and branches are linked. On failure the
+    // writer is aborted, which still refreshes the read side if some chunks were committed
+    public BulkImportResult run(Iterator<SwiftCode> records, BulkImportResult result, ImportMode mode) {
+        // Opened up front, so validation workers can report rejected rows to it
+        SwiftCodeBulkImporter.RowWriter writer = bulkImporter.openWriter(result, mode);
+        ImportPipelineRun run = new ImportPipelineRun(queueCapacity, workers);
+        activeRuns.add(run);
+        ExecutorService stagePool = Executors.newFixedThreadPool(workers + 1, stageThreads);
+        Throwable failure = null;
+        try {
+            List<Future<?>> stages = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                stages.add(stagePool.submit(abortOnFailure(run, timed("validate", () -> validateStage(run, result, writer)))));
+            }
+            stages.add(stagePool.submit(abortOnFailure(run, timed("write", () -> writeStage(run, writer)))));
+
+            try {
+                abortOnFailure(run, timed("read", () -> readStage(records, run))).call();
+            } catch (Exception e) {
+                failure = e;
+            }
+            for (Future<?> stage : stages) {
+                try {
+                    stage.get();
+                } catch (ExecutionException e) {
+                    failure = rootFailure(failure, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            run.abort();
+            Thread.currentThread().interrupt();
+            failure = e;
+        } finally {
+            stagePool.shutdownNow();
+            run.finish();
+            activeRuns.remove(run);
+            lastRun.set(run);
+        }
+
+        if (failure != null) {
+            // Chunks written before the failure stay committed; bring the read side in line with them
+            try {
+                writer.abort();
+            } catch (RuntimeException abortFailure) {
+                failure.addSuppressed(abortFailure);
+            }
+        }
+        if (failure instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Import pipeline failed: " + failure.getMessage(), failure);
+        }
+        return result;
+    }
+
+    // Queue depths and per-stage throughput of running imports and of the last finished one
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> active = new ArrayList<>();
+        for (ImportPipelineRun run : activeRuns) {
+            active.add(run.snapshot());
+        }
+        ImportPipelineRun last = lastRun.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workers);
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("handoffSize", handoffSize);
+        stats.put("active", active);
+        stats.put("last", last != null ? last.snapshot() : null);
+        return stats;
+    }
+
+    private Void readStage(Iterator<SwiftCode> records, ImportPipelineRun run) throws InterruptedException {
+        List<SwiftCode> batch = new ArrayList<>(handoffSize);
+        while (records.hasNext()) {
+            batch.add(records.next());
+            if (batch.size() >= handoffSize) {
+                run.reader.rows.add(batch.size());
+                run.put(run.parsed, batch, run.reader);
+                batch = new ArrayList<>(handoffSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            run.reader.rows.add(batch.size());
+            run.put(run.parsed, batch, run.reader);
+        }
+        // One marker per worker, so each of them sees the end of the stream
+        for (int i = 0; i < workers; i++) {
+            run.put(run.parsed, END_OF_STREAM, run.reader);
+        }
+        return null;
+    }
+
+    private Void validateStage(ImportPipelineRun run, BulkImportResult result,
+                               SwiftCodeBulkImporter.RowWriter writer) throws InterruptedException {
+        while (true) {
+            List<SwiftCode> batch = run.take(run.parsed, run.validator);
+            if (batch == END_OF_STREAM) {
+                run.put(run.validated, END_OF_STREAM, run.validator);
+                return null;
+            }
+            List<SwiftCode> valid = new ArrayList<>(batch.size());
+            for (SwiftCode swiftCode : batch) {
+                String rejection = bulkImporter.validate(swiftCode);
+                if (rejection == null) {
+                    valid.add(swiftCode);
+                } else {
+                    bulkImporter.recordRejection(result, swiftCode, rejection);
+                    writer.rejected(swiftCode);
+                }
+            }
+            run.validator.rows.add(batch.size());
+            if (!valid.isEmpty()) {
+                run.put(run.validated, valid, run.validator);
+            }
+        }
+    }
+
+    private Void writeStage(ImportPipelineRun run, SwiftCodeBulkImporter.RowWriter writer) throws InterruptedException {
+        int finishedWorkers = 0;
+        while (finishedWorkers < workers) {
+            List<SwiftCode> batch = run.take(run.validated, run.writer);
+            if (batch == END_OF_STREAM) {
+                finishedWorkers++;
+                continue;
+            }
+            for (SwiftCode swiftCode : batch) {
+                writer.accept(swiftCode);
+            }
+            run.writer.rows.add(batch.size());
+        }
+        writer.finish();
+        return null;
+    }
+
+    // Stages cancelled because of another failure report CancellationException; keep the original cause
+    private static Throwable rootFailure(Throwable current, Throwable candidate) {
+        if (current == null || (current instanceof CancellationException && !(candidate instanceof CancellationException))) {
+            return candidate;
+        }
+        return current;
+    }
+
+    // Each stage task's lifetime, including time blocked on its queues
+    private Callable<Void> timed(String stage, Callable<Void> task) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                return task.call();
+            } finally {
+                metrics.recordStage(stage, System.nanoTime() - start);
+            }
+        };
+    }
+
+    // A failing stage stops the others instead of leaving them blocked on a queue
+    private static Callable<Void> abortOnFailure(ImportPipelineRun run, Callable<Void> stage) {
+        return () -> {
+            try {
+                return stage.call();
+            } catch (Exception | Error e) {
+                run.abort();
+                throw e;
+            }
+        };
+    }
+}
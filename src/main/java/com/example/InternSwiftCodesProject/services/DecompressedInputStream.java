@@ -0,0 +1,72 @@
+package com.example.InternSwiftCodesProject.services;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counts the bytes coming out of a decompressing stream and stops decompression bombs: the uncompressed total
+// of the upload is capped, and so is its ratio to the compressed bytes read so far (past the first MiB, which
+// may legitimately compress very well). Closing it leaves the wrapped stream open, so the CSV parser can close
+// one ZIP entry without closing the archive.
+class DecompressedInputStream extends FilterInputStream {
+    private static final long RATIO_GRACE_BYTES = 1024 * 1024;
+
+    private final AtomicLong uncompressedBytes;
+    private final AtomicLong entryBytes;
+    private final AtomicLong compressedBytes;
+    private final long maxBytes;
+    private final int maxRatio;
+
+    DecompressedInputStream(InputStream in, AtomicLong uncompressedBytes, AtomicLong entryBytes, AtomicLong compressedBytes,
+                            long maxBytes, int maxRatio) {
+        super(in);
+        this.uncompressedBytes = uncompressedBytes;
+        this.entryBytes = entryBytes;
+        this.compressedBytes = compressedBytes;
+        this.maxBytes = maxBytes;
+        this.maxRatio = maxRatio;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public void close() {
+        // The archive or file stream is closed by its owner
+    }
+
+    private void count(long n) throws IOException {
+        entryBytes.addAndGet(n);
+        long total = uncompressedBytes.addAndGet(n);
+        if (total > maxBytes) {
+            throw new IOException("Upload decompresses to more than " + maxBytes + " bytes (swift.import.compressed.max-uncompressed-bytes)");
+        }
+        long compressed = Math.max(1, compressedBytes.get());
+        if (total > RATIO_GRACE_BYTES && total / compressed > maxRatio) {
+            throw new IOException("Upload expands more than " + maxRatio + " times its compressed size (swift.import.compressed.max-ratio)");
+        }
+    }
+}
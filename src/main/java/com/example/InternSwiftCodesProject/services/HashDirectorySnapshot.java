@@ -0,0 +1,297 @@
+package com.example.InternSwiftCodesProject.services;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Snapshot backed by plain hash maps of entry objects: code -> entry, 8-char prefix -> HQ and branches,
+// ISO2 -> entries. Fastest to read, but every field is a separate object on the heap. Codes and prefixes are
+// sharded by the country letters of the code (characters 5-6), so a change copies only the shards, prefix list
+// and country list it touches and shares everything else with the previous snapshot.
+public final class HashDirectorySnapshot implements SwiftDirectorySnapshot {
+    private static final Comparator<SwiftDirectoryEntry> BY_CODE = Comparator.comparing(SwiftDirectoryEntry::getSwiftCode);
+
+    private final Map<String, Map<String, SwiftDirectoryEntry>> byCode;
+    private final Map<String, Map<String, List<SwiftDirectoryEntry>>> byPrefix;
+    private final Map<String, List<SwiftDirectoryEntry>> byCountry;
+    private final int size;
+
+    private HashDirectorySnapshot(Map<String, Map<String, SwiftDirectoryEntry>> byCode,
+                                  Map<String, Map<String, List<SwiftDirectoryEntry>>> byPrefix,
+                                  Map<String, List<SwiftDirectoryEntry>> byCountry,
+                                  int size) {
+        this.byCode = byCode;
+        this.byPrefix = byPrefix;
+        this.byCountry = byCountry;
+        this.size = size;
+    }
+
+    public static HashDirectorySnapshot of(Collection<SwiftDirectoryEntry> entries) {
+        List<SwiftDirectoryEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(BY_CODE);
+
+        Map<String, Map<String, SwiftDirectoryEntry>> byCode = new HashMap<>();
+        Map<String, Map<String, List<SwiftDirectoryEntry>>> byPrefix = new HashMap<>();
+        Map<String, List<SwiftDirectoryEntry>> byCountry = new HashMap<>();
+        int size = 0;
+        for (SwiftDirectoryEntry entry : sorted) {
+            if (byCode.computeIfAbsent(shardOf(entry.getSwiftCode()), key -> new HashMap<>()).put(entry.getSwiftCode(), entry) == null) {
+                size++;
+            }
+            byPrefix.computeIfAbsent(shardOf(entry.getPrefix()), key -> new HashMap<>())
+                    .computeIfAbsent(entry.getPrefix(), key -> new ArrayList<>()).add(entry);
+            byCountry.computeIfAbsent(entry.getCountryISO2(), key -> new ArrayList<>()).add(entry);
+        }
+        byCode.replaceAll((key, shard) -> Collections.unmodifiableMap(shard));
+        byPrefix.replaceAll((key, shard) -> {
+            shard.replaceAll((prefix, list) -> Collections.unmodifiableList(list));
+            return Collections.unmodifiableMap(shard);
+        });
+        byCountry.replaceAll((key, list) -> Collections.unmodifiableList(list));
+
+        return new HashDirectorySnapshot(
+                Collections.unmodifiableMap(byCode),
+                Collections.unmodifiableMap(byPrefix),
+                Collections.unmodifiableMap(byCountry),
+                size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Collection<SwiftDirectoryEntry> entries() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<SwiftDirectoryEntry> iterator() {
+                return byCode.values().stream().flatMap(shard -> shard.values().stream()).iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Optional<SwiftDirectoryEntry> get(String swiftCode) {
+        return Optional.ofNullable(byCode.getOrDefault(shardOf(swiftCode), Map.of()).get(swiftCode));
+    }
+
+    @Override
+    public boolean contains(String swiftCode) {
+        return byCode.getOrDefault(shardOf(swiftCode), Map.of()).containsKey(swiftCode);
+    }
+
+    // All entries of a country, ordered by SWIFT code
+    @Override
+    public List<SwiftDirectoryEntry> getByCountry(String countryISO2) {
+        return byCountry.getOrDefault(countryISO2, List.of());
+    }
+
+    // HQ and branches sharing the 8-character prefix, ordered by SWIFT code
+    @Override
+    public List<SwiftDirectoryEntry> getByPrefix(String prefix8) {
+        return byPrefix.getOrDefault(shardOf(prefix8), Map.of()).getOrDefault(prefix8, List.of());
+    }
+
+    // Branches currently linked to the given headquarter
+    @Override
+    public List<SwiftDirectoryEntry> getBranchesOf(String headquarterSwift) {
+        List<SwiftDirectoryEntry> branches = new ArrayList<>();
+        if (headquarterSwift.length() < 8) {
+            return branches;
+        }
+        for (SwiftDirectoryEntry entry : getByPrefix(headquarterSwift.substring(0, 8))) {
+            if (headquarterSwift.equals(entry.getHeadquarterSwift())) {
+                branches.add(entry);
+            }
+        }
+        return branches;
+    }
+
+    // New snapshot with the entry added or replaced; a new HQ adopts the orphan branches of its prefix
+    @Override
+    public HashDirectorySnapshot withSaved(SwiftDirectoryEntry saved) {
+        List<SwiftDirectoryEntry> removed = new ArrayList<>();
+        List<SwiftDirectoryEntry> added = new ArrayList<>();
+        get(saved.getSwiftCode()).ifPresent(removed::add);
+        added.add(saved);
+        if (saved.isHeadquarterFlag()) {
+            for (SwiftDirectoryEntry entry : getByPrefix(saved.getPrefix())) {
+                if (!entry.isHeadquarterFlag() && entry.getHeadquarterSwift() == null) {
+                    removed.add(entry);
+                    added.add(entry.withHeadquarterSwift(saved.getSwiftCode()));
+                }
+            }
+        }
+        return apply(removed, added);
+    }
+
+    // New snapshot without the entry; branches of a removed HQ become orphans
+    @Override
+    public HashDirectorySnapshot withDeleted(String swiftCode) {
+        Optional<SwiftDirectoryEntry> deleted = get(swiftCode);
+        if (deleted.isEmpty()) {
+            return this;
+        }
+        List<SwiftDirectoryEntry> removed = new ArrayList<>();
+        List<SwiftDirectoryEntry> added = new ArrayList<>();
+        removed.add(deleted.get());
+        for (SwiftDirectoryEntry branch : getBranchesOf(swiftCode)) {
+            removed.add(branch);
+            added.add(branch.withHeadquarterSwift(null));
+        }
+        return apply(removed, added);
+    }
+
+    // Copy of this snapshot without the removed entries and with the added ones. Only the code shards, prefix
+    // lists and country lists they belong to are copied; the outer maps are copied shallowly.
+    private HashDirectorySnapshot apply(List<SwiftDirectoryEntry> removed, List<SwiftDirectoryEntry> added) {
+        Map<String, Map<String, SwiftDirectoryEntry>> codes = new HashMap<>(byCode);
+        Map<String, Map<String, List<SwiftDirectoryEntry>>> prefixes = new HashMap<>(byPrefix);
+        Map<String, List<SwiftDirectoryEntry>> countries = new HashMap<>(byCountry);
+        Set<String> copiedShards = new HashSet<>();
+        Set<String> copiedPrefixShards = new HashSet<>();
+        Set<String> copiedPrefixes = new HashSet<>();
+        Set<String> copiedCountries = new HashSet<>();
+        int newSize = size;
+
+        for (SwiftDirectoryEntry entry : removed) {
+            if (codeShard(codes, entry.getSwiftCode(), copiedShards).remove(entry.getSwiftCode()) != null) {
+                newSize--;
+            }
+            remove(prefixList(prefixes, entry.getPrefix(), copiedPrefixShards, copiedPrefixes), entry.getSwiftCode());
+            remove(countryList(countries, entry.getCountryISO2(), copiedCountries), entry.getSwiftCode());
+        }
+        for (SwiftDirectoryEntry entry : added) {
+            if (codeShard(codes, entry.getSwiftCode(), copiedShards).put(entry.getSwiftCode(), entry) == null) {
+                newSize++;
+            }
+            insert(prefixList(prefixes, entry.getPrefix(), copiedPrefixShards, copiedPrefixes), entry);
+            insert(countryList(countries, entry.getCountryISO2(), copiedCountries), entry);
+        }
+
+        for (String shard : copiedShards) {
+            Map<String, SwiftDirectoryEntry> codesOfShard = codes.get(shard);
+            if (codesOfShard.isEmpty()) {
+                codes.remove(shard);
+            } else {
+                codes.put(shard, Collections.unmodifiableMap(codesOfShard));
+            }
+        }
+        for (String prefix : copiedPrefixes) {
+            Map<String, List<SwiftDirectoryEntry>> prefixesOfShard = prefixes.get(shardOf(prefix));
+            List<SwiftDirectoryEntry> list = prefixesOfShard.get(prefix);
+            if (list.isEmpty()) {
+                prefixesOfShard.remove(prefix);
+            } else {
+                prefixesOfShard.put(prefix, Collections.unmodifiableList(list));
+            }
+        }
+        for (String shard : copiedPrefixShards) {
+            Map<String, List<SwiftDirectoryEntry>> prefixesOfShard = prefixes.get(shard);
+            if (prefixesOfShard.isEmpty()) {
+                prefixes.remove(shard);
+            } else {
+                prefixes.put(shard, Collections.unmodifiableMap(prefixesOfShard));
+            }
+        }
+        for (String countryISO2 : copiedCountries) {
+            List<SwiftDirectoryEntry> list = countries.get(countryISO2);
+            if (list.isEmpty()) {
+                countries.remove(countryISO2);
+            } else {
+                countries.put(countryISO2, Collections.unmodifiableList(list));
+            }
+        }
+        return new HashDirectorySnapshot(
+                Collections.unmodifiableMap(codes),
+                Collections.unmodifiableMap(prefixes),
+                Collections.unmodifiableMap(countries),
+                newSize);
+    }
+
+    // Mutable copies of the code shard, prefix list and country list, made on first use within one change
+
+    private static Map<String, SwiftDirectoryEntry> codeShard(Map<String, Map<String, SwiftDirectoryEntry>> codes,
+                                                              String swiftCode, Set<String> copied) {
+        String shard = shardOf(swiftCode);
+        if (copied.add(shard)) {
+            codes.put(shard, new HashMap<>(codes.getOrDefault(shard, Map.of())));
+        }
+        return codes.get(shard);
+    }
+
+    private static List<SwiftDirectoryEntry> prefixList(Map<String, Map<String, List<SwiftDirectoryEntry>>> prefixes,
+                                                        String prefix, Set<String> copiedShards, Set<String> copiedPrefixes) {
+        String shard = shardOf(prefix);
+        if (copiedShards.add(shard)) {
+            prefixes.put(shard, new HashMap<>(prefixes.getOrDefault(shard, Map.of())));
+        }
+        Map<String, List<SwiftDirectoryEntry>> prefixesOfShard = prefixes.get(shard);
+        if (copiedPrefixes.add(prefix)) {
+            prefixesOfShard.put(prefix, new ArrayList<>(prefixesOfShard.getOrDefault(prefix, List.of())));
+        }
+        return prefixesOfShard.get(prefix);
+    }
+
+    private static List<SwiftDirectoryEntry> countryList(Map<String, List<SwiftDirectoryEntry>> countries,
+                                                         String countryISO2, Set<String> copied) {
+        if (copied.add(countryISO2)) {
+            countries.put(countryISO2, new ArrayList<>(countries.getOrDefault(countryISO2, List.of())));
+        }
+        return countries.get(countryISO2);
+    }
+
+    // Lists stay ordered by SWIFT code, so both are binary searches
+    private static void remove(List<SwiftDirectoryEntry> list, String swiftCode) {
+        int index = indexOf(list, swiftCode);
+        if (index >= 0) {
+            list.remove(index);
+        }
+    }
+
+    private static void insert(List<SwiftDirectoryEntry> list, SwiftDirectoryEntry entry) {
+        int index = indexOf(list, entry.getSwiftCode());
+        if (index >= 0) {
+            list.set(index, entry);
+        } else {
+            list.add(-index - 1, entry);
+        }
+    }
+
+    private static int indexOf(List<SwiftDirectoryEntry> list, String swiftCode) {
+        int from = 0;
+        int to = list.size() - 1;
+        while (from <= to) {
+            int mid = (from + to) >>> 1;
+            int compared = list.get(mid).getSwiftCode().compareTo(swiftCode);
+            if (compared < 0) {
+                from = mid + 1;
+            } else if (compared > 0) {
+                to = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(from + 1);
+    }
+
+    // Country letters of a code or prefix (characters 5-6); shorter keys are a shard of their own
+    private static String shardOf(String code) {
+        return code.length() >= 6 ? code.substring(4, 6) : code;
+    }
+}
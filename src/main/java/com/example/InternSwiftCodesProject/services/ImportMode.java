@@ -0,0 +1,27 @@
+package com.example.InternSwiftCodesProject.services;
+
+import java.util.Locale;
+import java.util.Optional;
+
+// How a bulk import treats the codes already in the table
+public enum ImportMode {
+    // Insert new codes only; stored codes are skipped as duplicates
+    APPEND,
+    // The file is a complete directory release: insert new codes, update the ones whose content changed
+    // and delete the ones it no longer lists; unchanged rows are not written
+    DELTA,
+    // Like DELTA, but the file is only part of the directory (e.g. a seed file): nothing is deleted
+    MERGE;
+
+    // Mode from a request parameter ("append", "delta", "merge"), empty for anything else
+    public static Optional<ImportMode> fromParameter(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(valueOf(value.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.SwiftCode;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// State of one pipeline run: the bounded queues between stages and per-stage throughput counters
+class ImportPipelineRun {
+    private static final long POLL_MILLIS = 100;
+
+    final BlockingQueue<List<SwiftCode>> parsed;
+    final BlockingQueue<List<SwiftCode>> validated;
+    final StageStats reader = new StageStats();
+    final StageStats validator = new StageStats();
+    final StageStats writer = new StageStats();
+
+    private final int queueCapacity;
+    private final int workers;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private volatile long finishedNanos;
+    private volatile boolean aborted;
+
+    ImportPipelineRun(int queueCapacity, int workers) {
+        this.queueCapacity = queueCapacity;
+        this.workers = workers;
+        this.parsed = new ArrayBlockingQueue<>(queueCapacity);
+        this.validated = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    // Blocking put that gives up once another stage has failed; time spent waiting is back-pressure
+    void put(BlockingQueue<List<SwiftCode>> queue, List<SwiftCode> batch, StageStats stats) throws InterruptedException {
+        if (queue.offer(batch)) {
+            return;
+        }
+        long waitStart = System.nanoTime();
+        try {
+            while (!queue.offer(batch, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkNotAborted();
+            }
+        } finally {
+            stats.blockedNanos.addAndGet(System.nanoTime() - waitStart);
+        }
+    }
+
+    // Blocking take that gives up once another stage has failed; time spent waiting is starvation
+    List<SwiftCode> take(BlockingQueue<List<SwiftCode>> queue, StageStats stats) throws InterruptedException {
+        List<SwiftCode> batch = queue.poll();
+        if (batch != null) {
+            return batch;
+        }
+        long waitStart = System.nanoTime();
+        try {
+            while ((batch = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                checkNotAborted();
+            }
+            return batch;
+        } finally {
+            stats.idleNanos.addAndGet(System.nanoTime() - waitStart);
+        }
+    }
+
+    void abort() {
+        aborted = true;
+    }
+
+    void finish() {
+        finishedNanos = System.nanoTime();
+    }
+
+    // Point-in-time view of queue depths and stage throughput
+    Map<String, Object> snapshot() {
+        long endNanos = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+        long elapsedNanos = endNanos - startNanos;
+
+        Map<String, Object> queues = new LinkedHashMap<>();
+        queues.put("capacity", queueCapacity);
+        queues.put("parsed", parsed.size());
+        queues.put("validated", validated.size());
+
+        Map<String, Object> stages = new LinkedHashMap<>();
+        stages.put("reader", reader.snapshot(elapsedNanos));
+        stages.put("validator", validator.snapshot(elapsedNanos));
+        stages.put("writer", writer.snapshot(elapsedNanos));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("startedAt", startedAt.toString());
+        snapshot.put("running", finishedNanos == 0);
+        snapshot.put("aborted", aborted);
+        snapshot.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        snapshot.put("workers", workers);
+        snapshot.put("queues", queues);
+        snapshot.put("stages", stages);
+        return snapshot;
+    }
+
+    private void checkNotAborted() {
+        if (aborted) {
+            throw new CancellationException("Import pipeline aborted");
+        }
+    }
+
+    static class StageStats {
+        final LongAdder rows = new LongAdder();
+        final AtomicLong blockedNanos = new AtomicLong();
+        final AtomicLong idleNanos = new AtomicLong();
+
+        Map<String, Object> snapshot(long elapsedNanos) {
+            long count = rows.sum();
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("rows", count);
+            snapshot.put("rowsPerSecond", elapsedNanos > 0 ? Math.round(count * 1e9 / elapsedNanos) : 0);
+            // Waiting on a full downstream queue (back-pressure) vs an empty upstream queue (starved)
+            snapshot.put("blockedMs", TimeUnit.NANOSECONDS.toMillis(blockedNanos.get()));
+            snapshot.put("idleMs", TimeUnit.NANOSECONDS.toMillis(idleNanos.get()));
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.SwiftCode;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Reads a SWIFT directory CSV on the server's disk without a Reader or Commons CSV: the file is split into
+// newline-aligned chunks, each chunk is memory-mapped and tokenised over its bytes on a pool of parser threads,
+// and Strings are built only for the five columns SwiftCode uses (other columns such as CODE TYPE, TOWN NAME and
+// TIME ZONE are skipped). Rows come out in file order with the same mapping as CSVParserService. Quoted fields
+// may hold commas and doubled quotes but not line breaks, as in the published BIC files.
+public final class MappedCsvReader implements Iterator<SwiftCode>, AutoCloseable {
+    public static final int DEFAULT_CHUNK_BYTES = 256 * 1024;
+
+    private static final String[] COLUMNS = {"SWIFT CODE", "NAME", "ADDRESS", "COUNTRY ISO2 CODE", "COUNTRY NAME"};
+    private static final int CODE = 0;
+    private static final int NAME = 1;
+    private static final int ADDRESS = 2;
+    private static final int COUNTRY_ISO2 = 3;
+    private static final int COUNTRY_NAME = 4;
+    private static final int MAX_HEADER_BYTES = 64 * 1024;
+    private static final int SCAN_BYTES = 4096;
+
+    private final FileChannel channel;
+    // Column of each header position (CODE..COUNTRY_NAME), -1 for columns that are skipped
+    private final int[] columnAt;
+    private final int minFields;
+    private final long[] chunkStarts;
+    private final ExecutorService parsers;
+    private final int lookahead;
+    private final AtomicLong bytesRead;
+    private final Deque<Future<List<SwiftCode>>> parsing = new ArrayDeque<>();
+    private final Deque<Long> parsingBytes = new ArrayDeque<>();
+    private int nextChunk;
+    private Iterator<SwiftCode> current = Collections.emptyIterator();
+
+    private MappedCsvReader(FileChannel channel, int[] columnAt, long[] chunkStarts, int threads, AtomicLong bytesRead) {
+        this.channel = channel;
+        this.columnAt = columnAt;
+        int last = 0;
+        for (int i = 0; i < columnAt.length; i++) {
+            if (columnAt[i] >= 0) {
+                last = i;
+            }
+        }
+        this.minFields = last + 1;
+        this.chunkStarts = chunkStarts;
+        this.bytesRead = bytesRead;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("swift-csv-");
+        threadFactory.setDaemon(true);
+        this.parsers = Executors.newFixedThreadPool(threads, threadFactory);
+        // Parsed chunks waiting for the consumer are bounded, so memory stays flat for any file size
+        this.lookahead = threads * 2;
+        for (int i = 0; i < lookahead; i++) {
+            submitNextChunk();
+        }
+    }
+
+    public static MappedCsvReader open(Path path, int threads, AtomicLong bytesRead) throws IOException {
+        return open(path, threads, DEFAULT_CHUNK_BYTES, bytesRead);
+    }
+
+    // Read the header and chunk boundaries and start parsing; threads < 1 means one per available core.
+    // bytesRead, if given, advances as parsed chunks are handed out.
+    public static MappedCsvReader open(Path path, int threads, int chunkBytes, AtomicLong bytesRead) throws IOException {
+        if (chunkBytes < 1) {
+            throw new IllegalArgumentException("chunkBytes must be positive");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, MAX_HEADER_BYTES));
+            int headerStart = hasByteOrderMark(head) ? 3 : 0;
+            int headerEnd = headerStart;
+            while (headerEnd < head.limit() && head.get(headerEnd) != '\n') {
+                headerEnd++;
+            }
+            if (headerEnd == head.limit() && head.limit() < size) {
+                throw new IOException("CSV header is longer than " + MAX_HEADER_BYTES + " bytes: " + path);
+            }
+            int[] columnAt = columnsOf(head, headerStart, headerEnd, path);
+            long dataStart = Math.min(size, headerEnd + 1L);
+
+            List<Long> starts = new ArrayList<>();
+            for (long start = dataStart; start < size; ) {
+                starts.add(start);
+                start = lineEndAfter(channel, Math.min(size, start + chunkBytes), size);
+            }
+            long[] chunkStarts = new long[starts.size() + 1];
+            for (int i = 0; i < starts.size(); i++) {
+                chunkStarts[i] = starts.get(i);
+            }
+            chunkStarts[starts.size()] = size;
+            if (bytesRead != null) {
+                bytesRead.addAndGet(dataStart);
+            }
+            int parserThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+            return new MappedCsvReader(channel, columnAt, chunkStarts, parserThreads, bytesRead);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            Future<List<SwiftCode>> chunk = parsing.poll();
+            if (chunk == null) {
+                return false;
+            }
+            long chunkBytes = parsingBytes.poll();
+            current = await(chunk).iterator();
+            if (bytesRead != null) {
+                bytesRead.addAndGet(chunkBytes);
+            }
+            submitNextChunk();
+        }
+        return true;
+    }
+
+    @Override
+    public SwiftCode next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Future<List<SwiftCode>> chunk : parsing) {
+            chunk.cancel(true);
+        }
+        parsing.clear();
+        parsers.shutdownNow();
+        channel.close();
+    }
+
+    private void submitNextChunk() {
+        if (nextChunk >= chunkStarts.length - 1) {
+            return;
+        }
+        long start = chunkStarts[nextChunk];
+        long end = chunkStarts[nextChunk + 1];
+        nextChunk++;
+        parsing.add(parsers.submit(() -> parseChunk(start, end)));
+        parsingBytes.add(end - start);
+    }
+
+    private static List<SwiftCode> await(Future<List<SwiftCode>> chunk) {
+        try {
+            return chunk.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("CSV chunk could not be parsed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading CSV", e);
+        }
+    }
+
+    private List<SwiftCode> parseChunk(long start, long end) throws IOException {
+        MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int limit = bytes.limit();
+        List<SwiftCode> rows = new ArrayList<>(limit / 96 + 1);
+        String[] values = new String[COLUMNS.length];
+        byte[] scratch = new byte[256];
+
+        int pos = 0;
+        while (pos < limit) {
+            int lineStart = pos;
+            int fields = 0;
+            boolean blank = false;
+            Arrays.fill(values, null);
+            while (true) {
+                int valueStart;
+                int valueEnd;
+                boolean escaped = false;
+                if (pos < limit && bytes.get(pos) == '"') {
+                    valueStart = ++pos;
+                    while (true) {
+                        if (pos >= limit || bytes.get(pos) == '\n') {
+                            throw new IOException("Unterminated quoted field at byte " + (start + lineStart));
+                        }
+                        if (bytes.get(pos) == '"') {
+                            if (pos + 1 < limit && bytes.get(pos + 1) == '"') {
+                                escaped = true;
+                                pos += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        pos++;
+                    }
+                    valueEnd = pos++;
+                    while (pos < limit && isBlank(bytes.get(pos))) {
+                        pos++;
+                    }
+                    if (pos < limit && !isDelimiter(bytes.get(pos))) {
+                        throw new IOException("Unexpected character after quoted field at byte " + (start + pos));
+                    }
+                } else {
+                    valueStart = pos;
+                    while (pos < limit && !isDelimiter(bytes.get(pos))) {
+                        pos++;
+                    }
+                    valueEnd = pos;
+                    blank = fields == 0 && valueEnd == valueStart;
+                }
+
+                int column = fields < columnAt.length ? columnAt[fields] : -1;
+                if (column >= 0) {
+                    scratch = value(bytes, valueStart, valueEnd, escaped, scratch, values, column);
+                }
+                fields++;
+
+                if (pos < limit && bytes.get(pos) == ',') {
+                    pos++;
+                    blank = false;
+                    continue;
+                }
+                if (pos < limit && bytes.get(pos) == '\r') {
+                    pos++;
+                }
+                if (pos < limit && bytes.get(pos) == '\n') {
+                    pos++;
+                }
+                break;
+            }
+
+            // Empty lines are ignored, as by the Commons CSV reader
+            if (blank && fields == 1) {
+                continue;
+            }
+            if (fields < minFields) {
+                throw new IOException("Row at byte " + (start + lineStart) + " has " + fields + " fields, expected at least " + minFields);
+            }
+            String swiftCode = values[CODE];
+            rows.add(new SwiftCode(
+                    swiftCode,
+                    values[NAME],
+                    values[ADDRESS],
+                    values[COUNTRY_ISO2].toUpperCase(),
+                    values[COUNTRY_NAME].toUpperCase(),
+                    swiftCode.endsWith("XXX")
+            ));
+        }
+        return rows;
+    }
+
+    // Decode one trimmed field into values[column], dropping the second quote of each doubled quote;
+    // returns the (possibly grown) scratch buffer
+    private static byte[] value(ByteBuffer bytes, int start, int end, boolean escaped, byte[] scratch,
+                                String[] values, int column) {
+        while (start < end && isBlank(bytes.get(start))) {
+            start++;
+        }
+        while (end > start && isBlank(bytes.get(end - 1))) {
+            end--;
+        }
+        int length = end - start;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        bytes.get(start, scratch, 0, length);
+        if (escaped) {
+            int kept = 0;
+            for (int i = 0; i < length; i++) {
+                scratch[kept++] = scratch[i];
+                if (scratch[i] == '"') {
+                    i++;
+                }
+            }
+            length = kept;
+        }
+        values[column] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        return scratch;
+    }
+
+    private static int[] columnsOf(ByteBuffer head, int start, int end, Path path) throws IOException {
+        List<String> names = new ArrayList<>();
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || head.get(i) == ',') {
+                byte[] name = new byte[i - fieldStart];
+                head.get(fieldStart, name);
+                names.add(new String(name, StandardCharsets.UTF_8).replace("\"", "").trim());
+                fieldStart = i + 1;
+            }
+        }
+        int[] columnAt = new int[names.size()];
+        Arrays.fill(columnAt, -1);
+        for (int column = 0; column < COLUMNS.length; column++) {
+            int index = names.indexOf(COLUMNS[column]);
+            if (index < 0) {
+                throw new IOException("CSV header has no '" + COLUMNS[column] + "' column: " + path);
+            }
+            columnAt[index] = column;
+        }
+        return columnAt;
+    }
+
+    // Offset just past the first line break at or after position, or size if there is none
+    private static long lineEndAfter(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BYTES);
+        long offset = position;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    private static boolean hasByteOrderMark(ByteBuffer head) {
+        return head.limit() >= 3 && head.get(0) == (byte) 0xEF && head.get(1) == (byte) 0xBB && head.get(2) == (byte) 0xBF;
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '\n' || b == '\r';
+    }
+
+    // What String.trim() removes, for the ASCII range
+    private static boolean isBlank(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.InternSwiftCodesProject.services;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counts the bytes read from the wrapped stream, so import progress can be reported against the file size
+class ProgressInputStream extends FilterInputStream {
+    private final AtomicLong bytesRead;
+
+    ProgressInputStream(InputStream in, AtomicLong bytesRead) {
+        super(in);
+        this.bytesRead = bytesRead;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            bytesRead.incrementAndGet();
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            bytesRead.addAndGet(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        bytesRead.addAndGet(skipped);
+        return skipped;
+    }
+}
@@ -1,20 +1,45 @@
 package com.example.InternSwiftCodesProject.services;
 
+import com.example.InternSwiftCodesProject.DTO.HeadquarterBranchDTO;
+import com.example.InternSwiftCodesProject.DTO.SWIFTCodeDTO;
+import com.example.InternSwiftCodesProject.DTO.SWIFTCodeSimpleDTO;
+import com.example.InternSwiftCodesProject.DTO.SwiftCodeWithBranchesDTO;
 import com.example.InternSwiftCodesProject.SWIFTCodeRepo;
 import com.example.InternSwiftCodesProject.SwiftCode;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+@Slf4j
 @Service
 public class SWIFTCodeService {
     private final SWIFTCodeRepo swiftCodeRepo;
+    private final SwiftCodeDetailsCache detailsCache;
+    private final SwiftDirectory directory;
+    private final SwiftCodePrefixIndex prefixIndex;
+    private final SwiftCodeVersions versions;
+    private final CountryListingCache countryListings;
     // Constructor-based dependency injection
-    public SWIFTCodeService(SWIFTCodeRepo swiftCodeRepo) {
+    public SWIFTCodeService(SWIFTCodeRepo swiftCodeRepo, SwiftCodeDetailsCache detailsCache, SwiftDirectory directory,
+                            SwiftCodePrefixIndex prefixIndex, SwiftCodeVersions versions,
+                            CountryListingCache countryListings) {
         this.swiftCodeRepo = swiftCodeRepo;
+        this.detailsCache = detailsCache;
+        this.directory = directory;
+        this.prefixIndex = prefixIndex;
+        this.versions = versions;
+        this.countryListings = countryListings;
     }
     // Map of ISO2 country codes to full country names
     private static final Map<String, String> COUNTRY_NAME_MAP = Map.ofEntries(
@@ -144,60 +169,258 @@ public class SWIFTCodeService {
 
     // Retrieve all SWIFT codes for a given ISO2 country code
     public List<SwiftCode> getSwiftCodesByCountry(String countryISO2) {
-        return swiftCodeRepo.findByCountryISO2IgnoreCase(countryISO2);
+        if (directory.isEnabled()) {
+            return toSwiftCodes(directory.snapshot().getByCountry(countryISO2.toUpperCase()));
+        }
+        return swiftCodeRepo.findByCountryISO2OrderBySwiftCode(countryISO2.toUpperCase());
+    }
+
+    // Country listing for the read endpoint, projected straight into DTOs and ordered by SWIFT code
+    public List<SWIFTCodeDTO> getCountryListing(String countryISO2) {
+        if (directory.isEnabled()) {
+            return toDtos(directory.snapshot().getByCountry(countryISO2.toUpperCase()));
+        }
+        return swiftCodeRepo.findDtosByCountryISO2(countryISO2.toUpperCase());
+    }
+
+    // Serialised country listing (JSON and, for larger ones, gzip), built once and reused until the country changes
+    public Optional<CountryListingCache.Listing> getCountryListingBody(String countryISO2) {
+        return Optional.ofNullable(countryListings.get(countryISO2.toUpperCase(), this::getCountryListing));
     }
 
     // Retrieve all branch SWIFT codes that start with the given prefix
     public List<SwiftCode> findBranchesByPrefix(String prefix) {
-        return swiftCodeRepo.findBySwiftCodeStartingWithAndHeadquarterFlagFalse(prefix);
+        // The in-memory directory groups codes by their 8-character prefix only
+        if (directory.isEnabled() && prefix.length() == 8) {
+            List<SwiftCode> branches = new ArrayList<>();
+            for (SwiftDirectoryEntry entry : directory.snapshot().getByPrefix(prefix)) {
+                if (!entry.isHeadquarterFlag()) {
+                    branches.add(entry.toSwiftCode());
+                }
+            }
+            return branches;
+        }
+        // The prefix index yields the matching codes; the rows are then fetched by primary key
+        return findAllInCodeOrder(prefixIndex.findBranches(prefix.toUpperCase()));
+    }
+
+    // All SWIFT codes starting with the prefix (bank or location level), at most limit of them
+    public List<SWIFTCodeSimpleDTO> findByPrefix(String prefix, int limit) {
+        List<String> codes = prefixIndex.find(prefix.toUpperCase(), limit);
+        if (directory.isEnabled()) {
+            SwiftDirectorySnapshot snapshot = directory.snapshot();
+            List<SWIFTCodeSimpleDTO> swiftCodes = new ArrayList<>(codes.size());
+            for (String code : codes) {
+                snapshot.get(code).ifPresent(entry -> swiftCodes.add(new SWIFTCodeSimpleDTO(entry.getAddress(),
+                        entry.getBankName(), entry.getCountryISO2(), entry.isHeadquarterFlag(), entry.getSwiftCode())));
+            }
+            return swiftCodes;
+        }
+        return codes.isEmpty() ? new ArrayList<>() : swiftCodeRepo.findSimpleDtosBySwiftCodeIn(codes);
+    }
+
+    // Total number of SWIFT codes starting with the prefix
+    public int countByPrefix(String prefix) {
+        return prefixIndex.count(prefix.toUpperCase());
+    }
+
+    // Whether the code exists as far as this instance knows, answered from the prefix index without the DB;
+    // like the versions, it only sees writes made through this instance
+    public boolean isKnownCode(String swiftCode) {
+        return prefixIndex.contains(swiftCode.toUpperCase());
     }
 
     // Find full details of a single SWIFT code (by ID)
     public Optional<SwiftCode> getSwiftCodeDetails(String swiftCode) {
+        if (directory.isEnabled()) {
+            return directory.snapshot().get(swiftCode.toUpperCase()).map(SwiftDirectoryEntry::toSwiftCode);
+        }
         return swiftCodeRepo.findById(swiftCode.toUpperCase());
     }
 
+    // Build the response body for a SWIFT code (HQs include their branches), served from the cache when possible
+    public Optional<Object> getSwiftCodeResponse(String swiftCode) {
+        return Optional.ofNullable(detailsCache.get(swiftCode.toUpperCase(), this::buildSwiftCodeResponse));
+    }
+
+    // Response bodies for many codes at once, keyed by upper-case code; unknown codes are left out. Cached
+    // responses are reused and the rest are built together from one IN query and one grouped branch query.
+    public Map<String, Object> getSwiftCodeResponses(Collection<String> swiftCodes) {
+        return detailsCache.getAll(swiftCodes, this::buildSwiftCodeResponses);
+    }
+
+    // ETag and Last-Modified of a code's details; known without reading the DB
+    public SwiftCodeVersions.Version getCodeVersion(String swiftCode) {
+        return versions.ofCode(swiftCode);
+    }
+
+    // ETag and Last-Modified of a country's listings
+    public SwiftCodeVersions.Version getCountryVersion(String countryISO2) {
+        return versions.ofCountry(countryISO2);
+    }
+
+    // Hit/miss/eviction counters of the details cache
+    public Map<String, Object> getDetailsCacheStats() {
+        return detailsCache.getStats();
+    }
+
+    // Entry/byte counts and hit/miss counters of the serialised country listings
+    public Map<String, Object> getCountryListingCacheStats() {
+        return countryListings.getStats();
+    }
+
+    // Estimated memory of the compact directory encoding compared with the entity graph
+    public Map<String, Object> getDirectoryFootprint() {
+        return directory.getFootprintReport();
+    }
+
+    private Object buildSwiftCodeResponse(String swiftCode) {
+        if (directory.isEnabled()) {
+            SwiftDirectorySnapshot snapshot = directory.snapshot();
+            return snapshot.get(swiftCode).map(entry -> toResponse(toDto(entry), snapshot)).orElse(null);
+        }
+        Optional<SWIFTCodeDTO> found = swiftCodeRepo.findDtoBySwiftCode(swiftCode);
+        if (found.isEmpty()) {
+            return null;
+        }
+        SWIFTCodeDTO details = found.get();
+        return details.isHeadquarter() ? withBranches(details, swiftCodeRepo.findBranchDtosByHeadquarter(swiftCode)) : details;
+    }
+
+    private Map<String, Object> buildSwiftCodeResponses(Set<String> swiftCodes) {
+        Map<String, Object> responses = new HashMap<>();
+        if (directory.isEnabled()) {
+            SwiftDirectorySnapshot snapshot = directory.snapshot();
+            for (String swiftCode : swiftCodes) {
+                snapshot.get(swiftCode).ifPresent(entry -> responses.put(swiftCode, toResponse(toDto(entry), snapshot)));
+            }
+            return responses;
+        }
+
+        List<SWIFTCodeDTO> found = swiftCodeRepo.findDtosBySwiftCodeIn(swiftCodes);
+        List<String> headquarters = new ArrayList<>();
+        for (SWIFTCodeDTO details : found) {
+            if (details.isHeadquarter()) {
+                headquarters.add(details.getSwiftCode());
+            }
+        }
+        // Branches of every headquarter in the batch, instead of one query per headquarter
+        Map<String, List<SWIFTCodeDTO>> branchesByHeadquarter = new HashMap<>();
+        if (!headquarters.isEmpty()) {
+            for (HeadquarterBranchDTO branch : swiftCodeRepo.findBranchDtosByHeadquarterIn(headquarters)) {
+                branchesByHeadquarter.computeIfAbsent(branch.headquarterSwift(), key -> new ArrayList<>()).add(branch.toDto());
+            }
+        }
+        for (SWIFTCodeDTO details : found) {
+            responses.put(details.getSwiftCode(), details.isHeadquarter()
+                    ? withBranches(details, branchesByHeadquarter.getOrDefault(details.getSwiftCode(), List.of()))
+                    : details);
+        }
+        return responses;
+    }
+
+    // HQs are returned with their branches, branches as simple details
+    private static Object toResponse(SWIFTCodeDTO details, SwiftDirectorySnapshot snapshot) {
+        return details.isHeadquarter() ? withBranches(details, toDtos(snapshot.getBranchesOf(details.getSwiftCode()))) : details;
+    }
+
+    // HQ response shape, shared with the reactive controller
+    public static SwiftCodeWithBranchesDTO withBranches(SWIFTCodeDTO headquarter, List<SWIFTCodeDTO> branches) {
+        return new SwiftCodeWithBranchesDTO(
+                headquarter.getAddress(),
+                headquarter.getBankName(),
+                headquarter.getCountryISO2(),
+                headquarter.getCountryName(),
+                headquarter.isHeadquarter(),
+                headquarter.getSwiftCode(),
+                branches
+        );
+    }
+
+    private List<SwiftCode> findAllInCodeOrder(List<String> codes) {
+        if (codes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<SwiftCode> swiftCodes = new ArrayList<>(swiftCodeRepo.findAllById(codes));
+        swiftCodes.sort(Comparator.comparing(SwiftCode::getSwiftCode));
+        return swiftCodes;
+    }
+
+    private static List<SwiftCode> toSwiftCodes(List<SwiftDirectoryEntry> entries) {
+        List<SwiftCode> swiftCodes = new ArrayList<>(entries.size());
+        for (SwiftDirectoryEntry entry : entries) {
+            swiftCodes.add(entry.toSwiftCode());
+        }
+        return swiftCodes;
+    }
+
+    private static List<SWIFTCodeDTO> toDtos(List<SwiftDirectoryEntry> entries) {
+        List<SWIFTCodeDTO> dtos = new ArrayList<>(entries.size());
+        for (SwiftDirectoryEntry entry : entries) {
+            dtos.add(toDto(entry));
+        }
+        return dtos;
+    }
+
+    private static SWIFTCodeDTO toDto(SwiftDirectoryEntry entry) {
+        return new SWIFTCodeDTO(
+                entry.getAddress(),
+                entry.getBankName(),
+                entry.getCountryISO2(),
+                entry.getCountryName(),
+                entry.isHeadquarterFlag(),
+                entry.getSwiftCode()
+        );
+    }
+
     // Find all branches linked to a given headquarter SWIFT code
     public List<SwiftCode> getBranchesForHeadquarter(String headquarterSwift) {
+        if (directory.isEnabled()) {
+            return toSwiftCodes(directory.snapshot().getBranchesOf(headquarterSwift));
+        }
         return swiftCodeRepo.findByHeadquarter_SwiftCode(headquarterSwift);
     }
 
-    // Save a new SWIFT code, and handle logic related to headquarters
+    // Save a new SWIFT code, and handle logic related to headquarters. The insert and the branch linking commit
+    // together; the in-memory read models follow once they have committed.
+    @Transactional
     public SwiftCode saveSwiftCode(SwiftCode swiftCode) {
-        Map<String, String> errorResponse = new HashMap<>();
         String swiftUpper = swiftCode.getSwiftCode().toUpperCase();
         swiftCode.setSwiftCode(swiftUpper);// Normalize SWIFT code to uppercase
-        System.out.println("Received SWIFT Code: " + swiftCode.getSwiftCode());
-        System.out.println("Length: " + swiftCode.getSwiftCode().length());
+        log.atDebug().setMessage("Saving SWIFT code").addKeyValue("swiftCode", swiftUpper).log();
 
         // Check if the SWIFT code already exists
         if (swiftCodeRepo.existsBySwiftCode(swiftUpper)) {
-            errorResponse.put ("Attempted to add duplicate SWIFT code: {}", swiftUpper);
             throw new IllegalArgumentException("SWIFT code " + swiftUpper + " already exists.");
         }
 
-        // If the code is a headquarter, link all orphan branches to it
-        if (swiftCode.isHeadquarterFlag()) {
-            String swiftPrefix = swiftUpper.substring(0, 8);
-
-            // Find orphan branches with matching prefix and no headquarter assigned
-
-            List<SwiftCode> orphanBranches = swiftCodeRepo.findByHeadquarterIsNullAndSwiftCodeStartingWith(swiftPrefix);
+        swiftCodeRepo.save(swiftCode);
 
-            for (SwiftCode branch : orphanBranches) {
-                branch.setHeadquarter(swiftCode); // Link to this HQ
-                swiftCodeRepo.save(branch); // Update the branch in DB
+        // If the code is a headquarter, link all orphan branches with its 8-character prefix in one UPDATE
+        if (swiftCode.isHeadquarterFlag()) {
+            int linked = swiftCodeRepo.linkOrphanBranches(swiftUpper, SwiftCode.bankPrefixOf(swiftUpper));
+            if (linked > 0) {
+                log.atInfo().setMessage("Linked orphan branches")
+                        .addKeyValue("headquarter", swiftUpper)
+                        .addKeyValue("linked", linked)
+                        .log();
             }
         }
 
-
-
-        swiftCodeRepo.save(swiftCode);
+        SwiftDirectoryEntry saved = SwiftDirectoryEntry.from(swiftCode);
+        afterCommit(() -> {
+            prefixIndex.onSaved(swiftUpper, saved.isHeadquarterFlag());
+            directory.onSaved(saved);
+            detailsCache.invalidate(swiftUpper);
+            countryListings.invalidate(saved.getCountryISO2());
+            versions.onChanged(swiftUpper, saved.getCountryISO2());
+        });
         return swiftCode;
     }
 
 
-    // Delete a SWIFT code (and unlink branches if it's a headquarter)
+    // Delete a SWIFT code (and unlink branches if it's a headquarter); both statements commit together
+    @Transactional
     public boolean deleteSwiftCode(String swiftCode) {
         Optional<SwiftCode> optional = swiftCodeRepo.findById(swiftCode);
 
@@ -209,20 +432,42 @@ public class SWIFTCodeService {
 
         if (codeToDelete.isHeadquarterFlag()) {
 
-            // Unlink all branches from this headquarter
-            List<SwiftCode> branches = swiftCodeRepo.findByHeadquarter(codeToDelete);
-            for (SwiftCode branch : branches) {
-                branch.setHeadquarter(null);
-                swiftCodeRepo.save(branch);
-            }
+            // Unlink all branches from this headquarter in one UPDATE
+            swiftCodeRepo.unlinkBranches(codeToDelete.getSwiftCode());
         }
 
         // Delete the SWIFT code from the repository
         swiftCodeRepo.deleteById(swiftCode);
+        String countryISO2 = codeToDelete.getCountryISO2();
+        afterCommit(() -> {
+            prefixIndex.onDeleted(swiftCode);
+            directory.onDeleted(swiftCode);
+            detailsCache.invalidate(swiftCode);
+            countryListings.invalidate(countryISO2);
+            versions.onChanged(swiftCode, countryISO2);
+        });
         return true;
     }
+
+    // Runs the read model update once the surrounding transaction has committed, so no reader can cache rows that
+    // are later rolled back (or load the old rows after the invalidation); runs at once outside a transaction
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
     // Check if a SWIFT code already exists in the system
     public boolean existsBySwiftCode(String swiftCode) {
+        if (directory.isEnabled()) {
+            return directory.snapshot().contains(swiftCode.toUpperCase());
+        }
         return swiftCodeRepo.existsBySwiftCode(swiftCode.toUpperCase());
     }
 
@@ -0,0 +1,77 @@
+package com.example.InternSwiftCodesProject.services;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+// Fingerprints of the classpath seed files imported at startup (table seed_imports), so a restart can tell an
+// unchanged file from one that has to be imported again
+@Component
+public class SeedImports {
+    private static final String SELECT_SQL = "SELECT content_hash, row_count FROM seed_imports WHERE file_name = ?";
+    private static final String UPDATE_SQL = "UPDATE seed_imports SET content_hash = ?, row_count = ?, imported_at = ? WHERE file_name = ?";
+    private static final String INSERT_SQL = "INSERT INTO seed_imports (file_name, content_hash, row_count, imported_at) VALUES (?, ?, ?, ?)";
+
+    // SHA-256 of the file bytes (hex) and its number of data rows, header excluded
+    public record Fingerprint(String contentHash, long rows) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Constructor-based dependency injection
+    public SeedImports(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Hash and count the lines of a stream in one pass, without decoding or parsing it; the stream is not closed
+    public static Fingerprint of(InputStream stream) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        long lines = 0;
+        int last = '\n';
+        int read;
+        while ((read = stream.read(buffer)) > 0) {
+            digest.update(buffer, 0, read);
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+            last = buffer[read - 1];
+        }
+        // A last line without a trailing newline still counts
+        if (last != '\n') {
+            lines++;
+        }
+        return new Fingerprint(HexFormat.of().formatHex(digest.digest()), Math.max(0, lines - 1));
+    }
+
+    // The fingerprint recorded by the last successful import of the file
+    public Optional<Fingerprint> find(String fileName) {
+        List<Fingerprint> found = jdbcTemplate.query(SELECT_SQL,
+                (rs, row) -> new Fingerprint(rs.getString(1), rs.getLong(2)), fileName);
+        return found.stream().findFirst();
+    }
+
+    public void record(String fileName, Fingerprint fingerprint) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int updated = jdbcTemplate.update(UPDATE_SQL, fingerprint.contentHash(), fingerprint.rows(), now, fileName);
+        if (updated == 0) {
+            jdbcTemplate.update(INSERT_SQL, fileName, fingerprint.contentHash(), fingerprint.rows(), now);
+        }
+    }
+}
@@ -0,0 +1,645 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.SwiftCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Bulk ingest engine: validates rows in memory, drops duplicates against one preloaded key set,
+// writes in JDBC batches inside chunked transactions and links branches to headquarters in a single pass at the end.
+// In delta mode the preloaded set carries each row's content hash, and only inserts, updates and deletes are written.
+@Slf4j
+@Service
+public class SwiftCodeBulkImporter {
+    static final String DUPLICATE_REASON = "SWIFT code already exists in the database.";
+    static final String DUPLICATE_IN_FILE_REASON = "SWIFT code appears more than once in the file.";
+    // Above this many changed codes a delta import relinks and refreshes everything instead of code by code
+    static final int FULL_REFRESH_THRESHOLD = 10_000;
+
+    private static final String SELECT_CODES_SQL = "SELECT swift_code FROM swift_codes";
+    private static final String SELECT_STORED_SQL = "SELECT swift_code, countryiso2, headquarter_flag, content_hash FROM swift_codes";
+
+    private static final String INSERT_SQL = "INSERT INTO swift_codes "
+            + "(swift_code, bank_name, address, countryiso2, country_name, headquarter_flag, bank_prefix, content_hash, headquarter_swift) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, NULL)";
+
+    private static final String UPDATE_SQL = "UPDATE swift_codes "
+            + "SET bank_name = ?, address = ?, countryiso2 = ?, country_name = ?, content_hash = ? WHERE swift_code = ?";
+
+    private static final String UNLINK_BRANCHES_SQL = "UPDATE swift_codes SET headquarter_swift = NULL WHERE headquarter_swift = ?";
+
+    private static final String DELETE_SQL = "DELETE FROM swift_codes WHERE swift_code = ?";
+
+    // Links every orphan branch whose bank prefix matches an existing headquarter
+    private static final String LINK_ORPHANS_SQL = "UPDATE swift_codes b "
+            + "SET headquarter_swift = CONCAT(b.bank_prefix, 'XXX') "
+            + "WHERE b.headquarter_flag = FALSE AND b.headquarter_swift IS NULL "
+            + "AND EXISTS (SELECT 1 FROM swift_codes h "
+            + "WHERE h.swift_code = CONCAT(b.bank_prefix, 'XXX') AND h.headquarter_flag = TRUE)";
+
+    // The same, for the orphan branches of one bank prefix
+    private static final String LINK_PREFIX_ORPHANS_SQL = LINK_ORPHANS_SQL + " AND b.bank_prefix = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SwiftCodeDetailsCache detailsCache;
+    private final SwiftDirectory directory;
+    private final SwiftCodePrefixIndex prefixIndex;
+    private final SwiftMetrics metrics;
+    private final SwiftCodeVersions versions;
+    private final CountryListingCache countryListings;
+    private final SwiftCodeValidator validator;
+    private final int batchSize;
+    private final int chunkSize;
+    private final double maxDeleteRatio;
+
+    // Constructor-based dependency injection
+    public SwiftCodeBulkImporter(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 SwiftCodeDetailsCache detailsCache,
+                                 SwiftDirectory directory,
+                                 SwiftCodePrefixIndex prefixIndex,
+                                 SwiftMetrics metrics,
+                                 SwiftCodeVersions versions,
+                                 CountryListingCache countryListings,
+                                 SwiftCodeValidator validator,
+                                 @Value("${swift.import.batch-size:500}") int batchSize,
+                                 @Value("${swift.import.chunk-size:5000}") int chunkSize,
+                                 @Value("${swift.import.delta.max-delete-ratio:0.5}") double maxDeleteRatio) {
+        if (batchSize < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Import batch and chunk sizes must be positive");
+        }
+        if (maxDeleteRatio < 0) {
+            throw new IllegalArgumentException("Delta import delete ratio must not be negative");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.detailsCache = detailsCache;
+        this.directory = directory;
+        this.prefixIndex = prefixIndex;
+        this.metrics = metrics;
+        this.versions = versions;
+        this.countryListings = countryListings;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
+        this.maxDeleteRatio = maxDeleteRatio;
+    }
+
+    // Import all records, committing every chunkSize accepted rows
+    public BulkImportResult importRecords(Iterator<SwiftCode> records) {
+        return importRecords(records, ImportMode.APPEND);
+    }
+
+    public BulkImportResult importRecords(Iterator<SwiftCode> records, ImportMode mode) {
+        BulkImportResult result = new BulkImportResult();
+        RowWriter writer = openWriter(result, mode);
+
+        try {
+            while (records.hasNext()) {
+                SwiftCode swiftCode = records.next();
+
+                String rejection = validate(swiftCode);
+                if (rejection != null) {
+                    recordRejection(result, swiftCode, rejection);
+                    writer.rejected(swiftCode);
+                    continue;
+                }
+                writer.accept(swiftCode);
+            }
+            writer.finish();
+        } catch (RuntimeException e) {
+            try {
+                writer.abort();
+            } catch (RuntimeException abortFailure) {
+                e.addSuppressed(abortFailure);
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    public ChunkWriter openWriter(BulkImportResult result) {
+        return new ChunkWriter(metrics.timeStage("load-existing", this::loadExistingCodes), result);
+    }
+
+    // Open a writer for already validated rows; accept and finish are not thread-safe and must be called
+    // from a single thread, rejected may be called from any
+    public RowWriter openWriter(BulkImportResult result, ImportMode mode) {
+        if (mode == ImportMode.DELTA || mode == ImportMode.MERGE) {
+            return new DeltaWriter(metrics.timeStage("load-existing", this::loadStoredRows), result, mode == ImportMode.DELTA);
+        }
+        return openWriter(result);
+    }
+
+    // Normalise the record in place; returns the rejection reason, or null if the record is valid
+    public String validate(SwiftCode swiftCode) {
+        String swift = normalise(swiftCode.getSwiftCode()).toUpperCase();
+        String countryISO2 = normalise(swiftCode.getCountryISO2()).toUpperCase();
+        String countryName = normalise(swiftCode.getCountryName()).toUpperCase();
+        String address = normalise(swiftCode.getAddress());
+        String bankName = normalise(swiftCode.getBankName());
+
+        if (swift.isEmpty() || countryISO2.isEmpty() || countryName.isEmpty() || bankName.isEmpty()) {
+            return "All fields (swiftCode, countryISO2, countryName, address, bankName) must be provided.";
+        }
+        if (address.isEmpty()) {
+            address = "No address provided";
+        }
+        if (address.length() < 3 || address.length() > 500) {
+            return "Address must be between 3 and 500 characters";
+        }
+        // Same ISO 9362 checks as POST /v1/swift-codes
+        SwiftCodeValidator.Violation violation = validator.validate(swift, countryISO2);
+        if (violation != null) {
+            return violation.getMessage();
+        }
+        if (!SWIFTCodeService.isValidCountryCode(countryISO2)) {
+            return "Country ISO2 code '" + countryISO2 + "' is not valid.";
+        }
+        String correctCountryName = SWIFTCodeService.getCorrectCountryName(countryISO2);
+        if (!countryName.equals(correctCountryName)) {
+            return "The provided country name '" + countryName + "' does not match the expected name '" + correctCountryName + "'.";
+        }
+
+        swiftCode.setSwiftCode(swift);
+        swiftCode.setCountryISO2(countryISO2);
+        swiftCode.setCountryName(correctCountryName);
+        swiftCode.setHeadquarterFlag(swift.endsWith("XXX"));
+        swiftCode.setAddress(address);
+        swiftCode.setBankName(bankName);
+        swiftCode.setHeadquarter(null);
+        return null;
+    }
+
+    // Count a row that failed validation
+    void recordRejection(BulkImportResult result, SwiftCode swiftCode, String reason) {
+        result.addRejected(1);
+        if (result.report(swiftCode.getSwiftCode(), reason)) {
+            logExample("Rejected SWIFT code", swiftCode.getSwiftCode(), reason);
+        }
+    }
+
+    // Load every stored SWIFT code once, instead of one existsBySwiftCode query per row
+    public Set<String> loadExistingCodes() {
+        Set<String> codes = new HashSet<>();
+        jdbcTemplate.query(SELECT_CODES_SQL, rs -> {
+            codes.add(rs.getString(1));
+        });
+        return codes;
+    }
+
+    // Load every stored SWIFT code with what a delta import needs to compare and delete it
+    Map<String, StoredRow> loadStoredRows() {
+        Map<String, StoredRow> rows = new HashMap<>();
+        jdbcTemplate.query(SELECT_STORED_SQL, rs -> {
+            long hash = rs.getLong(4);
+            Long contentHash = rs.wasNull() ? null : hash;
+            rows.put(rs.getString(1), new StoredRow(rs.getString(2), rs.getBoolean(3), contentHash));
+        });
+        return rows;
+    }
+
+    // Insert one chunk in a single transaction; returns the number of rows actually inserted
+    public int writeChunk(List<SwiftCode> chunk) {
+        return writeChunk(chunk, duplicate -> { });
+    }
+
+    private int writeChunk(List<SwiftCode> chunk, Consumer<SwiftCode> onDuplicate) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, chunk, batchSize, this::bindInsert));
+            return chunk.size();
+        } catch (DataIntegrityViolationException e) {
+            // Another writer inserted some of these codes after the key set was loaded;
+            // the chunk was rolled back, so retry row by row and drop the conflicting ones
+            int inserted = 0;
+            for (SwiftCode swiftCode : chunk) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bindInsert(ps, swiftCode));
+                    inserted++;
+                } catch (DataIntegrityViolationException duplicate) {
+                    onDuplicate.accept(swiftCode);
+                }
+            }
+            return inserted;
+        }
+    }
+
+    // Update the content of one chunk of stored codes in a single transaction
+    int updateChunk(List<SwiftCode> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPDATE_SQL, chunk, batchSize, (ps, swiftCode) -> {
+                    ps.setString(1, swiftCode.getBankName());
+                    ps.setString(2, swiftCode.getAddress());
+                    ps.setString(3, swiftCode.getCountryISO2());
+                    ps.setString(4, swiftCode.getCountryName());
+                    ps.setLong(5, SwiftCode.contentHashOf(swiftCode));
+                    ps.setString(6, swiftCode.getSwiftCode());
+                }));
+        return chunk.size();
+    }
+
+    // Delete one chunk of codes in a single transaction, unlinking the branches of deleted headquarters first
+    int deleteChunk(List<String> swiftCodes) {
+        if (swiftCodes.isEmpty()) {
+            return 0;
+        }
+        List<String> headquarters = swiftCodes.stream().filter(code -> code.endsWith("XXX")).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UNLINK_BRANCHES_SQL, headquarters, batchSize, (ps, code) -> ps.setString(1, code));
+            jdbcTemplate.batchUpdate(DELETE_SQL, swiftCodes, batchSize, (ps, code) -> ps.setString(1, code));
+        });
+        return swiftCodes.size();
+    }
+
+    // Link all orphan branches to their headquarters with one set-based statement
+    public int linkOrphanBranches() {
+        return transactionTemplate.execute(status -> jdbcTemplate.update(LINK_ORPHANS_SQL));
+    }
+
+    // Link the orphan branches of the given bank prefixes only
+    int linkOrphanBranches(Set<String> bankPrefixes) {
+        if (bankPrefixes.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = transactionTemplate.execute(status ->
+                jdbcTemplate.batchUpdate(LINK_PREFIX_ORPHANS_SQL, List.copyOf(bankPrefixes), batchSize,
+                        (ps, prefix) -> ps.setString(1, prefix)));
+        int linked = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                linked += Math.max(count, 0);
+            }
+        }
+        return linked;
+    }
+
+    // Drop everything the read side derived from the table
+    // The chunks a failed import committed stay in the table: link their branches and refresh the read side from
+    // the table, so caches, versions and the in-memory directory do not keep serving the state from before it
+    private void refreshAfterFailure(BulkImportResult result) {
+        result.addLinkedBranches(metrics.timeStage("link", () -> linkOrphanBranches()));
+        metrics.timeStage("refresh", () -> {
+            refreshAll();
+        });
+        log.atWarn()
+                .setMessage("Import failed after writing; read side refreshed")
+                .addKeyValue("added", result.getAdded())
+                .addKeyValue("updated", result.getUpdated())
+                .addKeyValue("deleted", result.getDeleted())
+                .addKeyValue("linkedBranches", result.getLinkedBranches())
+                .log();
+    }
+
+    private void refreshAll() {
+        directory.reload();
+        prefixIndex.reload();
+        detailsCache.invalidateAll();
+        countryListings.invalidateAll();
+        versions.invalidateAll();
+    }
+
+    private void bindInsert(PreparedStatement ps, SwiftCode swiftCode) throws SQLException {
+        ps.setString(1, swiftCode.getSwiftCode());
+        ps.setString(2, swiftCode.getBankName());
+        ps.setString(3, swiftCode.getAddress());
+        ps.setString(4, swiftCode.getCountryISO2());
+        ps.setString(5, swiftCode.getCountryName());
+        ps.setBoolean(6, swiftCode.isHeadquarterFlag());
+        ps.setString(7, SwiftCode.bankPrefixOf(swiftCode.getSwiftCode()));
+        ps.setLong(8, SwiftCode.contentHashOf(swiftCode));
+    }
+
+    // One sampled skipped or rejected row, with the code and reason as structured fields
+    private static void logExample(String message, String swiftCode, String reason) {
+        log.atInfo()
+                .setMessage(message)
+                .addKeyValue("swiftCode", swiftCode)
+                .addKeyValue("reason", reason)
+                .log();
+    }
+
+    private static String normalise(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    // Country, headquarter flag and content hash of a stored code; the hash is null for rows written before V3
+    record StoredRow(String countryISO2, boolean headquarter, Long contentHash) {
+    }
+
+    // A code a delta import inserted, updated or deleted, for the per-code refresh of the read side
+    private record Change(String swiftCode, String countryISO2, boolean headquarter, boolean deleted) {
+    }
+
+    // Receives the rows of one import after validation
+    public interface RowWriter {
+        void accept(SwiftCode swiftCode);
+
+        // A row of the file that failed validation
+        default void rejected(SwiftCode swiftCode) {
+        }
+
+        // Write what is still pending, link branches and refresh the read side
+        void finish();
+
+        // The import failed: pending rows are dropped, but if any chunk was committed its branches are linked and
+        // the read side is refreshed, as finish would have done
+        void abort();
+    }
+
+    // Deduplicates validated rows and writes them chunk by chunk
+    public class ChunkWriter implements RowWriter {
+        private final Set<String> knownCodes;
+        private final BulkImportResult result;
+        private List<SwiftCode> chunk = new ArrayList<>(chunkSize);
+        // Set before each write: a failing chunk may still have stored rows through the row-by-row retry
+        private boolean written;
+
+        private ChunkWriter(Set<String> knownCodes, BulkImportResult result) {
+            this.knownCodes = knownCodes;
+            this.result = result;
+        }
+
+        @Override
+        public void accept(SwiftCode swiftCode) {
+            // Duplicates against the table and earlier rows of the same file
+            if (!knownCodes.add(swiftCode.getSwiftCode())) {
+                result.addSkipped(1);
+                reportDuplicate(swiftCode);
+                return;
+            }
+            chunk.add(swiftCode);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        // Write the last partial chunk, link branches to their headquarters and refresh the read side
+        @Override
+        public void finish() {
+            flush();
+            result.addLinkedBranches(metrics.timeStage("link", () -> linkOrphanBranches()));
+            metrics.timeStage("refresh", () -> {
+                refreshAll();
+            });
+            metrics.recordImport(result);
+            log.atInfo()
+                    .setMessage("Import complete")
+                    .addKeyValue("added", result.getAdded())
+                    .addKeyValue("skipped", result.getSkipped())
+                    .addKeyValue("rejected", result.getRejected())
+                    .addKeyValue("linkedBranches", result.getLinkedBranches())
+                    .addKeyValue("skipReasons", result.getReasonCounts())
+                    .log();
+        }
+
+        @Override
+        public void abort() {
+            if (written) {
+                refreshAfterFailure(result);
+            }
+        }
+
+        private void reportDuplicate(SwiftCode swiftCode) {
+            if (result.report(swiftCode.getSwiftCode(), DUPLICATE_REASON)) {
+                logExample("Skipped SWIFT code", swiftCode.getSwiftCode(), DUPLICATE_REASON);
+            }
+        }
+
+        private void flush() {
+            List<SwiftCode> pending = chunk;
+            written |= !pending.isEmpty();
+            int inserted = metrics.timeStage("write-chunk",
+                    () -> writeChunk(pending, this::reportDuplicate));
+            result.addAdded(inserted);
+            result.addSkipped(chunk.size() - inserted);
+            chunk = new ArrayList<>(chunkSize);
+        }
+    }
+
+    // Applies a complete directory file as a diff against the table: codes missing from the table are inserted,
+    // codes whose content hash differs are updated, identical ones are left alone and stored codes the file does
+    // not list are deleted at the end (unless merging). Only the changed codes are relinked and refreshed on the read side.
+    public class DeltaWriter implements RowWriter {
+        private final Map<String, StoredRow> stored;
+        private final int storedCount;
+        private final BulkImportResult result;
+        private final boolean deleteMissing;
+        private final Set<String> seen = new HashSet<>();
+        // Codes of rows that failed validation; their stored version is kept rather than deleted
+        private final Set<String> rejectedCodes = ConcurrentHashMap.newKeySet();
+        private final Set<String> affectedPrefixes = new HashSet<>();
+        private List<Change> changes = new ArrayList<>();
+        private List<SwiftCode> inserts = new ArrayList<>(chunkSize);
+        private List<SwiftCode> updates = new ArrayList<>(chunkSize);
+        // Set before each write, as in ChunkWriter
+        private boolean written;
+
+        private DeltaWriter(Map<String, StoredRow> stored, BulkImportResult result, boolean deleteMissing) {
+            this.stored = stored;
+            this.storedCount = stored.size();
+            this.result = result;
+            this.deleteMissing = deleteMissing;
+        }
+
+        @Override
+        public void accept(SwiftCode swiftCode) {
+            String code = swiftCode.getSwiftCode();
+            if (!seen.add(code)) {
+                result.addSkipped(1);
+                if (result.report(code, DUPLICATE_IN_FILE_REASON)) {
+                    logExample("Skipped SWIFT code", code, DUPLICATE_IN_FILE_REASON);
+                }
+                return;
+            }
+            // Whatever is left in the map at the end is no longer in the directory
+            StoredRow current = stored.remove(code);
+            if (current == null) {
+                inserts.add(swiftCode);
+                affectedPrefixes.add(SwiftCode.bankPrefixOf(code));
+            } else if (current.contentHash() == null || current.contentHash() != SwiftCode.contentHashOf(swiftCode)) {
+                updates.add(swiftCode);
+            } else {
+                result.addUnchanged(1);
+                return;
+            }
+            track(new Change(code, swiftCode.getCountryISO2(), swiftCode.isHeadquarterFlag(), false));
+            if (inserts.size() + updates.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void rejected(SwiftCode swiftCode) {
+            if (swiftCode.getSwiftCode() != null) {
+                rejectedCodes.add(swiftCode.getSwiftCode().trim().toUpperCase());
+            }
+        }
+
+        // Write the last changes, delete what the file no longer lists, relink the affected prefixes and
+        // refresh the read side. A file that would delete more than the configured share of the table is taken
+        // for a partial one: its inserts and updates stay applied, its deletes are refused and the result says so.
+        // The inserts and updates were committed chunk by chunk before the deletes are known, so the import
+        // completes rather than failing after the table has changed.
+        @Override
+        public void finish() {
+            flush();
+
+            List<String> deletes = new ArrayList<>();
+            if (deleteMissing) {
+                for (String code : stored.keySet()) {
+                    if (!rejectedCodes.contains(code)) {
+                        deletes.add(code);
+                    }
+                }
+            }
+            if (deletes.size() > maxDeleteRatio * storedCount) {
+                result.refuseDeletes("Delta import would delete " + deletes.size() + " of " + storedCount
+                        + " stored SWIFT codes, more than swift.import.delta.max-delete-ratio=" + maxDeleteRatio
+                        + " allows; inserts and updates were applied but nothing was deleted.");
+                log.atWarn().setMessage("Delta import deletes refused")
+                        .addKeyValue("deletes", deletes.size())
+                        .addKeyValue("stored", storedCount)
+                        .addKeyValue("maxDeleteRatio", maxDeleteRatio)
+                        .log();
+                deletes.clear();
+            }
+            for (int from = 0; from < deletes.size(); from += chunkSize) {
+                List<String> chunk = deletes.subList(from, Math.min(from + chunkSize, deletes.size()));
+                written = true;
+                result.addDeleted(metrics.timeStage("delete-chunk", () -> deleteChunk(chunk)));
+                for (String code : chunk) {
+                    StoredRow row = stored.get(code);
+                    track(new Change(code, row.countryISO2(), row.headquarter(), true));
+                }
+            }
+
+            boolean fullRefresh = changes == null;
+            result.addLinkedBranches(metrics.timeStage("link", () -> fullRefresh
+                    ? linkOrphanBranches()
+                    : linkOrphanBranches(affectedPrefixes)));
+            metrics.timeStage("refresh", () -> {
+                if (fullRefresh) {
+                    refreshAll();
+                } else {
+                    refreshChanged();
+                }
+            });
+            metrics.recordImport(result);
+            log.atInfo()
+                    .setMessage(deleteMissing ? "Delta import complete" : "Merge import complete")
+                    .addKeyValue("added", result.getAdded())
+                    .addKeyValue("updated", result.getUpdated())
+                    .addKeyValue("unchanged", result.getUnchanged())
+                    .addKeyValue("deleted", result.getDeleted())
+                    .addKeyValue("skipped", result.getSkipped())
+                    .addKeyValue("rejected", result.getRejected())
+                    .addKeyValue("linkedBranches", result.getLinkedBranches())
+                    .addKeyValue("fullRefresh", fullRefresh)
+                    .addKeyValue("deletesRefused", result.getDeletesRefused() != null)
+                    .log();
+        }
+
+        @Override
+        public void abort() {
+            if (written) {
+                refreshAfterFailure(result);
+            }
+        }
+
+        // Remember a change for the per-code refresh, until there are too many to be worth it
+        private void track(Change change) {
+            if (changes != null) {
+                changes.add(change);
+                if (changes.size() > FULL_REFRESH_THRESHOLD) {
+                    changes = null;
+                }
+            }
+        }
+
+        // Same per-code updates SWIFTCodeService makes after a single save or delete. Saved codes are read back
+        // after relinking, so they carry the headquarter link the table now has; the directory snapshot then
+        // applies the same adoption and orphaning rules as the link and delete statements did.
+        private void refreshChanged() {
+            if (changes.isEmpty()) {
+                return;
+            }
+            if (directory.isEnabled()) {
+                refreshDirectory();
+            }
+            Set<String> countries = new HashSet<>();
+            for (Change change : changes) {
+                if (change.deleted()) {
+                    prefixIndex.onDeleted(change.swiftCode());
+                } else {
+                    prefixIndex.onSaved(change.swiftCode(), change.headquarter());
+                }
+                detailsCache.invalidate(change.swiftCode());
+                versions.onChanged(change.swiftCode(), change.countryISO2());
+                if (change.countryISO2() != null) {
+                    countries.add(change.countryISO2());
+                }
+            }
+            countries.forEach(countryListings::invalidate);
+        }
+
+        // Saves first, then deletes, in the order they reached the table
+        private void refreshDirectory() {
+            List<String> saved = new ArrayList<>();
+            for (Change change : changes) {
+                if (!change.deleted()) {
+                    saved.add(change.swiftCode());
+                }
+            }
+            Set<String> stillStored = new HashSet<>();
+            for (SwiftDirectoryEntry entry : SwiftDirectory.loadEntries(jdbcTemplate, saved)) {
+                directory.onSaved(entry);
+                stillStored.add(entry.getSwiftCode());
+            }
+            for (Change change : changes) {
+                // Also codes deleted by another writer since they were written
+                if (change.deleted() || !stillStored.contains(change.swiftCode())) {
+                    directory.onDeleted(change.swiftCode());
+                }
+            }
+        }
+
+        private void flush() {
+            List<SwiftCode> inserted = inserts;
+            List<SwiftCode> updated = updates;
+            written |= !inserted.isEmpty() || !updated.isEmpty();
+            int added = metrics.timeStage("write-chunk", () -> writeChunk(inserted, duplicate -> {
+                // Inserted by another writer since the stored rows were loaded
+                result.report(duplicate.getSwiftCode(), DUPLICATE_REASON);
+            }));
+            result.addAdded(added);
+            result.addSkipped(inserted.size() - added);
+            result.addUpdated(metrics.timeStage("update-chunk", () -> updateChunk(updated)));
+            inserts = new ArrayList<>(chunkSize);
+            updates = new ArrayList<>(chunkSize);
+        }
+    }
+}
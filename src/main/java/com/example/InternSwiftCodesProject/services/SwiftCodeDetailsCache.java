@@ -0,0 +1,105 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Bounded read-through cache of fully built GET /v1/swift-codes/{swiftCode} responses, keyed by upper-case SWIFT code
+@Component
+public class SwiftCodeDetailsCache {
+    private final Cache<String, Object> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SwiftCodeDetailsCache(@Value("${swift.cache.details.max-size:100000}") long maxSize,
+                                 @Value("${swift.cache.details.ttl:PT10M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Return the cached response or build it with the loader; a null result (unknown code) is not cached.
+    // The loader runs outside the cache: Cache.get would run it inside a ConcurrentHashMap bin lock, which pins
+    // a virtual thread for the whole DB query. Concurrent misses for one code may each load it, and a result
+    // loaded while any invalidation happened is returned but not stored, as it may predate the change.
+    public Object get(String swiftCode, Function<String, Object> loader) {
+        Object cached = cache.getIfPresent(swiftCode);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = invalidations.get();
+        Object loaded = loader.apply(swiftCode);
+        if (loaded != null) {
+            cache.asMap().compute(swiftCode, (code, current) -> invalidations.get() == seen ? loaded : current);
+        }
+        return loaded;
+    }
+
+    // Cached responses for the codes, with all missing ones built by one call of the bulk loader;
+    // codes the loader leaves out (unknown codes) are missing from the result and not cached. As in get(), the
+    // loader runs outside the cache and its results are stored only if no invalidation happened meanwhile.
+    public Map<String, Object> getAll(Collection<String> swiftCodes, Function<Set<String>, Map<String, Object>> loader) {
+        Map<String, Object> cached = cache.getAllPresent(swiftCodes);
+        Set<String> missing = new LinkedHashSet<>();
+        for (String swiftCode : swiftCodes) {
+            if (!cached.containsKey(swiftCode)) {
+                missing.add(swiftCode);
+            }
+        }
+        if (missing.isEmpty()) {
+            return cached;
+        }
+
+        long seen = invalidations.get();
+        Map<String, Object> loaded = loader.apply(Set.copyOf(missing));
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String swiftCode : swiftCodes) {
+            Object response = cached.containsKey(swiftCode) ? cached.get(swiftCode) : loaded.get(swiftCode);
+            if (response == null) {
+                continue;
+            }
+            if (missing.contains(swiftCode)) {
+                cache.asMap().compute(swiftCode, (code, current) -> invalidations.get() == seen ? response : current);
+            }
+            result.put(swiftCode, response);
+        }
+        return result;
+    }
+
+    // Drop the entry for a changed code and, for a branch, its headquarter whose branch list changed too
+    public void invalidate(String swiftCode) {
+        invalidations.incrementAndGet();
+        cache.invalidate(swiftCode);
+        if (swiftCode.length() >= 8 && !swiftCode.endsWith("XXX")) {
+            cache.invalidate(swiftCode.substring(0, 8) + "XXX");
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("size", cache.estimatedSize());
+        response.put("hits", stats.hitCount());
+        response.put("misses", stats.missCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("evictions", stats.evictionCount());
+        return response;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.InternSwiftCodesProject.services;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-process sorted index of every SWIFT code, so prefix queries (bank, location, HQ + branches) are two
+// binary searches instead of LIKE 'prefix%' scans. Codes sharing a prefix are a contiguous range of the
+// sorted array. Like the in-memory directory, changes publish a new immutable array.
+@Component
+public class SwiftCodePrefixIndex {
+    private static final String SELECT_CODES_SQL = "SELECT swift_code, headquarter_flag FROM swift_codes";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SwiftSnapshots snapshots;
+    private final AtomicReference<Codes> current = new AtomicReference<>(new Codes(new String[0], new boolean[0]));
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Constructor-based dependency injection
+    public SwiftCodePrefixIndex(JdbcTemplate jdbcTemplate, SwiftSnapshots snapshots) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshots = snapshots;
+    }
+
+    // From the binary snapshot when there is a valid one, without reading the table
+    @PostConstruct
+    public void init() {
+        Optional<SwiftSnapshotFile.Contents> snapshot = snapshots.startupSnapshot();
+        if (snapshot.isEmpty()) {
+            reload();
+            return;
+        }
+        List<SwiftDirectoryEntry> entries = snapshot.get().entries();
+        List<String> codes = new ArrayList<>(entries.size());
+        List<Boolean> headquarters = new ArrayList<>(entries.size());
+        for (SwiftDirectoryEntry entry : entries) {
+            codes.add(entry.getSwiftCode());
+            headquarters.add(entry.isHeadquarterFlag());
+        }
+        load(codes, headquarters);
+    }
+
+    // Rebuild the index from the table, e.g. after a bulk import wrote to it directly
+    public void reload() {
+        // Held across the query, so a change published meanwhile is not overwritten by older rows
+        writeLock.lock();
+        try {
+            List<String> codes = new ArrayList<>();
+            List<Boolean> headquarters = new ArrayList<>();
+            jdbcTemplate.query(SELECT_CODES_SQL, rs -> {
+                codes.add(rs.getString("swift_code"));
+                headquarters.add(rs.getBoolean("headquarter_flag"));
+            });
+            load(codes, headquarters);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void load(List<String> codes, List<Boolean> headquarters) {
+        writeLock.lock();
+        try {
+            Integer[] order = new Integer[codes.size()];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, (a, b) -> codes.get(a).compareTo(codes.get(b)));
+
+            String[] sortedCodes = new String[order.length];
+            boolean[] sortedHeadquarters = new boolean[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedCodes[i] = codes.get(order[i]);
+                sortedHeadquarters[i] = headquarters.get(order[i]);
+            }
+            current.set(new Codes(sortedCodes, sortedHeadquarters));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return current.get().codes.length;
+    }
+
+    // Number of codes starting with the prefix
+    public int count(String prefix) {
+        Codes codes = current.get();
+        return codes.upperBound(prefix) - codes.lowerBound(prefix);
+    }
+
+    // Whether the exact code is indexed
+    public boolean contains(String swiftCode) {
+        return Arrays.binarySearch(current.get().codes, swiftCode) >= 0;
+    }
+
+    // Codes starting with the prefix in code order, at most limit of them
+    public List<String> find(String prefix, int limit) {
+        Codes codes = current.get();
+        int from = codes.lowerBound(prefix);
+        int to = Math.min(codes.upperBound(prefix), from + limit);
+        return List.of(Arrays.copyOfRange(codes.codes, from, to));
+    }
+
+    // Branch (non-HQ) codes starting with the prefix, in code order
+    public List<String> findBranches(String prefix) {
+        Codes codes = current.get();
+        List<String> branches = new ArrayList<>();
+        for (int i = codes.lowerBound(prefix), end = codes.upperBound(prefix); i < end; i++) {
+            if (!codes.headquarters[i]) {
+                branches.add(codes.codes[i]);
+            }
+        }
+        return branches;
+    }
+
+    // Add or update a code that was just saved to the DB
+    public void onSaved(String swiftCode, boolean headquarter) {
+        writeLock.lock();
+        try {
+            Codes codes = current.get();
+            int position = Arrays.binarySearch(codes.codes, swiftCode);
+            if (position >= 0) {
+                boolean[] headquarters = codes.headquarters.clone();
+                headquarters[position] = headquarter;
+                current.set(new Codes(codes.codes, headquarters));
+                return;
+            }
+            int insertAt = -position - 1;
+            String[] newCodes = new String[codes.codes.length + 1];
+            boolean[] newHeadquarters = new boolean[newCodes.length];
+            System.arraycopy(codes.codes, 0, newCodes, 0, insertAt);
+            System.arraycopy(codes.headquarters, 0, newHeadquarters, 0, insertAt);
+            newCodes[insertAt] = swiftCode;
+            newHeadquarters[insertAt] = headquarter;
+            System.arraycopy(codes.codes, insertAt, newCodes, insertAt + 1, codes.codes.length - insertAt);
+            System.arraycopy(codes.headquarters, insertAt, newHeadquarters, insertAt + 1, codes.codes.length - insertAt);
+            current.set(new Codes(newCodes, newHeadquarters));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Remove a code that was just deleted from the DB
+    public void onDeleted(String swiftCode) {
+        writeLock.lock();
+        try {
+            Codes codes = current.get();
+            int position = Arrays.binarySearch(codes.codes, swiftCode);
+            if (position < 0) {
+                return;
+            }
+            String[] newCodes = new String[codes.codes.length - 1];
+            boolean[] newHeadquarters = new boolean[newCodes.length];
+            System.arraycopy(codes.codes, 0, newCodes, 0, position);
+            System.arraycopy(codes.headquarters, 0, newHeadquarters, 0, position);
+            System.arraycopy(codes.codes, position + 1, newCodes, position, newCodes.length - position);
+            System.arraycopy(codes.headquarters, position + 1, newHeadquarters, position, newCodes.length - position);
+            current.set(new Codes(newCodes, newHeadquarters));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Sorted codes and their HQ flags; never modified once published
+    private record Codes(String[] codes, boolean[] headquarters) {
+
+        // First position whose code is not below the prefix
+        int lowerBound(String prefix) {
+            int from = 0;
+            int to = codes.length;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (codes[mid].compareTo(prefix) < 0) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return from;
+        }
+
+        // First position past the codes starting with the prefix
+        int upperBound(String prefix) {
+            int from = lowerBound(prefix);
+            int to = codes.length;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (codes[mid].startsWith(prefix)) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return from;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.InternSwiftCodesProject.services;
+
+import org.springframework.stereotype.Component;
+
+// ISO 9362 structure of a SWIFT/BIC code: 4 letters (bank), 2 letters (country), 2 letters or digits (location)
+// and optionally 3 letters or digits (branch), so 8 or 11 characters. Checked in one pass over the characters,
+// without a regex and without allocating: surrounding whitespace is skipped and lower case is accepted, so the
+// raw request value can be checked before it is normalised.
+@Component
+public class SwiftCodeValidator {
+    public enum Violation {
+        MISSING("Missing required fields", "All fields (swiftCode, countryISO2, countryName, address, bankName) must be provided."),
+        LENGTH("Invalid SWIFT code format", "SWIFT code should be exactly 8 or 11 characters."),
+        CHARACTERS("Invalid characters in SWIFT code", "SWIFT code must contain only letters A-Z (a-z) and digits 0-9."),
+        BANK_CODE("Invalid SWIFT code structure", "Characters 1-4 of a SWIFT code (bank code) must be letters."),
+        COUNTRY_CODE("Invalid SWIFT code structure", "Characters 5-6 of a SWIFT code (country code) must be letters."),
+        COUNTRY_MISMATCH("SWIFT code country mismatch", "Characters 5-6 of the SWIFT code must be the countryISO2 code.");
+
+        private final String error;
+        private final String message;
+
+        Violation(String error, String message) {
+            this.error = error;
+            this.message = message;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    // The first violation found, or null for a valid code. The country letters are compared with countryISO2 only
+    // when it has two characters; anything else is left to the country code check.
+    public Violation validate(String swiftCode, String countryISO2) {
+        if (swiftCode == null) {
+            return Violation.MISSING;
+        }
+        int start = 0;
+        int end = swiftCode.length();
+        while (start < end && swiftCode.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && swiftCode.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int length = end - start;
+        if (length == 0) {
+            return Violation.MISSING;
+        }
+        if (length != 8 && length != 11) {
+            return Violation.LENGTH;
+        }
+
+        // An invalid character is reported before a misplaced digit, wherever it is
+        Violation structure = null;
+        for (int i = 0; i < length; i++) {
+            char c = upperCase(swiftCode.charAt(start + i));
+            boolean letter = c >= 'A' && c <= 'Z';
+            if (!letter && !(c >= '0' && c <= '9')) {
+                return Violation.CHARACTERS;
+            }
+            if (structure == null && !letter && i < 6) {
+                structure = i < 4 ? Violation.BANK_CODE : Violation.COUNTRY_CODE;
+            }
+        }
+        if (structure != null) {
+            return structure;
+        }
+
+        if (countryISO2 != null) {
+            int countryStart = 0;
+            int countryEnd = countryISO2.length();
+            while (countryStart < countryEnd && countryISO2.charAt(countryStart) <= ' ') {
+                countryStart++;
+            }
+            while (countryEnd > countryStart && countryISO2.charAt(countryEnd - 1) <= ' ') {
+                countryEnd--;
+            }
+            if (countryEnd - countryStart == 2
+                    && (upperCase(swiftCode.charAt(start + 4)) != upperCase(countryISO2.charAt(countryStart))
+                    || upperCase(swiftCode.charAt(start + 5)) != upperCase(countryISO2.charAt(countryStart + 1)))) {
+                return Violation.COUNTRY_MISMATCH;
+            }
+        }
+        return null;
+    }
+
+    public boolean isValid(String swiftCode, String countryISO2) {
+        return validate(swiftCode, countryISO2) == null;
+    }
+
+    private static char upperCase(char c) {
+        return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.InternSwiftCodesProject.services;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Change versions of single SWIFT codes and of whole countries, used as ETag/Last-Modified of the read endpoints
+// so a conditional GET can be answered without reading the DB. Only codes and countries changed since start-up
+// (or since the last bulk import) have an entry; all others share the epoch's base version. The epoch is random
+// and renewed on every bulk import, so ETags handed out before a restart or import never match again.
+// Versions only see writes made through this instance, like the in-memory directory and prefix index.
+@Component
+public class SwiftCodeVersions {
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReference<Epoch> epoch = new AtomicReference<>(newEpoch());
+
+    public record Version(String eTag, Instant lastModified) {
+    }
+
+    private record Stamp(long sequence, Instant modified) {
+    }
+
+    private record Epoch(long id, Instant started, Map<String, Stamp> codes, Map<String, Stamp> countries) {
+    }
+
+    // Version of GET /v1/swift-codes/{swiftCode}
+    public Version ofCode(String swiftCode) {
+        Epoch current = epoch.get();
+        String code = swiftCode.toUpperCase();
+        return toVersion(current, code, current.codes().get(code));
+    }
+
+    // Version of the listings of one country
+    public Version ofCountry(String countryISO2) {
+        Epoch current = epoch.get();
+        String iso2 = countryISO2.toUpperCase();
+        return toVersion(current, iso2, current.countries().get(iso2));
+    }
+
+    // A code was saved or deleted: its own response, its headquarter's branch list and its country listing changed
+    public void onChanged(String swiftCode, String countryISO2) {
+        Epoch current = epoch.get();
+        long version = sequence.incrementAndGet();
+        String code = swiftCode.toUpperCase();
+        bump(current, current.codes(), code, version);
+        if (code.length() >= 8 && !code.endsWith("XXX")) {
+            bump(current, current.codes(), code.substring(0, 8) + "XXX", version);
+        }
+        if (countryISO2 != null) {
+            bump(current, current.countries(), countryISO2.toUpperCase(), version);
+        }
+    }
+
+    // Anything may have changed (bulk import): start a new epoch, which also drops all per-code entries
+    public void invalidateAll() {
+        epoch.set(newEpoch());
+    }
+
+    // HTTP dates have second precision, so a change within the second of the previous one moves Last-Modified
+    // one second on; otherwise If-Modified-Since could still match the older content
+    private static void bump(Epoch epoch, Map<String, Stamp> stamps, String key, long version) {
+        stamps.compute(key, (k, previous) -> {
+            Instant before = previous == null ? epoch.started() : previous.modified();
+            Instant modified = now();
+            return new Stamp(version, modified.isAfter(before) ? modified : before.plusSeconds(1));
+        });
+    }
+
+    // A hash of the key is part of the ETag so unchanged codes and countries do not all share one value;
+    // the key itself is not, as an unvalidated path segment could contain quotes
+    private static Version toVersion(Epoch epoch, String key, Stamp stamp) {
+        long version = stamp == null ? 0 : stamp.sequence();
+        Instant lastModified = stamp == null ? epoch.started() : stamp.modified();
+        String eTag = "\"" + Integer.toHexString(key.hashCode()) + "-" + Long.toHexString(epoch.id()) + "-" + Long.toHexString(version) + "\"";
+        return new Version(eTag, lastModified);
+    }
+
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private static Epoch newEpoch() {
+        return new Epoch(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, now(),
+                new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.InternSwiftCodesProject.services;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+// Optional in-memory serving mode (swift.directory.in-memory=true): the whole swift_codes table is held
+// as an immutable snapshot. Reads never touch the DB or take a lock; writes go to the DB first and then
+// publish a new snapshot through an atomic reference swap. swift.directory.encoding picks the snapshot
+// representation: "objects" (hash maps of entries) or "compact" (packed rows, see CompactSwiftStore).
+@Slf4j
+@Component
+public class SwiftDirectory {
+    private static final String SELECT_ALL_SQL = "SELECT swift_code, bank_name, address, countryiso2, country_name, "
+            + "headquarter_flag, headquarter_swift FROM swift_codes";
+    private static final int CODES_PER_QUERY = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SwiftSnapshots snapshots;
+    private final boolean enabled;
+    private final boolean compact;
+    private final boolean offHeap;
+    private final AtomicReference<SwiftDirectorySnapshot> current = new AtomicReference<>(SwiftDirectorySnapshot.EMPTY);
+    // Serialises writers and reloads so a reload never publishes over a concurrent change; readers never take it
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public SwiftDirectory(JdbcTemplate jdbcTemplate,
+                          SwiftSnapshots snapshots,
+                          @Value("${swift.directory.in-memory:false}") boolean enabled,
+                          @Value("${swift.directory.encoding:objects}") String encoding,
+                          @Value("${swift.directory.off-heap:false}") boolean offHeap) {
+        if (!encoding.equals("objects") && !encoding.equals("compact")) {
+            throw new IllegalArgumentException("Unknown swift.directory.encoding: " + encoding);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshots = snapshots;
+        this.enabled = enabled;
+        this.compact = encoding.equals("compact");
+        this.offHeap = offHeap;
+    }
+
+    // From the binary snapshot when there is a valid one, without reading the table
+    @PostConstruct
+    public void init() {
+        Optional<SwiftSnapshotFile.Contents> snapshot = enabled ? snapshots.startupSnapshot() : Optional.empty();
+        if (snapshot.isPresent()) {
+            load(snapshot.get().entries(), "snapshot");
+        } else {
+            reload();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // The snapshot to read from; callers should fetch it once per request for a consistent view
+    public SwiftDirectorySnapshot snapshot() {
+        return current.get();
+    }
+
+    // Rebuild the snapshot from the table, e.g. after a bulk import wrote to it directly
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        // Held across the query, so a change published meanwhile is not overwritten by older rows
+        writeLock.lock();
+        try {
+            load(loadEntries(jdbcTemplate), "table");
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void load(List<SwiftDirectoryEntry> entries, String source) {
+        writeLock.lock();
+        try {
+            current.set(compact ? CompactSwiftStore.of(entries, offHeap) : HashDirectorySnapshot.of(entries));
+            log.atInfo().setMessage("SWIFT directory loaded")
+                    .addKeyValue("codes", entries.size())
+                    .addKeyValue("encoding", compact ? "compact" : "objects")
+                    .addKeyValue("source", source)
+                    .log();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Estimated memory of the compact encoding versus the entity graph, for the current data set; works
+    // even when the directory is disabled or uses the object encoding by encoding the table on demand
+    public Map<String, Object> getFootprintReport() {
+        SwiftDirectorySnapshot snapshot = current.get();
+        CompactSwiftStore store = snapshot instanceof CompactSwiftStore compactStore
+                ? compactStore
+                : CompactSwiftStore.of(enabled ? snapshot.entries() : loadEntries(jdbcTemplate), offHeap);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("inMemory", enabled);
+        report.put("encoding", compact ? "compact" : "objects");
+        report.putAll(store.footprint());
+        return report;
+    }
+
+    // Publish a code that was just saved to the DB
+    public void onSaved(SwiftDirectoryEntry entry) {
+        publish(snapshot -> snapshot.withSaved(entry));
+    }
+
+    // Publish a code that was just deleted from the DB
+    public void onDeleted(String swiftCode) {
+        publish(snapshot -> snapshot.withDeleted(swiftCode));
+    }
+
+    // Every row of the table, also what SwiftSnapshots writes
+    static List<SwiftDirectoryEntry> loadEntries(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.query(SELECT_ALL_SQL, SwiftDirectory::mapEntry);
+    }
+
+    // The rows of the given codes, CODES_PER_QUERY codes per query; codes not in the table are left out
+    static List<SwiftDirectoryEntry> loadEntries(JdbcTemplate jdbcTemplate, List<String> swiftCodes) {
+        List<SwiftDirectoryEntry> entries = new ArrayList<>(swiftCodes.size());
+        for (int from = 0; from < swiftCodes.size(); from += CODES_PER_QUERY) {
+            List<String> codes = swiftCodes.subList(from, Math.min(from + CODES_PER_QUERY, swiftCodes.size()));
+            String sql = SELECT_ALL_SQL + " WHERE swift_code IN (" + String.join(", ", Collections.nCopies(codes.size(), "?")) + ")";
+            entries.addAll(jdbcTemplate.query(sql, SwiftDirectory::mapEntry, codes.toArray()));
+        }
+        return entries;
+    }
+
+    private static SwiftDirectoryEntry mapEntry(ResultSet rs, int rowNum) throws SQLException {
+        return new SwiftDirectoryEntry(
+                rs.getString("swift_code"),
+                rs.getString("bank_name"),
+                rs.getString("address"),
+                rs.getString("countryiso2"),
+                rs.getString("country_name"),
+                rs.getBoolean("headquarter_flag"),
+                rs.getString("headquarter_swift"));
+    }
+
+    private void publish(UnaryOperator<SwiftDirectorySnapshot> change) {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            current.set(change.apply(current.get()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
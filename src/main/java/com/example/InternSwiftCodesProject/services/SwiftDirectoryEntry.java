@@ -0,0 +1,47 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.SwiftCode;
+import lombok.Value;
+import lombok.With;
+
+// Immutable copy of one swift_codes row, as held by the in-memory directory
+@Value
+public class SwiftDirectoryEntry {
+    String swiftCode;
+    String bankName;
+    String address;
+    String countryISO2;
+    String countryName;
+    boolean headquarterFlag;
+    @With
+    String headquarterSwift;
+
+    public static SwiftDirectoryEntry from(SwiftCode swiftCode) {
+        return new SwiftDirectoryEntry(
+                swiftCode.getSwiftCode(),
+                swiftCode.getBankName(),
+                swiftCode.getAddress(),
+                swiftCode.getCountryISO2(),
+                swiftCode.getCountryName(),
+                swiftCode.isHeadquarterFlag(),
+                swiftCode.getHeadquarter() != null ? swiftCode.getHeadquarter().getSwiftCode() : null
+        );
+    }
+
+    // First 8 characters, shared by a headquarter and all of its branches
+    public String getPrefix() {
+        return swiftCode.length() > 8 ? swiftCode.substring(0, 8) : swiftCode;
+    }
+
+    // Fresh detached entity, so callers can never modify the shared snapshot
+    public SwiftCode toSwiftCode() {
+        SwiftCode swiftCode = new SwiftCode(this.swiftCode, bankName, address, countryISO2, countryName, headquarterFlag);
+        if (headquarterSwift != null) {
+            SwiftCode headquarter = new SwiftCode();
+            headquarter.setSwiftCode(headquarterSwift);
+            headquarter.setHeadquarterFlag(true);
+            swiftCode.setHeadquarter(headquarter);
+        }
+        return swiftCode;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.InternSwiftCodesProject.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Immutable, fully indexed view of the SWIFT directory. Changes never modify a snapshot; they build a new
+// one that replaces it. Lists are ordered by SWIFT code.
+public interface SwiftDirectorySnapshot {
+    SwiftDirectorySnapshot EMPTY = HashDirectorySnapshot.of(List.of());
+
+    int size();
+
+    Collection<SwiftDirectoryEntry> entries();
+
+    Optional<SwiftDirectoryEntry> get(String swiftCode);
+
+    boolean contains(String swiftCode);
+
+    List<SwiftDirectoryEntry> getByCountry(String countryISO2);
+
+    // Headquarter and branches sharing an 8-character prefix
+    List<SwiftDirectoryEntry> getByPrefix(String prefix8);
+
+    List<SwiftDirectoryEntry> getBranchesOf(String headquarterSwift);
+
+    SwiftDirectorySnapshot withSaved(SwiftDirectoryEntry saved);
+
+    SwiftDirectorySnapshot withDeleted(String swiftCode);
+}
@@ -0,0 +1,102 @@
+package com.example.InternSwiftCodesProject.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// SWIFT-specific meters, exported with the rest on /actuator/prometheus. Endpoint latency comes from
+// Spring's http.server.requests and repository latency from spring.data.repository.invocations;
+// this adds what those cannot see: import stages, branch fan-out, country response size and table size.
+@Component
+public class SwiftMetrics {
+    private final MeterRegistry registry;
+    private final DistributionSummary branchFanOut;
+    private final DistributionSummary countryResponseCodes;
+    private final Counter importedAdded;
+    private final Counter importedSkipped;
+    private final Counter importedUpdated;
+    private final Counter importedDeleted;
+    private final Counter importedRejected;
+    private final Counter importedLinked;
+
+    // Constructor-based dependency injection
+    public SwiftMetrics(MeterRegistry registry, SwiftCodePrefixIndex prefixIndex) {
+        this.registry = registry;
+        this.branchFanOut = DistributionSummary.builder("swift.headquarter.branches")
+                .description("Branches returned with a headquarter by GET /v1/swift-codes/{swiftCode}")
+                .baseUnit("branches")
+                .publishPercentileHistogram()
+                .register(registry);
+        // One untagged summary without a histogram: a country tag times percentile buckets would add thousands
+        // of series, and each listing's size is already known from its cached body
+        this.countryResponseCodes = DistributionSummary.builder("swift.country.response.codes")
+                .description("SWIFT codes returned by one country listing")
+                .baseUnit("codes")
+                .register(registry);
+        this.importedAdded = importRows("added");
+        this.importedSkipped = importRows("skipped");
+        this.importedUpdated = importRows("updated");
+        this.importedDeleted = importRows("deleted");
+        this.importedRejected = importRows("rejected");
+        this.importedLinked = importRows("linked");
+
+        // The prefix index always holds every code, so the table size is read without a COUNT(*) per scrape
+        Gauge.builder("swift.codes.size", prefixIndex, SwiftCodePrefixIndex::size)
+                .description("SWIFT codes in the swift_codes table")
+                .baseUnit("codes")
+                .register(registry);
+    }
+
+    public void recordBranchFanOut(int branches) {
+        branchFanOut.record(branches);
+    }
+
+    // Codes returned by GET /v1/swift-codes/country/{countryISO2}
+    public void recordCountryResponse(int codes) {
+        countryResponseCodes.record(codes);
+    }
+
+    // Time one import stage (read, validate, write, load-existing, write-chunk, link, refresh)
+    public void timeStage(String stage, Runnable action) {
+        stageTimer(stage).record(action);
+    }
+
+    public <T> T timeStage(String stage, Supplier<T> action) {
+        return stageTimer(stage).record(action);
+    }
+
+    // For stages that throw checked exceptions and time themselves
+    public void recordStage(String stage, long nanos) {
+        stageTimer(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Add the totals of one finished import
+    public void recordImport(BulkImportResult result) {
+        importedAdded.increment(result.getAdded());
+        importedSkipped.increment(result.getSkipped());
+        importedUpdated.increment(result.getUpdated());
+        importedDeleted.increment(result.getDeleted());
+        importedRejected.increment(result.getRejected());
+        importedLinked.increment(result.getLinkedBranches());
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("swift.import.stage")
+                .description("Time spent in one stage of a CSV import")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    private Counter importRows(String outcome) {
+        return Counter.builder("swift.import.rows")
+                .description("Imported rows by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
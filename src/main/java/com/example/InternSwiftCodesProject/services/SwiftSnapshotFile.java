@@ -0,0 +1,264 @@
+package com.example.InternSwiftCodesProject.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Versioned binary snapshot of the swift_codes table, written from the table and memory-mapped on boot.
+// Layout (big-endian): a 40-byte header, then the body.
+//   header: magic "SWFTSNAP" | format version (int) | flags (int, bit 0 = body deflated) | rows (int) |
+//           stored body length (int) | raw body length (int) | created at, epoch millis (long) |
+//           CRC32C of header bytes 0-35 and the stored body (int)
+//   body:   one column after the other, rows ordered by SWIFT code, each column prefixed with its byte length:
+//           swift_code, bank_name, address, countryiso2, country_name, headquarter_swift (strings: unsigned short
+//           byte length, 0xFFFF for null, then UTF-8), headquarter_flag (one byte per row)
+public final class SwiftSnapshotFile {
+    public static final int FORMAT_VERSION = 1;
+
+    private static final byte[] MAGIC = "SWFTSNAP".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_BYTES = 40;
+    private static final int CHECKSUM_OFFSET = 36;
+    private static final int FLAG_DEFLATED = 1;
+    private static final int NULL_LENGTH = 0xFFFF;
+
+    // Format version and creation time from the header, and the decoded rows
+    public record Contents(int formatVersion, Instant createdAt, boolean compressed, List<SwiftDirectoryEntry> entries) {
+    }
+
+    private SwiftSnapshotFile() {
+    }
+
+    // Write the entries to path through a temporary file and an atomic rename, so a reader never sees a partial
+    // snapshot; returns the file size
+    public static long write(Path path, Collection<SwiftDirectoryEntry> entries, boolean compress) throws IOException {
+        List<SwiftDirectoryEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(SwiftDirectoryEntry::getSwiftCode));
+
+        byte[] raw = encodeBody(sorted);
+        byte[] body = compress ? deflate(raw) : raw;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.put(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(compress ? FLAG_DEFLATED : 0)
+                .putInt(sorted.size())
+                .putInt(body.length)
+                .putInt(raw.length)
+                .putLong(Instant.now().toEpochMilli());
+        CRC32C checksum = new CRC32C();
+        checksum.update(header.array(), 0, CHECKSUM_OFFSET);
+        checksum.update(body);
+        header.putInt((int) checksum.getValue());
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                header.flip();
+                ByteBuffer content = ByteBuffer.wrap(body);
+                while (header.hasRemaining() || content.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, content});
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return HEADER_BYTES + (long) body.length;
+    }
+
+    // Map the file and decode it; an unknown version, a truncated file or a checksum mismatch is an IOException
+    public static Contents read(Path path) throws IOException {
+        MappedByteBuffer file;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a SWIFT snapshot (size " + channel.size() + " bytes): " + path);
+            }
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        byte[] magic = new byte[MAGIC.length];
+        file.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a SWIFT snapshot: " + path);
+        }
+        int version = file.getInt(8);
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported SWIFT snapshot format version " + version + " (expected " + FORMAT_VERSION + ")");
+        }
+        int flags = file.getInt(12);
+        int rows = file.getInt(16);
+        int storedLength = file.getInt(20);
+        int rawLength = file.getInt(24);
+        Instant createdAt = Instant.ofEpochMilli(file.getLong(28));
+        if (rows < 0 || storedLength < 0 || rawLength < 0 || HEADER_BYTES + (long) storedLength != file.capacity()) {
+            throw new IOException("Truncated or malformed SWIFT snapshot: " + path);
+        }
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(file.slice(0, CHECKSUM_OFFSET));
+        ByteBuffer stored = file.slice(HEADER_BYTES, storedLength);
+        checksum.update(stored.duplicate());
+        if ((int) checksum.getValue() != file.getInt(CHECKSUM_OFFSET)) {
+            throw new IOException("SWIFT snapshot checksum mismatch: " + path);
+        }
+
+        boolean deflated = (flags & FLAG_DEFLATED) != 0;
+        // An uncompressed body is decoded straight from the mapping
+        ByteBuffer body = deflated ? inflate(stored, rawLength) : stored;
+        try {
+            return new Contents(version, createdAt, deflated, decodeBody(body, rows));
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed SWIFT snapshot body: " + path, e);
+        }
+    }
+
+    private static byte[] encodeBody(List<SwiftDirectoryEntry> entries) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(entries.size() * 96);
+        DataOutputStream out = new DataOutputStream(body);
+        writeColumn(out, entries, SwiftDirectoryEntry::getSwiftCode);
+        writeColumn(out, entries, SwiftDirectoryEntry::getBankName);
+        writeColumn(out, entries, SwiftDirectoryEntry::getAddress);
+        writeColumn(out, entries, SwiftDirectoryEntry::getCountryISO2);
+        writeColumn(out, entries, SwiftDirectoryEntry::getCountryName);
+        writeColumn(out, entries, SwiftDirectoryEntry::getHeadquarterSwift);
+        out.writeInt(entries.size());
+        for (SwiftDirectoryEntry entry : entries) {
+            out.writeByte(entry.isHeadquarterFlag() ? 1 : 0);
+        }
+        out.flush();
+        return body.toByteArray();
+    }
+
+    private static void writeColumn(DataOutputStream out, List<SwiftDirectoryEntry> entries,
+                                    Function<SwiftDirectoryEntry, String> column) throws IOException {
+        ByteArrayOutputStream values = new ByteArrayOutputStream(entries.size() * 16);
+        DataOutputStream valuesOut = new DataOutputStream(values);
+        for (SwiftDirectoryEntry entry : entries) {
+            String value = column.apply(entry);
+            if (value == null) {
+                valuesOut.writeShort(NULL_LENGTH);
+                continue;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length >= NULL_LENGTH) {
+                throw new IllegalArgumentException("Value too long for a SWIFT snapshot: " + bytes.length + " bytes");
+            }
+            valuesOut.writeShort(bytes.length);
+            valuesOut.write(bytes);
+        }
+        valuesOut.flush();
+        out.writeInt(values.size());
+        values.writeTo(out);
+    }
+
+    private static List<SwiftDirectoryEntry> decodeBody(ByteBuffer body, int rows) {
+        ByteBuffer in = body.duplicate();
+        String[] codes = readColumn(in, rows, false);
+        String[] bankNames = readColumn(in, rows, false);
+        String[] addresses = readColumn(in, rows, false);
+        // Few distinct values, so each is kept once
+        String[] countryCodes = readColumn(in, rows, true);
+        String[] countryNames = readColumn(in, rows, true);
+        String[] headquarters = readColumn(in, rows, false);
+        if (in.getInt() != rows) {
+            throw new IllegalStateException("Headquarter flag column does not match the row count");
+        }
+        List<SwiftDirectoryEntry> entries = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            entries.add(new SwiftDirectoryEntry(codes[row], bankNames[row], addresses[row], countryCodes[row],
+                    countryNames[row], in.get() != 0, headquarters[row]));
+        }
+        if (in.hasRemaining()) {
+            throw new IllegalStateException(in.remaining() + " unexpected bytes after the last column");
+        }
+        return entries;
+    }
+
+    private static String[] readColumn(ByteBuffer in, int rows, boolean shared) {
+        int end = in.getInt();
+        end += in.position();
+        Map<String, String> distinct = shared ? new HashMap<>() : null;
+        byte[] scratch = new byte[256];
+        String[] values = new String[rows];
+        for (int row = 0; row < rows; row++) {
+            int length = Short.toUnsignedInt(in.getShort());
+            if (length == NULL_LENGTH) {
+                continue;
+            }
+            if (length > scratch.length) {
+                scratch = new byte[length];
+            }
+            in.get(scratch, 0, length);
+            String value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            values[row] = shared ? distinct.computeIfAbsent(value, v -> v) : value;
+        }
+        if (in.position() != end) {
+            throw new IllegalStateException("Column length does not match its values");
+        }
+        return values;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 3);
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static ByteBuffer inflate(ByteBuffer stored, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored.duplicate());
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (!inflater.finished() && length < rawLength) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength || !inflater.finished()) {
+                throw new IOException("SWIFT snapshot body does not inflate to its recorded length");
+            }
+            return ByteBuffer.wrap(raw);
+        } catch (DataFormatException e) {
+            throw new IOException("SWIFT snapshot body is not valid deflate data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
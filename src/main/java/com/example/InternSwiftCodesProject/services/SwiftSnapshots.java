@@ -0,0 +1,209 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.SwiftCode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Binary snapshots of the directory at swift.snapshot.path (see SwiftSnapshotFile). On boot a valid snapshot
+// populates the in-memory directory and prefix index while reading only the checksum columns of the table; an
+// empty table (a new replica) is seeded from it. The snapshot is rewritten after the startup CSV import,
+// on demand and on shutdown. Disabled while the path is blank.
+@Slf4j
+@Component
+public class SwiftSnapshots {
+    // The columns of the order-independent table checksum (see Checksum); content_hash stands in for the text
+    // columns, so the scan stays narrow
+    private static final String CHECKSUM_SQL =
+            "SELECT swift_code, content_hash, headquarter_flag, headquarter_swift FROM swift_codes";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path path;
+    private final boolean compress;
+    private final boolean writeOnShutdown;
+
+    // Read once on first use during startup, dropped by release() once the read model is built
+    private boolean startupChecked;
+    private SwiftSnapshotFile.Contents startupSnapshot;
+    private boolean seedTable;
+
+    // Constructor-based dependency injection
+    public SwiftSnapshots(JdbcTemplate jdbcTemplate,
+                          @Value("${swift.snapshot.path:}") String path,
+                          @Value("${swift.snapshot.compress:true}") boolean compress,
+                          @Value("${swift.snapshot.write-on-shutdown:true}") boolean writeOnShutdown) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.compress = compress;
+        this.writeOnShutdown = writeOnShutdown;
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    // The snapshot to start from: present when the file exists, passes its version and checksum checks and holds
+    // the same rows as the table (same count, content checksum and links), or the table is empty. Anything else
+    // falls back to the table.
+    public synchronized Optional<SwiftSnapshotFile.Contents> startupSnapshot() {
+        if (!startupChecked) {
+            startupChecked = true;
+            startupSnapshot = readStartupSnapshot();
+        }
+        return Optional.ofNullable(startupSnapshot);
+    }
+
+    // True if the table was empty when the startup snapshot was checked, so it has to be seeded from it
+    public synchronized boolean isSeedingTable() {
+        return startupSnapshot != null && seedTable;
+    }
+
+    // Drop the decoded startup rows once the read model has been built from them
+    public synchronized void release() {
+        startupSnapshot = null;
+    }
+
+    // Write the current table to the snapshot file
+    public Map<String, Object> write() throws IOException {
+        if (!isEnabled()) {
+            throw new IllegalStateException("swift.snapshot.path is not set");
+        }
+        long started = System.nanoTime();
+        List<SwiftDirectoryEntry> entries = SwiftDirectory.loadEntries(jdbcTemplate);
+        long bytes = SwiftSnapshotFile.write(path, entries, compress);
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        log.atInfo().setMessage("SWIFT snapshot written")
+                .addKeyValue("path", path)
+                .addKeyValue("rows", entries.size())
+                .addKeyValue("bytes", bytes)
+                .addKeyValue("millis", millis)
+                .log();
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("path", path.toString());
+        response.put("formatVersion", SwiftSnapshotFile.FORMAT_VERSION);
+        response.put("compressed", compress);
+        response.put("rows", entries.size());
+        response.put("bytes", bytes);
+        response.put("millis", millis);
+        return response;
+    }
+
+    // The snapshot file, if one has been written, e.g. to copy to a replica before it starts
+    public Optional<Path> file() {
+        return isEnabled() && Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!isEnabled() || !writeOnShutdown) {
+            return;
+        }
+        try {
+            write();
+        } catch (Exception e) {
+            log.atWarn().setMessage("Could not write SWIFT snapshot on shutdown").addKeyValue("path", path).setCause(e).log();
+        }
+    }
+
+    private SwiftSnapshotFile.Contents readStartupSnapshot() {
+        if (!isEnabled()) {
+            return null;
+        }
+        long started = System.nanoTime();
+        SwiftSnapshotFile.Contents contents;
+        try {
+            contents = SwiftSnapshotFile.read(path);
+        } catch (NoSuchFileException e) {
+            log.atInfo().setMessage("No SWIFT snapshot yet").addKeyValue("path", path).log();
+            return null;
+        } catch (IOException e) {
+            log.atWarn().setMessage("Ignoring unreadable SWIFT snapshot").addKeyValue("path", path).setCause(e).log();
+            return null;
+        }
+
+        long[] sums = new long[3]; // rows, fingerprint sum, rows without content_hash
+        jdbcTemplate.query(CHECKSUM_SQL, rs -> {
+            long contentHash = rs.getLong("content_hash");
+            // Rows stored before content_hash existed have none, so such a table cannot be compared
+            if (rs.wasNull()) {
+                sums[2]++;
+            }
+            sums[0]++;
+            sums[1] += Checksum.fingerprint(rs.getString("swift_code"), contentHash,
+                    rs.getBoolean("headquarter_flag"), rs.getString("headquarter_swift"));
+        });
+        Checksum table = new Checksum(sums[0], sums[1], sums[2] == 0);
+        long tableRows = table.rows();
+        if (tableRows != 0 && !table.equals(Checksum.of(contents.entries()))) {
+            log.atWarn().setMessage("Ignoring stale SWIFT snapshot")
+                    .addKeyValue("path", path)
+                    .addKeyValue("snapshotRows", contents.entries().size())
+                    .addKeyValue("tableRows", tableRows)
+                    .addKeyValue("tableHashed", table.complete())
+                    .log();
+            return null;
+        }
+        seedTable = tableRows == 0 && !contents.entries().isEmpty();
+        log.atInfo().setMessage("SWIFT snapshot loaded")
+                .addKeyValue("path", path)
+                .addKeyValue("formatVersion", contents.formatVersion())
+                .addKeyValue("createdAt", contents.createdAt())
+                .addKeyValue("rows", contents.entries().size())
+                .addKeyValue("seedTable", seedTable)
+                .addKeyValue("millis", (System.nanoTime() - started) / 1_000_000)
+                .log();
+        return contents;
+    }
+
+    // Row count and the sum (wrapping at 64 bits) of per-row fingerprints over the code, content hash, headquarter
+    // flag and headquarter link, so a row replaced by another code with the same content or a branch re-pointed
+    // to another headquarter also changes it
+    private record Checksum(long rows, long fingerprintSum, boolean complete) {
+        static Checksum of(List<SwiftDirectoryEntry> entries) {
+            long fingerprintSum = 0;
+            for (SwiftDirectoryEntry entry : entries) {
+                long contentHash = SwiftCode.contentHashOf(entry.getBankName(), entry.getAddress(),
+                        entry.getCountryISO2(), entry.getCountryName());
+                fingerprintSum += fingerprint(entry.getSwiftCode(), contentHash, entry.isHeadquarterFlag(),
+                        entry.getHeadquarterSwift());
+            }
+            return new Checksum(entries.size(), fingerprintSum, true);
+        }
+
+        // 64-bit FNV-1a over the fields, finished with the SplitMix64 mixer so that sums of similar rows
+        // do not cancel out
+        static long fingerprint(String swiftCode, long contentHash, boolean headquarterFlag, String headquarterSwift) {
+            long hash = 0xcbf29ce484222325L;
+            hash = mix(hash, swiftCode);
+            for (int shift = 0; shift < 64; shift += 8) {
+                hash = (hash ^ ((contentHash >>> shift) & 0xff)) * 0x100000001b3L;
+            }
+            hash = (hash ^ (headquarterFlag ? 1 : 0)) * 0x100000001b3L;
+            hash = mix(hash, headquarterSwift);
+            hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+            hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+            return hash ^ (hash >>> 31);
+        }
+
+        private static long mix(long hash, String field) {
+            if (field != null) {
+                for (int i = 0; i < field.length(); i++) {
+                    hash = (hash ^ field.charAt(i)) * 0x100000001b3L;
+                }
+            }
+            return (hash ^ 0x1f) * 0x100000001b3L;
+        }
+    }
+}
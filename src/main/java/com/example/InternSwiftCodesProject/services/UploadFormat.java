@@ -0,0 +1,38 @@
+package com.example.InternSwiftCodesProject.services;
+
+import java.util.Locale;
+import java.util.Optional;
+
+// How an uploaded directory file is packed, from its name
+public enum UploadFormat {
+    // Plain CSV
+    CSV(".csv"),
+    // One gzip-compressed CSV
+    GZIP(".csv.gz"),
+    // A ZIP archive with one or more CSV entries
+    ZIP(".zip");
+
+    private final String extension;
+
+    UploadFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // Format of a file name ("codes.csv", "codes.csv.gz", "release.zip"), empty for anything else
+    public static Optional<UploadFormat> fromFileName(String fileName) {
+        if (fileName == null) {
+            return Optional.empty();
+        }
+        String name = fileName.toLowerCase(Locale.ROOT);
+        for (UploadFormat format : values()) {
+            if (name.endsWith(format.extension)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
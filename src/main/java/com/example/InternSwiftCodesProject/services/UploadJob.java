@@ -0,0 +1,138 @@
+package com.example.InternSwiftCodesProject.services;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One asynchronous CSV import: its lifecycle, byte-level progress and the running import totals
+@Getter
+public class UploadJob {
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    // One CSV inside a compressed upload and the bytes decompressed from it so far
+    public record Entry(String name, AtomicLong uncompressedBytes) {
+    }
+
+    private final String id;
+    private final String fileName;
+    private final long totalBytes;
+    private final ImportMode mode;
+    private final UploadFormat format;
+    private final Instant createdAt = Instant.now();
+    private final BulkImportResult result;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong uncompressedBytes = new AtomicLong();
+    private final List<Entry> entries = new CopyOnWriteArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    UploadJob(String id, String fileName, long totalBytes, int maxReportedRows) {
+        this(id, fileName, totalBytes, ImportMode.APPEND, maxReportedRows);
+    }
+
+    UploadJob(String id, String fileName, long totalBytes, ImportMode mode, int maxReportedRows) {
+        this(id, fileName, totalBytes, mode, UploadFormat.CSV, maxReportedRows);
+    }
+
+    UploadJob(String id, String fileName, long totalBytes, ImportMode mode, UploadFormat format, int maxReportedRows) {
+        this.id = id;
+        this.fileName = fileName;
+        this.totalBytes = totalBytes;
+        this.mode = mode;
+        this.format = format;
+        this.result = new BulkImportResult(maxReportedRows);
+    }
+
+    // A new CSV of a compressed upload is being read
+    Entry startEntry(String name) {
+        Entry entry = new Entry(name, new AtomicLong());
+        entries.add(entry);
+        return entry;
+    }
+
+    void markRunning() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void markCompleted() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void markFailed(String message) {
+        finishedAt = Instant.now();
+        error = message;
+        status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    // Progress report: counts, throughput and an ETA extrapolated from the bytes read so far
+    public Map<String, Object> snapshot() {
+        Instant start = startedAt;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long elapsedMillis = start != null ? Math.max(1, Duration.between(start, end).toMillis()) : 0;
+        long processed = result.getProcessed();
+        long read = bytesRead.get();
+
+        Long etaSeconds = null;
+        if (status == Status.RUNNING && read > 0 && totalBytes > 0) {
+            double bytesPerMilli = (double) read / elapsedMillis;
+            etaSeconds = Math.round(Math.max(0, totalBytes - read) / bytesPerMilli / 1000);
+        } else if (isFinished()) {
+            etaSeconds = 0L;
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("jobId", id);
+        snapshot.put("fileName", fileName);
+        snapshot.put("mode", mode.name().toLowerCase());
+        snapshot.put("status", status);
+        snapshot.put("createdAt", createdAt.toString());
+        snapshot.put("startedAt", start != null ? start.toString() : null);
+        snapshot.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+        snapshot.put("bytesRead", read);
+        snapshot.put("totalBytes", totalBytes);
+        // bytesRead and totalBytes are compressed sizes for compressed uploads, so the ETA still holds
+        if (format != UploadFormat.CSV) {
+            List<Map<String, Object>> entryProgress = new ArrayList<>();
+            for (Entry entry : entries) {
+                Map<String, Object> progress = new LinkedHashMap<>();
+                progress.put("name", entry.name());
+                progress.put("uncompressedBytes", entry.uncompressedBytes().get());
+                entryProgress.add(progress);
+            }
+            snapshot.put("format", format.name().toLowerCase());
+            snapshot.put("uncompressedBytes", uncompressedBytes.get());
+            snapshot.put("entries", entryProgress);
+        }
+        snapshot.put("rowsProcessed", processed);
+        snapshot.put("added", result.getAdded());
+        snapshot.put("updated", result.getUpdated());
+        snapshot.put("unchanged", result.getUnchanged());
+        snapshot.put("deleted", result.getDeleted());
+        snapshot.put("skipped", result.getSkipped());
+        snapshot.put("rejected", result.getRejected());
+        snapshot.put("linkedBranches", result.getLinkedBranches());
+        snapshot.put("deletesRefused", result.getDeletesRefused());
+        snapshot.put("skipReasons", result.getReasonCounts());
+        snapshot.put("rowsPerSecond", elapsedMillis > 0 ? processed * 1000 / elapsedMillis : 0);
+        snapshot.put("etaSeconds", etaSeconds);
+        snapshot.put("error", error);
+        snapshot.put("rejectReport", "/upload/jobs/" + id + "/rejects");
+        return snapshot;
+    }
+}
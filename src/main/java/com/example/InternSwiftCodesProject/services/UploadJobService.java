@@ -0,0 +1,280 @@
+package com.example.InternSwiftCodesProject.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// Runs CSV uploads as background jobs on a dedicated, bounded executor, so imports never hold
+// request threads and several uploads can run at once without starving the read API
+@Slf4j
+@Service
+public class UploadJobService {
+    private final CSVParserService csvParserService;
+    private final ThreadPoolTaskExecutor executor;
+    private final int maxReportedRows;
+    private final Duration retention;
+    private final Path localDirectory;
+    private final int parserThreads;
+    private final long maxUncompressedBytes;
+    private final int maxCompressionRatio;
+    private final int maxArchiveEntries;
+    private final Map<String, UploadJob> jobs = new ConcurrentHashMap<>();
+
+    // Constructor-based dependency injection
+    public UploadJobService(CSVParserService csvParserService,
+                            @Value("${swift.import.jobs.concurrency:2}") int concurrency,
+                            @Value("${swift.import.jobs.queue-capacity:10}") int queueCapacity,
+                            @Value("${swift.import.jobs.max-reported-rows:10000}") int maxReportedRows,
+                            @Value("${swift.import.jobs.retention:PT1H}") Duration retention,
+                            @Value("${swift.import.local.directory:}") String localDirectory,
+                            @Value("${swift.import.local.parser-threads:0}") int parserThreads,
+                            @Value("${swift.import.compressed.max-uncompressed-bytes:8589934592}") long maxUncompressedBytes,
+                            @Value("${swift.import.compressed.max-ratio:100}") int maxCompressionRatio,
+                            @Value("${swift.import.compressed.max-entries:100}") int maxArchiveEntries,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.csvParserService = csvParserService;
+        this.maxReportedRows = maxReportedRows;
+        this.retention = retention;
+        this.localDirectory = localDirectory.isBlank() ? null : Path.of(localDirectory).toAbsolutePath().normalize();
+        this.parserThreads = parserThreads;
+        this.maxUncompressedBytes = maxUncompressedBytes;
+        this.maxCompressionRatio = maxCompressionRatio;
+        this.maxArchiveEntries = maxArchiveEntries;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("swift-upload-");
+        // Still at most `concurrency` jobs at once, but a job waiting on the DB does not hold a platform thread
+        executor.setVirtualThreads(virtualThreads && JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE));
+        executor.initialize();
+    }
+
+    public UploadJob submit(MultipartFile file) throws IOException {
+        return submit(file, ImportMode.APPEND);
+    }
+
+    // Spool the upload to a temp file and queue its import; throws TaskRejectedException if the queue is full.
+    // A .csv.gz or .zip upload is spooled as it came and decompressed as a stream while it is imported.
+    public UploadJob submit(MultipartFile file, ImportMode mode) throws IOException {
+        purgeExpiredJobs();
+
+        UploadFormat format = UploadFormat.fromFileName(file.getOriginalFilename()).orElse(UploadFormat.CSV);
+        Path spooled = Files.createTempFile("swift-upload-", format.getExtension());
+        try {
+            // The multipart data is gone once the request completes, so keep our own copy for the job
+            file.transferTo(spooled);
+            UploadJob job = new UploadJob(UUID.randomUUID().toString(), file.getOriginalFilename(), Files.size(spooled), mode, format, maxReportedRows);
+            jobs.put(job.getId(), job);
+            try {
+                executor.execute(() -> runUploadJob(job, spooled));
+            } catch (RuntimeException e) {
+                jobs.remove(job.getId());
+                throw e;
+            }
+            return job;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+    }
+
+    public boolean isLocalImportEnabled() {
+        return localDirectory != null;
+    }
+
+    // A .csv file inside the local import directory, after resolving "..", symbolic links and absolute paths;
+    // empty for anything else, so callers cannot probe files outside the directory
+    public Optional<Path> resolveLocalFile(String path) {
+        if (localDirectory == null || path == null || path.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            Path directory = localDirectory.toRealPath();
+            Path file = directory.resolve(path).normalize();
+            if (!file.startsWith(directory) || !file.getFileName().toString().endsWith(".csv")) {
+                return Optional.empty();
+            }
+            Path real = file.toRealPath();
+            return real.startsWith(directory) && Files.isRegularFile(real) ? Optional.of(real) : Optional.empty();
+        } catch (IOException | InvalidPathException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Queue the import of a file resolved by resolveLocalFile; it is read in place through MappedCsvReader
+    // instead of being spooled. Throws TaskRejectedException if the queue is full.
+    public UploadJob submitLocal(Path file, ImportMode mode) throws IOException {
+        purgeExpiredJobs();
+
+        UploadJob job = new UploadJob(UUID.randomUUID().toString(), file.getFileName().toString(), Files.size(file), mode, maxReportedRows);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> runJob(job, () ->
+                    csvParserService.importSwiftFile(file, job.getResult(), job.getMode(), parserThreads, job.getBytesRead())));
+        } catch (RuntimeException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<UploadJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    // Skipped and rejected rows of a job as CSV
+    public String renderRejectReport(UploadJob job) {
+        StringWriter out = new StringWriter();
+        try (CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT.builder().setHeader("SWIFT CODE", "REASON").get())) {
+            for (BulkImportResult.RejectedRow row : job.getResult().getRejectReport()) {
+                printer.printRecord(row.swiftCode(), row.reason());
+            }
+            if (job.getResult().isRejectReportTruncated()) {
+                printer.printComment("Report truncated after " + maxReportedRows + " rows");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void runUploadJob(UploadJob job, Path spooled) {
+        try {
+            runJob(job, () -> {
+                try (InputStream in = new ProgressInputStream(Files.newInputStream(spooled), job.getBytesRead())) {
+                    switch (job.getFormat()) {
+                        case CSV -> csvParserService.importSwiftData(in, job.getResult(), job.getMode());
+                        case GZIP -> {
+                            String entryName = job.getFileName().replaceFirst("(?i)\\.gz$", "");
+                            // Closed here, since the decompressed wrapper leaves its stream open; ends the Inflater
+                            try (GZIPInputStream gzip = new GZIPInputStream(in, 64 * 1024)) {
+                                InputStream csv = decompressed(gzip, job, entryName);
+                                csvParserService.importSwiftData(csv, job.getResult(), job.getMode());
+                            }
+                        }
+                        case ZIP -> {
+                            try (ZipInputStream archive = new ZipInputStream(in)) {
+                                csvParserService.importSwiftData(new ZipEntries(archive, job), job.getResult(), job.getMode());
+                            }
+                        }
+                    }
+                }
+            });
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                log.atWarn().setMessage("Could not delete spooled upload").addKeyValue("file", spooled).setCause(e).log();
+            }
+        }
+    }
+
+    private InputStream decompressed(InputStream in, UploadJob job, String entryName) {
+        UploadJob.Entry entry = job.startEntry(entryName);
+        return new DecompressedInputStream(in, job.getUncompressedBytes(), entry.uncompressedBytes(), job.getBytesRead(),
+                maxUncompressedBytes, maxCompressionRatio);
+    }
+
+    // The CSV entries of a ZIP upload, read one after the other from the archive stream; directories and other
+    // files (e.g. a readme) are skipped
+    private class ZipEntries implements Iterator<InputStream> {
+        private final ZipInputStream archive;
+        private final UploadJob job;
+        private ZipEntry next;
+        private int csvEntries;
+
+        ZipEntries(ZipInputStream archive, UploadJob job) {
+            this.archive = archive;
+            this.job = job;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null) {
+                    ZipEntry entry = archive.getNextEntry();
+                    if (entry == null) {
+                        if (csvEntries == 0) {
+                            throw new IOException("ZIP upload contains no .csv file");
+                        }
+                        return false;
+                    }
+                    if (!entry.isDirectory() && UploadFormat.fromFileName(entry.getName()).orElse(null) == UploadFormat.CSV
+                            && !entry.getName().startsWith("__MACOSX/")) {
+                        if (++csvEntries > maxArchiveEntries) {
+                            throw new IOException("ZIP upload has more than " + maxArchiveEntries + " CSV files (swift.import.compressed.max-entries)");
+                        }
+                        next = entry;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public InputStream next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ZipEntry entry = next;
+            next = null;
+            return decompressed(archive, job, entry.getName());
+        }
+    }
+
+    private void runJob(UploadJob job, JobImport work) {
+        job.markRunning();
+        try {
+            work.run();
+            job.markCompleted();
+        } catch (Exception e) {
+            log.atError().setMessage("Upload job failed").addKeyValue("jobId", job.getId()).setCause(e).log();
+            job.markFailed(e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface JobImport {
+        void run() throws Exception;
+    }
+
+    // Forget finished jobs once their retention period is over
+    private void purgeExpiredJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,13 @@
+-- Baseline: the swift_codes table as Hibernate created it before migrations were introduced.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip this script.
+CREATE TABLE swift_codes (
+    swift_code        VARCHAR(255) NOT NULL,
+    address           VARCHAR(255),
+    bank_name         VARCHAR(255),
+    country_name      VARCHAR(255),
+    countryiso2       VARCHAR(255),
+    headquarter_flag  BOOLEAN      NOT NULL,
+    headquarter_swift VARCHAR(255),
+    CONSTRAINT pk_swift_codes PRIMARY KEY (swift_code),
+    CONSTRAINT fk_swift_codes_headquarter FOREIGN KEY (headquarter_swift) REFERENCES swift_codes (swift_code)
+);
@@ -0,0 +1,13 @@
+-- Stored 8-character bank prefix (bank + country + location code), shared by a headquarter and its
+-- branches, so HQ/branch linking is an equality lookup instead of LIKE 'prefix%'
+ALTER TABLE swift_codes ADD COLUMN bank_prefix VARCHAR(8);
+UPDATE swift_codes SET bank_prefix = SUBSTRING(swift_code FROM 1 FOR 8);
+
+-- Country queries compare the stored code directly, so it must already be upper case
+UPDATE swift_codes SET countryiso2 = UPPER(countryiso2) WHERE countryiso2 <> UPPER(countryiso2);
+
+CREATE INDEX idx_swift_codes_bank_prefix ON swift_codes (bank_prefix);
+-- Serves country listings in SWIFT code order, including keyset pages
+CREATE INDEX idx_swift_codes_country_code ON swift_codes (countryiso2, swift_code);
+-- Serves branch lookups of a headquarter and unlinking when it is deleted
+CREATE INDEX idx_swift_codes_headquarter ON swift_codes (headquarter_swift);
@@ -0,0 +1,4 @@
+-- 64-bit hash of a row's normalised content (bank name, address, country code and name), written with every
+-- insert and update, so a delta import can tell unchanged rows from changed ones without reading them.
+-- Existing rows start without one; the first delta import treats them as changed and fills it in.
+ALTER TABLE swift_codes ADD COLUMN content_hash BIGINT;
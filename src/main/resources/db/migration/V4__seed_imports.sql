@@ -0,0 +1,9 @@
+-- Fingerprints of the classpath seed files (data/*.csv) imported at startup, so a restart skips files that have
+-- not changed since their last import instead of re-validating every row
+CREATE TABLE seed_imports (
+    file_name    VARCHAR(255) NOT NULL,
+    content_hash VARCHAR(64)  NOT NULL,
+    row_count    BIGINT       NOT NULL,
+    imported_at  TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_seed_imports PRIMARY KEY (file_name)
+);
@@ -0,0 +1,209 @@
+package com.example.InternSwiftCodesProject;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Query plans and timings of the SWIFT code lookups before (V1: primary key only, case folding, LIKE) and
+// after (V2: bank_prefix and composite indexes) on a synthetic table. Not part of the normal test run:
+//   mvn -Pbenchmark test -Dbenchmark.rows=1000000 [-Dbenchmark.url=jdbc:postgresql://... -Dbenchmark.user=... -Dbenchmark.password=...]
+class SwiftCodeIndexBenchmark {
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 50);
+    private static final String URL = System.getProperty("benchmark.url", "jdbc:h2:mem:swift_bench;DB_CLOSE_DELAY=-1");
+    private static final String USER = System.getProperty("benchmark.user", "sa");
+    private static final String PASSWORD = System.getProperty("benchmark.password", "");
+    private static final String[] COUNTRIES = {"US", "DE", "GB", "FR", "PL", "IT", "ES", "NL", "CH", "JP",
+            "CN", "BR", "CA", "AU", "SE", "NO", "AT", "BE", "DK", "FI", "IE", "PT", "CZ", "HU", "RO", "GR", "TR", "MX", "IN", "ZA"};
+    // One headquarter and 19 branches per bank prefix; every tenth bank has no HQ row, so its branches are orphans
+    private static final int CODES_PER_BANK = 20;
+
+    private static Connection before;
+    private static Connection after;
+    private static final List<String> bankPrefixes = new ArrayList<>();
+    private static final List<String> headquarters = new ArrayList<>();
+
+    @BeforeAll
+    static void createTables() throws SQLException {
+        migrate("bench_before", "1");
+        migrate("bench_after", "latest");
+        before = connect("bench_before");
+        after = connect("bench_after");
+
+        long start = System.nanoTime();
+        fill(before, false);
+        System.out.printf("Filled V1 table with %,d rows in %,d ms%n", ROWS, (System.nanoTime() - start) / 1_000_000);
+        // Inserting into the indexed table also shows what the extra indexes cost on the write side
+        start = System.nanoTime();
+        fill(after, true);
+        System.out.printf("Filled V2 table with %,d rows in %,d ms%n", ROWS, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @AfterAll
+    static void dropTables() throws SQLException {
+        for (Connection connection : List.of(before, after)) {
+            try (var statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA \"" + connection.getSchema() + "\" CASCADE");
+            }
+            connection.close();
+        }
+    }
+
+    @Test
+    void countryListing() throws SQLException {
+        compare("Country listing",
+                "SELECT swift_code, bank_name, address FROM swift_codes WHERE UPPER(countryiso2) = UPPER(?)",
+                "SELECT swift_code, bank_name, address FROM swift_codes WHERE countryiso2 = ? ORDER BY swift_code",
+                random -> COUNTRIES[random.nextInt(COUNTRIES.length)], random -> null);
+    }
+
+    @Test
+    void orphanBranchesOfPrefix() throws SQLException {
+        compare("Orphan branches of a bank prefix",
+                "SELECT swift_code FROM swift_codes WHERE swift_code LIKE ? AND headquarter_swift IS NULL AND headquarter_flag = FALSE",
+                "SELECT swift_code FROM swift_codes WHERE bank_prefix = ? AND headquarter_swift IS NULL AND headquarter_flag = FALSE",
+                random -> bankPrefixes.get(random.nextInt(bankPrefixes.size())) + "%",
+                random -> bankPrefixes.get(random.nextInt(bankPrefixes.size())));
+    }
+
+    // H2 indexes foreign keys on its own, so the plans only differ on PostgreSQL, which does not
+    @Test
+    void branchesOfHeadquarter() throws SQLException {
+        compare("Branches of a headquarter",
+                "SELECT swift_code FROM swift_codes WHERE headquarter_swift = ?",
+                "SELECT swift_code FROM swift_codes WHERE headquarter_swift = ?",
+                random -> headquarters.get(random.nextInt(headquarters.size())), random -> null);
+    }
+
+    private interface Parameter {
+        String next(Random random);
+    }
+
+    // Print both plans and the average time of the same workload on the old and the new schema
+    private static void compare(String name, String beforeSql, String afterSql, Parameter beforeParameter,
+                                Parameter afterParameter) throws SQLException {
+        Parameter afterParameters = afterParameter.next(new Random(0)) != null ? afterParameter : beforeParameter;
+        System.out.println();
+        System.out.println("=== " + name + " (" + String.format("%,d", ROWS) + " rows) ===");
+        double beforeMillis = run("before", before, beforeSql, beforeParameter);
+        double afterMillis = run("after", after, afterSql, afterParameters);
+        System.out.printf("speed-up: %.1fx%n", beforeMillis / Math.max(afterMillis, 0.001));
+    }
+
+    private static double run(String label, Connection connection, String sql, Parameter parameter) throws SQLException {
+        System.out.println("[" + label + "] " + sql);
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            explain.setString(1, parameter.next(new Random(0)));
+            try (ResultSet plan = explain.executeQuery()) {
+                while (plan.next()) {
+                    System.out.println("    " + plan.getString(1).replace("\n", "\n    "));
+                }
+            }
+        }
+
+        Random random = new Random(42);
+        long rows = 0;
+        long start = 0;
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            // The first tenth of the iterations warms up caches and the JIT and is not timed
+            int warmUp = Math.max(1, ITERATIONS / 10);
+            for (int i = 0; i < warmUp + ITERATIONS; i++) {
+                if (i == warmUp) {
+                    start = System.nanoTime();
+                    rows = 0;
+                }
+                query.setString(1, parameter.next(random));
+                try (ResultSet resultSet = query.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows++;
+                    }
+                }
+            }
+        }
+        double averageMillis = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+        System.out.printf("[%s] %.3f ms/query, %,d rows/query%n", label, averageMillis, rows / ITERATIONS);
+        return averageMillis;
+    }
+
+    private static void migrate(String schema, String target) {
+        Flyway.configure()
+                .dataSource(URL, USER, PASSWORD)
+                .schemas(schema)
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private static Connection connect(String schema) throws SQLException {
+        Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        connection.setSchema(schema);
+        return connection;
+    }
+
+    private static void fill(Connection connection, boolean withBankPrefix) throws SQLException {
+        connection.setAutoCommit(false);
+        bankPrefixes.clear();
+        headquarters.clear();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO swift_codes "
+                + "(swift_code, bank_name, address, countryiso2, country_name, headquarter_flag, headquarter_swift"
+                + (withBankPrefix ? ", bank_prefix) VALUES (?, ?, ?, ?, ?, ?, ?, ?)" : ") VALUES (?, ?, ?, ?, ?, ?, ?)"))) {
+            for (int row = 0; row < ROWS; row++) {
+                int bank = row / CODES_PER_BANK;
+                int branch = row % CODES_PER_BANK;
+                String country = COUNTRIES[Math.floorMod(bank * 31, COUNTRIES.length)];
+                String prefix = bankCode(bank) + country + location(bank);
+                boolean hasHeadquarter = bank % 10 != 0;
+                if (branch == 0) {
+                    bankPrefixes.add(prefix);
+                    if (!hasHeadquarter) {
+                        continue;
+                    }
+                    headquarters.add(prefix + "XXX");
+                }
+                String code = branch == 0 ? prefix + "XXX" : prefix + String.format("%03d", branch);
+                insert.setString(1, code);
+                insert.setString(2, "Bank " + bank);
+                insert.setString(3, "Street " + branch);
+                insert.setString(4, country);
+                insert.setString(5, "COUNTRY " + country);
+                insert.setBoolean(6, branch == 0);
+                insert.setString(7, branch != 0 && hasHeadquarter ? prefix + "XXX" : null);
+                if (withBankPrefix) {
+                    insert.setString(8, prefix);
+                }
+                insert.addBatch();
+                if (row % 5_000 == 4_999) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+    }
+
+    // Four letters, unique per bank number
+    private static String bankCode(int bank) {
+        char[] code = new char[4];
+        for (int i = 3; i >= 0; i--) {
+            code[i] = (char) ('A' + bank % 26);
+            bank /= 26;
+        }
+        return new String(code);
+    }
+
+    private static String location(int bank) {
+        return "" + (char) ('A' + bank % 26) + (char) ('0' + bank % 10);
+    }
+}
@@ -1,24 +1,48 @@
 package com.example.InternSwiftCodesProject.controllers;
 
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @ActiveProfiles("test")
 @AutoConfigureMockMvc
 class CsvUploadControllerTest {
+    private static Path localDirectory;
 
     @Autowired
     private MockMvc mockMvc;
 
+    @DynamicPropertySource
+    static void localImportDirectory(DynamicPropertyRegistry registry) throws IOException {
+        localDirectory = Files.createTempDirectory("swift-local-import");
+        registry.add("swift.import.local.directory", localDirectory::toString);
+    }
+
     @Test
     void shouldUploadCsvSuccessfully() throws Exception {
         String content = """
@@ -35,8 +59,53 @@ class CsvUploadControllerTest {
 
         mockMvc.perform(multipart("/upload/swift")
                         .file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.jobId").isNotEmpty());
+    }
+
+    @Test
+    void shouldReportJobProgressAndRejects() throws Exception {
+        String content = """
+                SWIFT CODE,NAME,ADDRESS,COUNTRY ISO2 CODE,COUNTRY NAME
+                JOBSPLPWXXX,Bank A,Warsaw,PL,POLAND
+                JOBSPLPW001,Bank A,Krakow,PL,POLAND
+                JOBS@,Bank B,Gdansk,PL,POLAND
+                """;
+        MockMultipartFile file = new MockMultipartFile("file", "jobs.csv", "text/csv", content.getBytes());
+
+        String body = mockMvc.perform(multipart("/upload/swift").file(file))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = JsonPath.read(body, "$.jobId");
+
+        // Poll until the background import is done
+        String status = "QUEUED";
+        for (int i = 0; i < 100 && !status.equals("COMPLETED") && !status.equals("FAILED"); i++) {
+            Thread.sleep(50);
+            status = JsonPath.read(mockMvc.perform(get("/upload/jobs/" + jobId))
+                    .andReturn().getResponse().getContentAsString(), "$.status");
+        }
+
+        mockMvc.perform(get("/upload/jobs/" + jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.added").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.linkedBranches").value(1))
+                .andExpect(jsonPath("$.etaSeconds").value(0));
+
+        mockMvc.perform(get("/upload/jobs/" + jobId + "/rejects"))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Successfully uploaded"));
+                .andExpect(header().string("Content-Disposition", containsString("attachment")))
+                .andExpect(content().string(containsString("JOBS@")));
+    }
+
+    @Test
+    void shouldReturnNotFound_whenJobDoesNotExist() throws Exception {
+        mockMvc.perform(get("/upload/jobs/no-such-job"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Upload job not found"));
     }
 
     @Test
@@ -61,7 +130,146 @@ class CsvUploadControllerTest {
 
         mockMvc.perform(multipart("/upload/swift").file(txtFile))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string("Only CSV files are accepted."));
+                .andExpect(content().string("Only .csv, .csv.gz and .zip files are accepted."));
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenImportModeIsUnknown() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "swiftcodes.csv", "text/csv", "SWIFT CODE\n".getBytes());
+
+        mockMvc.perform(multipart("/upload/swift").file(file).param("mode", "replace"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown import mode 'replace'. Use 'append', 'delta' or 'merge'."));
+    }
+
+    @Test
+    void shouldImportGzipUpload() throws Exception {
+        byte[] csv = """
+                SWIFT CODE,NAME,ADDRESS,COUNTRY ISO2 CODE,COUNTRY NAME
+                GZIPPLPWXXX,Bank G,Warsaw,PL,POLAND
+                GZIPPLPW001,Bank G,Krakow,PL,POLAND
+                """.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(csv);
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "codes.csv.gz", "application/gzip", gzip.toByteArray());
+
+        String jobId = awaitJob(mockMvc.perform(multipart("/upload/swift").file(file)));
+
+        mockMvc.perform(get("/upload/jobs/" + jobId))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.format").value("gzip"))
+                .andExpect(jsonPath("$.added").value(2))
+                .andExpect(jsonPath("$.uncompressedBytes").value(csv.length))
+                .andExpect(jsonPath("$.entries[0].name").value("codes.csv"));
+    }
+
+    @Test
+    void shouldImportEveryCsvOfZipUploadAsOneFile() throws Exception {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            out.putNextEntry(new ZipEntry("release/"));
+            out.putNextEntry(new ZipEntry("release/headquarters.csv"));
+            out.write("SWIFT CODE,NAME,ADDRESS,COUNTRY ISO2 CODE,COUNTRY NAME\nZIPSPLPWXXX,Bank Z,Warsaw,PL,POLAND\n".getBytes());
+            out.putNextEntry(new ZipEntry("release/README.txt"));
+            out.write("Not a CSV".getBytes());
+            // Columns in another order; each entry has its own header
+            out.putNextEntry(new ZipEntry("release/branches.csv"));
+            out.write("COUNTRY ISO2 CODE,SWIFT CODE,NAME,ADDRESS,COUNTRY NAME\nPL,ZIPSPLPW001,Bank Z,Krakow,POLAND\n".getBytes());
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "release.zip", "application/zip", zip.toByteArray());
+
+        String jobId = awaitJob(mockMvc.perform(multipart("/upload/swift").file(file)));
+
+        // One pipeline run, so the branch in the second file is linked to the headquarter in the first
+        mockMvc.perform(get("/upload/jobs/" + jobId))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.added").value(2))
+                .andExpect(jsonPath("$.linkedBranches").value(1))
+                .andExpect(jsonPath("$.entries.length()").value(2))
+                .andExpect(jsonPath("$.entries[1].name").value("release/branches.csv"));
+    }
+
+    @Test
+    void shouldStopDecompressionBomb() throws Exception {
+        // 64 MiB of blank lines compress about a thousand times
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+            out.write("SWIFT CODE,NAME,ADDRESS,COUNTRY ISO2 CODE,COUNTRY NAME\n".getBytes());
+            byte[] blank = new byte[1024 * 1024];
+            Arrays.fill(blank, (byte) '\n');
+            for (int i = 0; i < 64; i++) {
+                out.write(blank);
+            }
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "bomb.csv.gz", "application/gzip", gzip.toByteArray());
+
+        String jobId = awaitJob(mockMvc.perform(multipart("/upload/swift").file(file)));
+
+        mockMvc.perform(get("/upload/jobs/" + jobId))
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.error").value(containsString("max-ratio")));
+    }
+
+    @Test
+    void shouldImportLocalFileAsJob() throws Exception {
+        Files.writeString(localDirectory.resolve("directory.csv"), """
+                COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+                PL,LOCLPLPWXXX,BIC11,Bank L,"Marszalkowska 1, Warsaw",WARSAW,POLAND,Europe/Warsaw
+                PL,LOCLPLPW001,BIC11,Bank L,"Dluga 2, Krakow",KRAKOW,POLAND,Europe/Warsaw
+                """);
+
+        String body = mockMvc.perform(post("/upload/local").param("path", "directory.csv"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        String jobId = JsonPath.read(body, "$.jobId");
+
+        String status = "QUEUED";
+        for (int i = 0; i < 100 && !status.equals("COMPLETED") && !status.equals("FAILED"); i++) {
+            Thread.sleep(50);
+            status = JsonPath.read(mockMvc.perform(get("/upload/jobs/" + jobId))
+                    .andReturn().getResponse().getContentAsString(), "$.status");
+        }
+
+        mockMvc.perform(get("/upload/jobs/" + jobId))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.added").value(2))
+                .andExpect(jsonPath("$.linkedBranches").value(1));
+    }
+
+    @Test
+    void shouldNotImportLocalFilesOutsideTheDirectory() throws Exception {
+        Path outside = Files.createTempFile("swift-outside", ".csv");
+        Files.writeString(outside, "SWIFT CODE,NAME,ADDRESS,COUNTRY ISO2 CODE,COUNTRY NAME\n");
+
+        for (String path : new String[]{"../" + outside.getFileName(), outside.toString(), "missing.csv"}) {
+            mockMvc.perform(post("/upload/local").param("path", path))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    // Id of the queued job, once it has finished
+    private String awaitJob(ResultActions upload) throws Exception {
+        String body = upload.andExpect(status().isAccepted()).andReturn().getResponse().getContentAsString();
+        String jobId = JsonPath.read(body, "$.jobId");
+        String status = "QUEUED";
+        for (int i = 0; i < 200 && !status.equals("COMPLETED") && !status.equals("FAILED"); i++) {
+            Thread.sleep(50);
+            status = JsonPath.read(mockMvc.perform(get("/upload/jobs/" + jobId))
+                    .andReturn().getResponse().getContentAsString(), "$.status");
+        }
+        return jobId;
+    }
+
+    @Test
+    void shouldReturnPipelineStats() throws Exception {
+        mockMvc.perform(get("/upload/pipeline"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.workers").isNumber())
+                .andExpect(jsonPath("$.queueCapacity").isNumber())
+                .andExpect(jsonPath("$.active").isArray());
     }
 
 
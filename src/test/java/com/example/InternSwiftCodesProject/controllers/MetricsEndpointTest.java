@@ -0,0 +1,57 @@
+package com.example.InternSwiftCodesProject.controllers;
+
+import com.example.InternSwiftCodesProject.SWIFTCodeRepo;
+import com.example.InternSwiftCodesProject.SwiftCode;
+import com.example.InternSwiftCodesProject.services.SwiftCodePrefixIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Metrics export is switched off in tests by default; this one turns it on to check the scrape output
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SWIFTCodeRepo swiftCodeRepo;
+
+    @Autowired
+    private SwiftCodePrefixIndex prefixIndex;
+
+    @BeforeEach
+    void setup() {
+        swiftCodeRepo.deleteAll();
+        swiftCodeRepo.save(new SwiftCode("METRPLPWXXX", "Metrics Bank", "Street 1", "PL", "POLAND", true));
+        prefixIndex.reload(); // rows above bypassed the service
+    }
+
+    @Test
+    void shouldExposeSwiftMetrics_onPrometheusEndpoint() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/METRPLPWXXX")).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/swift-codes/country/PL")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("swift_codes_size_codes 1.0"));
+        assertTrue(scrape.contains("swift_headquarter_branches_count 1"));
+        assertTrue(scrape.contains("swift_country_response_codes_count 1"));
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket"));
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_count"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.InternSwiftCodesProject.controllers;
+
+import com.example.InternSwiftCodesProject.SWIFTCodeRepo;
+import com.example.InternSwiftCodesProject.SwiftCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The WebFlux + R2DBC read API, on its own H2 database that JDBC (Flyway, test data) and R2DBC share
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactivedb;DB_CLOSE_DELAY=-1",
+        "swift.reactive.r2dbc.url=r2dbc:h2:mem:///reactivedb?options=DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles({"test", "reactive"})
+@AutoConfigureWebTestClient
+class ReactiveSWIFTCodeControllerTest {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private SWIFTCodeRepo swiftCodeRepo;
+
+    @BeforeEach
+    void setup() {
+        swiftCodeRepo.deleteAll();
+        SwiftCode headquarter = swiftCodeRepo.save(new SwiftCode("REACPLPWXXX", "Reactive Bank", "HQ Street", "PL", "POLAND", true));
+        for (String code : List.of("REACPLPW002", "REACPLPW001")) {
+            SwiftCode branch = new SwiftCode(code, "Reactive Bank", "Branch Street", "PL", "POLAND", false);
+            branch.setHeadquarter(headquarter);
+            swiftCodeRepo.save(branch);
+        }
+    }
+
+    @Nested
+    class GetSwiftCode {
+        @Test
+        void shouldReturnHeadquarterWithBranchesInCodeOrder() {
+            webTestClient.get().uri("/v1/swift-codes/reacplpwxxx").exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.swiftCode").isEqualTo("REACPLPWXXX")
+                    .jsonPath("$.isHeadquarter").isEqualTo(true)
+                    .jsonPath("$.countryName").isEqualTo("POLAND")
+                    .jsonPath("$.branches.length()").isEqualTo(2)
+                    .jsonPath("$.branches[0].swiftCode").isEqualTo("REACPLPW001");
+        }
+
+        @Test
+        void shouldReturnBranchWithoutBranchList() {
+            webTestClient.get().uri("/v1/swift-codes/REACPLPW001").exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.swiftCode").isEqualTo("REACPLPW001")
+                    .jsonPath("$.isHeadquarter").isEqualTo(false)
+                    .jsonPath("$.branches").doesNotExist();
+        }
+
+        @Test
+        void shouldReturnNotFound_whenCodeDoesNotExist() {
+            webTestClient.get().uri("/v1/swift-codes/FAKECODE1").exchange()
+                    .expectStatus().isNotFound()
+                    .expectBody()
+                    .jsonPath("$.error").isEqualTo("SWIFT code not found")
+                    .jsonPath("$.providedSwiftCode").isEqualTo("FAKECODE1");
+        }
+
+        @Test
+        void shouldReturnBadRequest_whenCodeTooShort() {
+            webTestClient.get().uri("/v1/swift-codes/PL").exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody()
+                    .jsonPath("$.error").isEqualTo("Invalid SWIFT code format");
+        }
+    }
+
+    @Nested
+    class GetSwiftCodesByCountry {
+        @Test
+        void shouldStreamTheSameBodyAsTheServletEndpoint() {
+            webTestClient.get().uri("/v1/swift-codes/country/pl").exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.countryISO2").isEqualTo("PL")
+                    .jsonPath("$.countryName").isEqualTo("POLAND")
+                    .jsonPath("$.swiftCodes.length()").isEqualTo(3)
+                    .jsonPath("$.swiftCodes[0].swiftCode").isEqualTo("REACPLPW001")
+                    .jsonPath("$.swiftCodes[0].countryName").doesNotExist();
+        }
+
+        @Test
+        void shouldWriteLargeCountriesInSeveralChunks() {
+            List<SwiftCode> codes = new ArrayList<>();
+            for (int i = 0; i < 600; i++) {
+                codes.add(new SwiftCode(String.format("BIGG%04dXXX", i), "Big Bank " + i, "Street " + i, "DE", "GERMANY", true));
+            }
+            swiftCodeRepo.saveAll(codes);
+
+            webTestClient.get().uri("/v1/swift-codes/country/DE").exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.swiftCodes.length()").isEqualTo(600)
+                    .jsonPath("$.swiftCodes[256].swiftCode").isEqualTo("BIGG0256XXX")
+                    .jsonPath("$.swiftCodes[599].swiftCode").isEqualTo("BIGG0599XXX");
+        }
+
+        @Test
+        void shouldReturnNotFound_whenNoSwiftCodesForCountry() {
+            webTestClient.get().uri("/v1/swift-codes/country/AL").exchange()
+                    .expectStatus().isNotFound();
+        }
+
+        @Test
+        void shouldReturnBadRequest_whenInvalidCountryCode() {
+            webTestClient.get().uri("/v1/swift-codes/country/XYZ").exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody()
+                    .jsonPath("$.error").isEqualTo("Invalid country code")
+                    .jsonPath("$.message").isEqualTo("Country ISO2 code 'XYZ' is not valid.");
+        }
+    }
+
+    @Test
+    void shouldNotServeWriteEndpoints() {
+        webTestClient.delete().uri("/v1/swift-codes/REACPLPW001").exchange()
+                .expectStatus().is4xxClientError();
+        webTestClient.get().uri("/upload/pipeline").exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -2,6 +2,8 @@ package com.example.InternSwiftCodesProject.controllers;
 
 import com.example.InternSwiftCodesProject.SWIFTCodeRepo;
 import com.example.InternSwiftCodesProject.SwiftCode;
+import com.example.InternSwiftCodesProject.services.CountryListingCache;
+import com.example.InternSwiftCodesProject.services.SwiftCodePrefixIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -11,7 +13,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -25,10 +29,18 @@ class SWIFTCodeControllerTest {
     @Autowired
     private SWIFTCodeRepo swiftCodeRepo;
 
+    @Autowired
+    private SwiftCodePrefixIndex prefixIndex;
+
+    @Autowired
+    private CountryListingCache countryListingCache;
+
     @BeforeEach
     void setup() {
         swiftCodeRepo.deleteAll(); // wyczyść bazę
         swiftCodeRepo.save(new SwiftCode("BANKPLPW", "Bank Polska", "Street 1", "PL", "POLAND", false));
+        prefixIndex.reload(); // rows above bypassed the service
+        countryListingCache.invalidateAll();
     }
 
     @Nested
@@ -54,7 +66,187 @@ class SWIFTCodeControllerTest {
                     .andExpect(status().isBadRequest())
                     .andExpect(jsonPath("$.error").value("Invalid SWIFT code format"));
         }
+
+        @Test
+        void shouldRefreshCachedHeadquarter_whenBranchIsAddedOrDeleted() throws Exception {
+            String hqJson = """
+                    {"swiftCode": "CACHPLPWXXX", "countryISO2": "PL", "countryName": "POLAND",
+                     "address": "HQ Street", "bankName": "Cache Bank"}
+                    """;
+            String branchJson = """
+                    {"swiftCode": "CACHPLPW001", "countryISO2": "PL", "countryName": "POLAND",
+                     "address": "Branch Street", "bankName": "Cache Bank"}
+                    """;
+            mockMvc.perform(post("/v1/swift-codes").contentType(MediaType.APPLICATION_JSON).content(hqJson))
+                    .andExpect(status().isOk());
+
+            // Cached with no branches
+            mockMvc.perform(get("/v1/swift-codes/CACHPLPWXXX"))
+                    .andExpect(jsonPath("$.branches.length()").value(0));
+
+            mockMvc.perform(post("/v1/swift-codes").contentType(MediaType.APPLICATION_JSON).content(branchJson))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/v1/swift-codes/CACHPLPWXXX"))
+                    .andExpect(jsonPath("$.branches.length()").value(1));
+
+            mockMvc.perform(delete("/v1/swift-codes/CACHPLPW001"))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/v1/swift-codes/CACHPLPWXXX"))
+                    .andExpect(jsonPath("$.branches.length()").value(0));
+        }
+
+        @Test
+        void shouldReturnCacheStats() throws Exception {
+            mockMvc.perform(get("/v1/swift-codes/cache/stats"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.hits").isNumber())
+                    .andExpect(jsonPath("$.misses").isNumber())
+                    .andExpect(jsonPath("$.evictions").isNumber());
+        }
+
+        @Test
+        void shouldReturnDirectoryFootprint() throws Exception {
+            mockMvc.perform(get("/v1/swift-codes/directory/footprint"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.rows").isNumber())
+                    .andExpect(jsonPath("$.compactBytes.total").isNumber())
+                    .andExpect(jsonPath("$.entityGraphBytes").isNumber());
+        }
+    }
+    @Nested
+    class GetSwiftCodesByPrefix {
+        @Test
+        void shouldReturnCodesOfBankWithinLimit() throws Exception {
+            swiftCodeRepo.save(new SwiftCode("BANKPLPWXXX", "Bank Polska", "Street 1", "PL", "POLAND", true));
+            swiftCodeRepo.save(new SwiftCode("BANKDEFF", "Bank Deutschland", "Strasse 1", "DE", "GERMANY", false));
+            swiftCodeRepo.save(new SwiftCode("OTHRPLPW", "Other Bank", "Street 2", "PL", "POLAND", false));
+            prefixIndex.reload();
+
+            mockMvc.perform(get("/v1/swift-codes/prefix/bank").param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.prefix").value("BANK"))
+                    .andExpect(jsonPath("$.total").value(3))
+                    .andExpect(jsonPath("$.truncated").value(true))
+                    .andExpect(jsonPath("$.swiftCodes.length()").value(2))
+                    .andExpect(jsonPath("$.swiftCodes[0].swiftCode").value("BANKDEFF"))
+                    .andExpect(jsonPath("$.swiftCodes[1].swiftCode").value("BANKPLPW"));
+
+            mockMvc.perform(get("/v1/swift-codes/prefix/BANKPL"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.total").value(2))
+                    .andExpect(jsonPath("$.truncated").value(false));
+        }
+
+        @Test
+        void shouldReturnBadRequestForShortPrefixOrBadLimit() throws Exception {
+            mockMvc.perform(get("/v1/swift-codes/prefix/BAN"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Invalid SWIFT code prefix"));
+            mockMvc.perform(get("/v1/swift-codes/prefix/BANK").param("limit", "0"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Invalid limit"));
+        }
     }
+
+    @Nested
+    class LookupSwiftCodes {
+        @Test
+        void shouldResolveManyCodesInOneRequest() throws Exception {
+            SwiftCode hq = swiftCodeRepo.save(new SwiftCode("LOOKPLPWXXX", "Lookup Bank", "HQ Street", "PL", "POLAND", true));
+            SwiftCode branch = new SwiftCode("LOOKPLPW001", "Lookup Bank", "Branch Street", "PL", "POLAND", false);
+            branch.setHeadquarter(hq);
+            swiftCodeRepo.save(branch);
+
+            mockMvc.perform(post("/v1/swift-codes/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[\"lookplpwxxx\", \"LOOKPLPW001\", \"LOOKPLPW999\", \"BAD!\", \" LOOKPLPW001 \", \"LOOKPLPW01\"]"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.requested").value(6))
+                    .andExpect(jsonPath("$.found").value(2))
+                    .andExpect(jsonPath("$.results.LOOKPLPWXXX.isHeadquarter").value(true))
+                    .andExpect(jsonPath("$.results.LOOKPLPWXXX.branches.length()").value(1))
+                    .andExpect(jsonPath("$.results.LOOKPLPWXXX.branches[0].swiftCode").value("LOOKPLPW001"))
+                    .andExpect(jsonPath("$.results.LOOKPLPW001.bankName").value("Lookup Bank"))
+                    .andExpect(jsonPath("$.results.LOOKPLPW999").isEmpty())
+                    .andExpect(jsonPath("$.notFound[0]").value("LOOKPLPW999"))
+                    .andExpect(jsonPath("$.invalid[0]").value("BAD!"))
+                    .andExpect(jsonPath("$.invalid[1]").value("LOOKPLPW01"));
+        }
+
+        @Test
+        void shouldReturnBadRequestForEmptyOrOversizedLookup() throws Exception {
+            mockMvc.perform(post("/v1/swift-codes/lookup").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Invalid lookup request"));
+
+            String tooMany = "[" + String.join(",", java.util.Collections.nCopies(1001, "\"LOOKPLPWXXX\"")) + "]";
+            mockMvc.perform(post("/v1/swift-codes/lookup").contentType(MediaType.APPLICATION_JSON).content(tooMany))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    class GetSwiftCodesByCountryPageAndStream {
+        @BeforeEach
+        void addCodes() {
+            swiftCodeRepo.save(new SwiftCode("BANKPLPWXXX", "Bank Polska", "Street 1", "PL", "POLAND", true));
+            swiftCodeRepo.save(new SwiftCode("OTHRPLPW", "Other Bank", "Street 2", "PL", "POLAND", false));
+        }
+
+        @Test
+        void shouldWalkPagesWithCursor() throws Exception {
+            mockMvc.perform(get("/v1/swift-codes/country/pl/page").param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.countryName").value("POLAND"))
+                    .andExpect(jsonPath("$.swiftCodes.length()").value(2))
+                    .andExpect(jsonPath("$.swiftCodes[0].swiftCode").value("BANKPLPW"))
+                    .andExpect(jsonPath("$.nextCursor").value("BANKPLPWXXX"));
+
+            mockMvc.perform(get("/v1/swift-codes/country/PL/page").param("limit", "2").param("after", "BANKPLPWXXX"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.swiftCodes.length()").value(1))
+                    .andExpect(jsonPath("$.swiftCodes[0].swiftCode").value("OTHRPLPW"))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        }
+
+        @Test
+        void shouldReturnNotFoundOrBadRequestForPage() throws Exception {
+            mockMvc.perform(get("/v1/swift-codes/country/DE/page"))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(get("/v1/swift-codes/country/XX/page"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Invalid country code"));
+            mockMvc.perform(get("/v1/swift-codes/country/PL/page").param("limit", "1001"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Invalid limit"));
+        }
+
+        @Test
+        void shouldStreamCountryAsNdjson() throws Exception {
+            MvcResult result = mockMvc.perform(get("/v1/swift-codes/country/PL/stream"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\n");
+            assertEquals(3, lines.length);
+            assertTrue(lines[0].contains("\"swiftCode\":\"BANKPLPW\""));
+            assertTrue(lines[2].contains("\"swiftCode\":\"OTHRPLPW\""));
+        }
+
+        @Test
+        void shouldRejectStreamOfInvalidCountry() throws Exception {
+            MvcResult result = mockMvc.perform(get("/v1/swift-codes/country/XX/stream")).andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Invalid country code"));
+        }
+    }
+
     @Nested
     class GetAllSwiftCodesWithISO2{
 
@@ -82,6 +274,63 @@ class SWIFTCodeControllerTest {
                     .andExpect(status().isNotFound());
         }
 
+        @Test
+        void shouldServeGzip_toClientsThatAcceptIt_andRebuildAfterAChange() throws Exception {
+            for (int i = 1; i <= 8; i++) {
+                addCzechBranch(i);
+            }
+
+            MvcResult gzipped = mockMvc.perform(get("/v1/swift-codes/country/CZ").header("Accept-Encoding", "gzip, deflate"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andExpect(header().string("Vary", "Accept-Encoding"))
+                    .andReturn();
+            try (java.util.zip.GZIPInputStream in = new java.util.zip.GZIPInputStream(
+                    new java.io.ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+                String json = new String(in.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8);
+                assertTrue(json.startsWith("{\"countryISO2\":\"CZ\",\"countryName\":\"CZECH REPUBLIC\",\"swiftCodes\":["));
+            }
+
+            mockMvc.perform(get("/v1/swift-codes/country/CZ").header("Accept-Encoding", "gzip;q=0"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(jsonPath("$.swiftCodes.length()").value(8));
+
+            addCzechBranch(9);
+            mockMvc.perform(get("/v1/swift-codes/country/CZ"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.swiftCodes.length()").value(9));
+
+            mockMvc.perform(delete("/v1/swift-codes/CZBKCZPP001")).andExpect(status().isOk());
+            mockMvc.perform(get("/v1/swift-codes/country/CZ"))
+                    .andExpect(jsonPath("$.swiftCodes.length()").value(8))
+                    .andExpect(jsonPath("$.swiftCodes[0].swiftCode").value("CZBKCZPP002"));
+        }
+
+        @Test
+        void acceptsGzip_shouldHonourQValuesAndPreferAnExplicitGzipEntry() {
+            assertTrue(SWIFTCodeController.acceptsGzip("gzip"));
+            assertTrue(SWIFTCodeController.acceptsGzip("deflate, GZIP;q=0.5"));
+            assertTrue(SWIFTCodeController.acceptsGzip("*"));
+            assertTrue(SWIFTCodeController.acceptsGzip("*;q=0, gzip"));
+            assertTrue(SWIFTCodeController.acceptsGzip("gzip;q=0.01"));
+            assertFalse(SWIFTCodeController.acceptsGzip(null));
+            assertFalse(SWIFTCodeController.acceptsGzip("deflate"));
+            assertFalse(SWIFTCodeController.acceptsGzip("gzip;q=0, *"));
+            assertFalse(SWIFTCodeController.acceptsGzip("gzip;q=0.000"));
+            assertFalse(SWIFTCodeController.acceptsGzip("gzip; Q = 0."));
+            assertFalse(SWIFTCodeController.acceptsGzip("*;q=0"));
+        }
+
+        private void addCzechBranch(int i) throws Exception {
+            String json = String.format("""
+                    {"swiftCode": "CZBKCZPP%03d", "countryISO2": "CZ", "countryName": "CZECH REPUBLIC",
+                     "address": "Vaclavske namesti %d, Praha 1, 110 00", "bankName": "Ceska Banka a.s."}
+                    """, i, i);
+            mockMvc.perform(post("/v1/swift-codes").contentType(MediaType.APPLICATION_JSON).content(json))
+                    .andExpect(status().isOk());
+        }
+
         @Test
         void shouldReturnSwiftCodes_whenCountryCodeIsLowercase() throws Exception {
             mockMvc.perform(get("/v1/swift-codes/country/pl"))
@@ -89,6 +338,116 @@ class SWIFTCodeControllerTest {
                     .andExpect(jsonPath("$.countryISO2").value("PL"));
         }
 }
+    @Nested
+    class ConditionalRequests {
+        private final String hqJson = """
+                {"swiftCode": "ETAGPLPWXXX", "countryISO2": "PL", "countryName": "POLAND",
+                 "address": "HQ Street", "bankName": "ETag Bank"}
+                """;
+        private final String branchJson = """
+                {"swiftCode": "ETAGPLPW001", "countryISO2": "PL", "countryName": "POLAND",
+                 "address": "Branch Street", "bankName": "ETag Bank"}
+                """;
+
+        @Test
+        void shouldSendValidatorsAndCacheControl_withCodeDetails() throws Exception {
+            mockMvc.perform(get("/v1/swift-codes/BANKPLPW"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", org.hamcrest.Matchers.startsWith("\"")))
+                    .andExpect(header().exists("Last-Modified"))
+                    .andExpect(header().string("Cache-Control", "max-age=60, public"))
+                    .andExpect(result -> assertEquals(1, result.getResponse().getHeaders("ETag").size()));
+        }
+
+        @Test
+        void shouldReturnNotModified_untilABranchOfTheHeadquarterChanges() throws Exception {
+            mockMvc.perform(post("/v1/swift-codes").contentType(MediaType.APPLICATION_JSON).content(hqJson))
+                    .andExpect(status().isOk());
+            String eTag = mockMvc.perform(get("/v1/swift-codes/ETAGPLPWXXX"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/v1/swift-codes/ETAGPLPWXXX").header("If-None-Match", eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", eTag))
+                    .andExpect(header().string("Cache-Control", "max-age=60, public"))
+                    .andExpect(content().string(""));
+
+            mockMvc.perform(post("/v1/swift-codes").contentType(MediaType.APPLICATION_JSON).content(branchJson))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/v1/swift-codes/ETAGPLPWXXX").header("If-None-Match", eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", org.hamcrest.Matchers.not(eTag)))
+                    .andExpect(jsonPath("$.branches.length()").value(1));
+        }
+
+        @Test
+        void shouldNotSendValidators_forUnknownCodesAndCountries() throws Exception {
+            for (String path : new String[]{"/v1/swift-codes/FAKEPLPWXXX", "/v1/swift-codes/country/AL",
+                    "/v1/swift-codes/country/AL/page"}) {
+                mockMvc.perform(get(path))
+                        .andExpect(status().isNotFound())
+                        .andExpect(header().doesNotExist("ETag"))
+                        .andExpect(header().doesNotExist("Last-Modified"));
+                mockMvc.perform(get(path).header("If-None-Match", "*"))
+                        .andExpect(status().isNotFound());
+            }
+        }
+
+        @Test
+        void shouldReturnNotModified_forUnchangedCountryUntilACodeIsAdded() throws Exception {
+            MvcResult first = mockMvc.perform(get("/v1/swift-codes/country/PL"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            String eTag = first.getResponse().getHeader("ETag");
+            String lastModified = first.getResponse().getHeader("Last-Modified");
+
+            mockMvc.perform(get("/v1/swift-codes/country/PL").header("If-None-Match", eTag))
+                    .andExpect(status().isNotModified());
+            mockMvc.perform(get("/v1/swift-codes/country/PL/page").header("If-None-Match", eTag))
+                    .andExpect(status().isNotModified());
+            mockMvc.perform(get("/v1/swift-codes/country/PL").header("If-Modified-Since", lastModified))
+                    .andExpect(status().isNotModified());
+
+            mockMvc.perform(post("/v1/swift-codes").contentType(MediaType.APPLICATION_JSON).content(hqJson))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/v1/swift-codes/country/PL").header("If-None-Match", eTag))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/v1/swift-codes/country/PL").header("If-Modified-Since", lastModified))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        void shouldUseSeparateETags_forGzipAndIdentityListings() throws Exception {
+            String identity = mockMvc.perform(get("/v1/swift-codes/country/PL"))
+                    .andReturn().getResponse().getHeader("ETag");
+            String gzip = mockMvc.perform(get("/v1/swift-codes/country/PL").header("Accept-Encoding", "gzip"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            assertNotEquals(identity, gzip);
+            assertTrue(gzip.endsWith("-gzip\""));
+            mockMvc.perform(get("/v1/swift-codes/country/PL").header("Accept-Encoding", "gzip")
+                            .header("If-None-Match", identity))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/v1/swift-codes/country/PL").header("If-None-Match", gzip))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/v1/swift-codes/country/PL").header("Accept-Encoding", "gzip")
+                            .header("If-None-Match", gzip))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", gzip));
+        }
+
+        @Test
+        void shouldIgnoreValidators_ofOtherCountries() throws Exception {
+            String eTag = mockMvc.perform(get("/v1/swift-codes/country/PL"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/v1/swift-codes/country/DE").header("If-None-Match", eTag))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
     @Nested
     class AddSwiftCode {
 
@@ -111,6 +470,31 @@ class SWIFTCodeControllerTest {
                     .andExpect(jsonPath("$.message").value("Headquarter added. Linked orphan branches if found."));
         }
 
+        @Test
+        void shouldLinkExistingOrphanBranches_whenHeadquarterIsAdded() throws Exception {
+            // BANKPLPW from setup plus two more orphans of the same bank; another bank must stay untouched
+            swiftCodeRepo.save(new SwiftCode("BANKPLPW001", "Bank Polska", "Street 2", "PL", "POLAND", false));
+            swiftCodeRepo.save(new SwiftCode("BANKPLPW002", "Bank Polska", "Street 3", "PL", "POLAND", false));
+            swiftCodeRepo.save(new SwiftCode("OTHRPLPW001", "Other Bank", "Street 4", "PL", "POLAND", false));
+
+            String json = """
+                    {"swiftCode": "BANKPLPWXXX", "countryISO2": "PL", "countryName": "POLAND",
+                     "address": "HQ Street", "bankName": "Bank Polska"}
+                    """;
+            mockMvc.perform(post("/v1/swift-codes").contentType(MediaType.APPLICATION_JSON).content(json))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get("/v1/swift-codes/BANKPLPWXXX"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.branches.length()").value(3));
+            assertNull(swiftCodeRepo.findById("OTHRPLPW001").orElseThrow().getHeadquarter());
+
+            mockMvc.perform(delete("/v1/swift-codes/BANKPLPWXXX"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.message").value("Headquarter deleted. 3 branch(es) are now orphaned."));
+            assertTrue(swiftCodeRepo.findByHeadquarter_SwiftCode("BANKPLPWXXX").isEmpty());
+        }
+
         @Test
         void shouldAddBranchSuccessfully() throws Exception {
             String json = """
@@ -270,7 +654,33 @@ class SWIFTCodeControllerTest {
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(json))
                     .andExpect(status().isBadRequest())
-                    .andExpect(jsonPath("$.error").value("Invalid characters in SWIFT code"));
+                    .andExpect(jsonPath("$.error").value("Invalid characters in SWIFT code"))
+                    .andExpect(jsonPath("$.message").value("SWIFT code must contain only letters A-Z (a-z) and digits 0-9."));
+        }
+
+        @Test
+        void shouldReturnBadRequest_whenSwiftCodeBreaksTheBicStructure() throws Exception {
+            String json = """
+                    {"swiftCode": "BK01PLPWXXX", "countryISO2": "PL", "countryName": "POLAND",
+                     "address": "Valid Address", "bankName": "Digit Bank"}
+                    """;
+
+            mockMvc.perform(post("/v1/swift-codes").contentType(MediaType.APPLICATION_JSON).content(json))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Invalid SWIFT code structure"))
+                    .andExpect(jsonPath("$.providedSwiftCode").value("BK01PLPWXXX"));
+        }
+
+        @Test
+        void shouldReturnBadRequest_whenSwiftCodeCountryDiffersFromCountryISO2() throws Exception {
+            String json = """
+                    {"swiftCode": "BANKDEFFXXX", "countryISO2": "PL", "countryName": "POLAND",
+                     "address": "Valid Address", "bankName": "Border Bank"}
+                    """;
+
+            mockMvc.perform(post("/v1/swift-codes").contentType(MediaType.APPLICATION_JSON).content(json))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("SWIFT code country mismatch"));
         }
     }
 
@@ -280,7 +690,7 @@ class SWIFTCodeControllerTest {
         @Test
         void shouldDeleteBranchSuccessfully() throws Exception {
             // Najpierw dodajemy branch (bez HQ)
-            String swiftCode = "BRANCH123";
+            String swiftCode = "BRANPLPW123";
             String json = """
         {
             "swiftCode": "%s",
@@ -306,7 +716,7 @@ class SWIFTCodeControllerTest {
         @Test
         void shouldDeleteHeadquarterAndOrphanBranches() throws Exception {
             // Dodajemy HQ
-            String hq = "HQ000000XXX";
+            String hq = "HQBKPLPWXXX";
             String hqJson = """
         {
             "swiftCode": "%s",
@@ -323,7 +733,7 @@ class SWIFTCodeControllerTest {
                     .andExpect(status().isOk());
 
             // Dodajemy branch
-            String branch = "HQ000000001";
+            String branch = "HQBKPLPW001";
             String branchJson = """
         {
             "swiftCode": "%s",
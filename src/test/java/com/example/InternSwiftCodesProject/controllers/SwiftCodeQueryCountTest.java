@@ -0,0 +1,132 @@
+package com.example.InternSwiftCodesProject.controllers;
+
+import com.example.InternSwiftCodesProject.SWIFTCodeRepo;
+import com.example.InternSwiftCodesProject.SwiftCode;
+import com.example.InternSwiftCodesProject.services.SwiftCodePrefixIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Counts the SQL statements behind each read endpoint with Hibernate statistics: the count must not grow
+// with the number of rows returned, and no entities may be loaded. The details and country listing caches are
+// off so every request reaches the database.
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "swift.cache.details.max-size=0",
+        "swift.cache.country.max-bytes=0"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class SwiftCodeQueryCountTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SWIFTCodeRepo swiftCodeRepo;
+
+    @Autowired
+    private SwiftCodePrefixIndex prefixIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        swiftCodeRepo.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Headquarters BANAPLPWXXX, BANBPLPWXXX and BANCPLPWXXX with 1, 5 and 25 branches, all in Poland
+    private void addBanks() {
+        int[] branchCounts = {1, 5, 25};
+        for (int bank = 0; bank < branchCounts.length; bank++) {
+            String prefix = "BAN" + (char) ('A' + bank) + "PLPW";
+            SwiftCode headquarter = swiftCodeRepo.save(new SwiftCode(prefix + "XXX", "Bank " + bank, "HQ Street", "PL", "POLAND", true));
+            for (int i = 1; i <= branchCounts[bank]; i++) {
+                SwiftCode branch = new SwiftCode(prefix + String.format("%03d", i), "Bank " + bank, "Branch " + i, "PL", "POLAND", false);
+                branch.setHeadquarter(headquarter);
+                swiftCodeRepo.save(branch);
+            }
+        }
+        prefixIndex.reload(); // rows above bypassed the service
+    }
+
+    private long statementsFor(RequestBuilder request) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        assertEquals(0, statistics.getEntityLoadCount(), "read endpoints must not load entities");
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void headquarterDetails_shouldUseTwoStatementsWhateverTheBranchCount() throws Exception {
+        addBanks();
+
+        assertEquals(2, statementsFor(get("/v1/swift-codes/BANAPLPWXXX")));
+        assertEquals(2, statementsFor(get("/v1/swift-codes/BANBPLPWXXX")));
+        assertEquals(2, statementsFor(get("/v1/swift-codes/BANCPLPWXXX")));
+    }
+
+    @Test
+    void branchDetails_shouldUseOneStatement() throws Exception {
+        addBanks();
+
+        assertEquals(1, statementsFor(get("/v1/swift-codes/BANCPLPW007")));
+    }
+
+    @Test
+    void countryListing_shouldUseOneStatementWithoutLoadingHeadquarters() throws Exception {
+        addBanks();
+
+        assertEquals(1, statementsFor(get("/v1/swift-codes/country/PL")));
+    }
+
+    @Test
+    void prefixListing_shouldUseOneStatement() throws Exception {
+        addBanks();
+
+        assertEquals(1, statementsFor(get("/v1/swift-codes/prefix/BANC")));
+    }
+
+    @Test
+    void lookup_shouldUseTwoStatementsForAnyNumberOfHeadquarters() throws Exception {
+        addBanks();
+
+        assertEquals(2, statementsFor(post("/v1/swift-codes/lookup").contentType(MediaType.APPLICATION_JSON)
+                .content("[\"BANAPLPWXXX\", \"BANBPLPWXXX\", \"BANCPLPWXXX\", \"BANCPLPW001\", \"MISSPLPWXXX\"]")));
+    }
+
+    // A code's existence is known from the prefix index; a country's from its listing, read here as the cache is off
+    @Test
+    void revalidation_shouldOnlyReadTheCountryListing() throws Exception {
+        addBanks();
+        String headquarterETag = mockMvc.perform(get("/v1/swift-codes/BANCPLPWXXX"))
+                .andReturn().getResponse().getHeader("ETag");
+        String countryETag = mockMvc.perform(get("/v1/swift-codes/country/PL"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        statistics.clear();
+        mockMvc.perform(get("/v1/swift-codes/BANCPLPWXXX").header("If-None-Match", headquarterETag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        mockMvc.perform(get("/v1/swift-codes/country/PL").header("If-None-Match", countryETag))
+                .andExpect(status().isNotModified());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
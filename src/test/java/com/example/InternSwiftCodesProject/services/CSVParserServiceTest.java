@@ -13,8 +13,12 @@ import org.springframework.http.ResponseEntity;
 
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
@@ -28,6 +32,9 @@ class CSVParserServiceTest {
     @Mock
     private SWIFTCodeController swiftCodeController;
 
+    @Mock
+    private CsvImportPipeline importPipeline;
+
     @InjectMocks
     private CSVParserService csvParserService;
 
@@ -118,6 +125,33 @@ class CSVParserServiceTest {
         verifyNoInteractions(swiftCodeController);
     }
 
+    @Test
+    void bulkImportSwiftData_shouldPassAllRecordsToImportPipeline() {
+        // Should hand every CSV row to the import pipeline instead of the controller
+        String csvData = """
+            SWIFT CODE,NAME,ADDRESS,COUNTRY ISO2 CODE,COUNTRY NAME
+            BANKPLPWXXX,Bank 1,Main St 1,pl,poland
+            BANKPLPW123,Bank 1,Main St 2,PL,POLAND
+            """;
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8));
+        List<SwiftCode> received = new ArrayList<>();
+
+        when(importPipeline.run(any(), any(), any())).thenAnswer(invocation -> {
+            Iterator<SwiftCode> records = invocation.getArgument(0);
+            records.forEachRemaining(received::add);
+            return invocation.getArgument(1);
+        });
+
+        csvParserService.bulkImportSwiftData(inputStream);
+
+        assertEquals(2, received.size());
+        assertEquals("BANKPLPWXXX", received.get(0).getSwiftCode());
+        assertTrue(received.get(0).isHeadquarterFlag());
+        assertEquals("PL", received.get(0).getCountryISO2());
+        assertFalse(received.get(1).isHeadquarterFlag());
+        verifyNoInteractions(swiftCodeController);
+    }
+
 
 
 
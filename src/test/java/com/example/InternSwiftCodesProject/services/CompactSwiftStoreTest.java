@@ -0,0 +1,124 @@
+package com.example.InternSwiftCodesProject.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactSwiftStoreTest {
+
+    private static SwiftDirectoryEntry entry(String code, String iso2, String hq) {
+        return new SwiftDirectoryEntry(code, "Bank", "Street 1", iso2, "COUNTRY", code.endsWith("XXX"), hq);
+    }
+
+    private static List<SwiftDirectoryEntry> sample() {
+        return List.of(
+                entry("BANKPLPW002", "PL", "BANKPLPWXXX"),
+                entry("BANKPLPWXXX", "PL", null),
+                entry("BANKPLPW001", "PL", "BANKPLPWXXX"),
+                entry("BANKPLPA", "PL", null),
+                entry("OTHRDEFFXXX", "DE", null)
+        );
+    }
+
+    @Test
+    void bicCodec_shouldRoundTripAndKeepOrder() {
+        for (String code : List.of("BANKPLPWXXX", "BANKPLPW", "A1B2C3D4E5Z", "0")) {
+            assertEquals(code, BicCodec.unpack(BicCodec.packHigh(code), BicCodec.packLow(code)));
+        }
+        assertTrue(BicCodec.compare(BicCodec.packHigh("BANKPLPW"), BicCodec.packLow("BANKPLPW"),
+                BicCodec.packHigh("BANKPLPW001"), BicCodec.packLow("BANKPLPW001")) < 0);
+        assertTrue(BicCodec.compare(BicCodec.packHigh("BANKPLPW9ZZ"), BicCodec.packLow("BANKPLPW9ZZ"),
+                BicCodec.packHigh("BANKPLPWA00"), BicCodec.packLow("BANKPLPWA00")) < 0);
+        assertFalse(BicCodec.isEncodable("bankplpwxxx"));
+        assertFalse(BicCodec.isEncodable("BANKPLPWXXXX"));
+    }
+
+    @Test
+    void of_shouldAnswerLikeTheHashSnapshot() {
+        SwiftDirectorySnapshot hash = HashDirectorySnapshot.of(sample());
+        SwiftDirectorySnapshot compact = CompactSwiftStore.of(sample(), false);
+
+        assertEquals(hash.size(), compact.size());
+        assertEquals(hash.get("BANKPLPW001"), compact.get("BANKPLPW001"));
+        assertEquals(hash.get("BANKPLPA"), compact.get("BANKPLPA"));
+        assertTrue(compact.get("MISSINGXXX").isEmpty());
+        assertTrue(compact.get("not-a-bic").isEmpty());
+        assertEquals(hash.getByCountry("PL"), compact.getByCountry("PL"));
+        assertEquals(hash.getByPrefix("BANKPLPW"), compact.getByPrefix("BANKPLPW"));
+        assertEquals(hash.getBranchesOf("BANKPLPWXXX"), compact.getBranchesOf("BANKPLPWXXX"));
+        assertTrue(compact.getByCountry("US").isEmpty());
+    }
+
+    @Test
+    void changes_shouldReencodeIntoNewStore() {
+        CompactSwiftStore before = CompactSwiftStore.of(List.of(
+                entry("BANKPLPW001", "PL", null),
+                entry("BANKPLPW002", "PL", null)
+        ), true);
+
+        CompactSwiftStore after = before.withSaved(entry("BANKPLPWXXX", "PL", null));
+        assertTrue(after.isOffHeap());
+        assertEquals(2, after.getBranchesOf("BANKPLPWXXX").size());
+        assertNull(before.get("BANKPLPW001").orElseThrow().getHeadquarterSwift());
+
+        CompactSwiftStore deleted = after.withDeleted("BANKPLPWXXX");
+        assertNull(deleted.get("BANKPLPW001").orElseThrow().getHeadquarterSwift());
+        assertSame(deleted, deleted.withDeleted("MISSINGXXX"));
+    }
+
+    @Test
+    void changes_shouldStayInOverlayAndAnswerLikeTheHashSnapshot() {
+        SwiftDirectorySnapshot hash = HashDirectorySnapshot.of(sample());
+        CompactSwiftStore compact = CompactSwiftStore.of(sample(), false);
+        List<SwiftDirectoryEntry> saves = List.of(
+                entry("BANKPLPWXXX", "PL", null),
+                entry("BANKPLPA003", "PL", null),
+                entry("BANKPLPAXXX", "PL", null),
+                entry("NEWWDEFF001", "DE", null)
+        );
+        for (SwiftDirectoryEntry saved : saves) {
+            hash = hash.withSaved(saved);
+            compact = compact.withSaved(saved);
+        }
+        hash = hash.withDeleted("BANKPLPWXXX").withDeleted("OTHRDEFFXXX");
+        compact = compact.withDeleted("BANKPLPWXXX").withDeleted("OTHRDEFFXXX");
+
+        assertEquals(8, compact.footprint().get("pendingChanges"));
+        assertEquals(hash.size(), compact.size());
+        assertEquals(Set.copyOf(hash.entries()), Set.copyOf(compact.entries()));
+        assertEquals(hash.getByCountry("PL"), compact.getByCountry("PL"));
+        assertEquals(hash.getByCountry("DE"), compact.getByCountry("DE"));
+        assertEquals(hash.getByPrefix("BANKPLPA"), compact.getByPrefix("BANKPLPA"));
+        assertEquals(hash.getBranchesOf("BANKPLPAXXX"), compact.getBranchesOf("BANKPLPAXXX"));
+        assertTrue(compact.getBranchesOf("BANKPLPWXXX").isEmpty());
+        assertFalse(compact.contains("OTHRDEFFXXX"));
+    }
+
+    @Test
+    void changes_shouldBePackedOnceTheOverlayIsFull() {
+        CompactSwiftStore store = CompactSwiftStore.of(sample(), false);
+        for (int i = 0; i < CompactSwiftStore.MAX_CHANGES; i++) {
+            store = store.withSaved(entry(String.format("NEWWDEFF%03X", i), "DE", null));
+        }
+
+        assertEquals(0, store.footprint().get("pendingChanges"));
+        assertEquals(sample().size() + CompactSwiftStore.MAX_CHANGES, store.footprint().get("rows"));
+        assertTrue(store.contains("NEWWDEFF3FF"));
+    }
+
+    @Test
+    void footprint_shouldBeSmallerThanEntityGraph() {
+        Map<String, Object> report = CompactSwiftStore.of(sample(), false).footprint();
+
+        assertEquals(5, report.get("rows"));
+        // "Bank" and "Street 1" are stored once for all rows
+        assertEquals(2, report.get("dictionaryStrings"));
+        assertEquals(2, report.get("countries"));
+        long compactBytes = (long) ((Map<?, ?>) report.get("compactBytes")).get("total");
+        assertTrue(compactBytes < (long) report.get("entityGraphBytes"));
+    }
+}
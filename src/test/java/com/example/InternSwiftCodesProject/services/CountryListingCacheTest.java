@@ -0,0 +1,92 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.DTO.SWIFTCodeDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountryListingCacheTest {
+    private CountryListingCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CountryListingCache(new ObjectMapper(), 1 << 20, true, 1024);
+        loads = new AtomicInteger();
+    }
+
+    private List<SWIFTCodeDTO> load(String countryISO2, int count) {
+        loads.incrementAndGet();
+        List<SWIFTCodeDTO> swiftCodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            swiftCodes.add(new SWIFTCodeDTO("Street " + i, "Bank " + i, countryISO2, "POLAND", false, String.format("BANKPLPW%03d", i)));
+        }
+        return swiftCodes;
+    }
+
+    @Test
+    void get_shouldSerialiseOnceAndServeTheSameBytesAfterwards() {
+        CountryListingCache.Listing first = cache.get("PL", iso2 -> load(iso2, 2));
+        CountryListingCache.Listing second = cache.get("PL", iso2 -> load(iso2, 2));
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertEquals(2, first.size());
+        assertEquals("{\"countryISO2\":\"PL\",\"countryName\":\"POLAND\",\"swiftCodes\":["
+                        + "{\"address\":\"Street 0\",\"bankName\":\"Bank 0\",\"countryISO2\":\"PL\",\"isHeadquarter\":false,\"swiftCode\":\"BANKPLPW000\"},"
+                        + "{\"address\":\"Street 1\",\"bankName\":\"Bank 1\",\"countryISO2\":\"PL\",\"isHeadquarter\":false,\"swiftCode\":\"BANKPLPW001\"}]}",
+                new String(first.json(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void get_shouldOnlyCompressListingsAboveTheMinimumSize() throws IOException {
+        assertNull(cache.get("PL", iso2 -> load(iso2, 2)).gzip());
+
+        CountryListingCache.Listing large = cache.get("DE", iso2 -> load(iso2, 100));
+        assertNotNull(large.gzip());
+        assertTrue(large.gzip().length < large.json().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(large.gzip()))) {
+            assertArrayEquals(large.json(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void get_shouldNotCacheCountriesWithoutCodes() {
+        assertNull(cache.get("AL", iso2 -> List.of()));
+        assertEquals(0L, cache.getStats().get("size"));
+    }
+
+    @Test
+    void get_shouldNotCacheAListingBuiltWhileTheCountryChanged() {
+        CountryListingCache.Listing stale = cache.get("PL", iso2 -> {
+            cache.invalidate(iso2);
+            return load(iso2, 1);
+        });
+        CountryListingCache.Listing fresh = cache.get("PL", iso2 -> load(iso2, 2));
+
+        assertEquals(1, stale.size());
+        assertEquals(2, fresh.size());
+    }
+
+    @Test
+    void invalidate_shouldOnlyRebuildTheChangedCountry() {
+        cache.get("PL", iso2 -> load(iso2, 1));
+        cache.get("DE", iso2 -> load(iso2, 1));
+
+        cache.invalidate("pl");
+        cache.get("PL", iso2 -> load(iso2, 1));
+        cache.get("DE", iso2 -> load(iso2, 1));
+
+        assertEquals(3, loads.get());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.SWIFTCodeRepo;
+import com.example.InternSwiftCodesProject.SwiftCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Tiny queues and hand-offs so the stages block on each other even with a few hundred rows
+@SpringBootTest(properties = {
+        "swift.import.pipeline.workers=3",
+        "swift.import.pipeline.queue-capacity=2",
+        "swift.import.pipeline.handoff-size=7",
+        "swift.import.chunk-size=50",
+        "swift.directory.in-memory=true"
+})
+@ActiveProfiles("test")
+class CsvImportPipelineTest {
+
+    @Autowired
+    private CsvImportPipeline importPipeline;
+
+    @Autowired
+    private SWIFTCodeRepo swiftCodeRepo;
+
+    @Autowired
+    private SwiftMetrics metrics;
+
+    @Autowired
+    private SwiftDirectory directory;
+
+    @Autowired
+    private SwiftCodePrefixIndex prefixIndex;
+
+    @Autowired
+    private SwiftCodeVersions versions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        swiftCodeRepo.deleteAll();
+        directory.reload();
+        prefixIndex.reload();
+    }
+
+    @Test
+    void run_shouldStoreEveryValidRecordThroughAllStages() {
+        List<SwiftCode> rows = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String prefix = "BK" + (char) ('A' + i / 260) + (char) ('A' + i / 10 % 26) + "PLPW";
+            rows.add(i % 10 == 0
+                    ? new SwiftCode(prefix + "XXX", "Bank", "Head office", "PL", "POLAND", true)
+                    : new SwiftCode(prefix + String.format("%03d", i), "Bank", "Branch", "PL", "POLAND", false));
+        }
+        rows.add(new SwiftCode("BKAAPLPWXXX", "Bank", "Head office", "PL", "POLAND", true)); // duplicate
+        rows.add(new SwiftCode("BAD!", "Bank", "Broken", "PL", "POLAND", false)); // invalid
+
+        BulkImportResult result = importPipeline.run(rows.iterator());
+
+        assertEquals(300, result.getAdded());
+        assertEquals(1, result.getSkipped());
+        assertEquals(1, result.getRejected());
+        assertEquals(270, result.getLinkedBranches());
+        assertEquals(300, swiftCodeRepo.count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_shouldReportStageThroughputOfLastRun() {
+        importPipeline.run(List.of(
+                new SwiftCode("BANKPLPWXXX", "Bank", "Head office", "PL", "POLAND", true)
+        ).iterator());
+
+        Map<String, Object> last = (Map<String, Object>) importPipeline.getStats().get("last");
+        Map<String, Object> stages = (Map<String, Object>) last.get("stages");
+
+        assertEquals(false, last.get("running"));
+        assertEquals(1L, ((Map<String, Object>) stages.get("reader")).get("rows"));
+        assertEquals(1L, ((Map<String, Object>) stages.get("writer")).get("rows"));
+        assertNotNull(last.get("queues"));
+    }
+
+    @Test
+    void run_shouldRefreshReadSideForChunksCommittedBeforeAFailure() {
+        String countryVersion = versions.ofCountry("PL").eTag();
+
+        // 60 rows, then the source breaks once the first chunk of 50 has been committed
+        Iterator<SwiftCode> failing = new Iterator<>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                if (row < 60) {
+                    return true;
+                }
+                long deadline = System.currentTimeMillis() + 10_000;
+                while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM swift_codes", Long.class) < 50
+                        && System.currentTimeMillis() < deadline) {
+                    Thread.onSpinWait();
+                }
+                throw new UncheckedIOException(new IOException("Connection reset"));
+            }
+
+            @Override
+            public SwiftCode next() {
+                int i = row++;
+                return i == 0
+                        ? new SwiftCode("FAILPLPWXXX", "Bank", "Head office", "PL", "POLAND", true)
+                        : new SwiftCode("FAILPLPW" + String.format("%03d", i), "Bank", "Branch", "PL", "POLAND", false);
+            }
+        };
+
+        assertThrows(UncheckedIOException.class, () -> importPipeline.run(failing));
+
+        assertEquals(50, swiftCodeRepo.count());
+        assertEquals(49, swiftCodeRepo.findByHeadquarter_SwiftCode("FAILPLPWXXX").size());
+        assertEquals(50, directory.snapshot().size());
+        assertEquals(49, directory.snapshot().getBranchesOf("FAILPLPWXXX").size());
+        assertEquals(50, prefixIndex.count("FAILPLPW"));
+        assertNotEquals(countryVersion, versions.ofCountry("PL").eTag());
+    }
+
+    @Test
+    void run_shouldPropagateWriterFailureWithoutHanging() {
+        SwiftCodeBulkImporter importer = mock(SwiftCodeBulkImporter.class);
+        SwiftCodeBulkImporter.ChunkWriter writer = mock(SwiftCodeBulkImporter.ChunkWriter.class);
+        when(importer.openWriter(any(), any())).thenReturn(writer);
+        doThrow(new IllegalStateException("database down")).when(writer).accept(any());
+
+        CsvImportPipeline pipeline = new CsvImportPipeline(importer, metrics, 2, 1, 1, false);
+
+        // An endless source: without abort handling the reader would block forever on the full queue
+        Iterator<SwiftCode> endless = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public SwiftCode next() {
+                return new SwiftCode("BANKPLPWXXX", "Bank", "Head office", "PL", "POLAND", true);
+            }
+        };
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> pipeline.run(endless));
+        assertEquals("database down", e.getMessage());
+    }
+}
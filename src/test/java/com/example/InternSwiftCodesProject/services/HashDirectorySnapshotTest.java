@@ -0,0 +1,87 @@
+package com.example.InternSwiftCodesProject.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashDirectorySnapshotTest {
+
+    private static SwiftDirectoryEntry entry(String code, String iso2, String hq) {
+        return new SwiftDirectoryEntry(code, "Bank", "Street 1", iso2, "COUNTRY", code.endsWith("XXX"), hq);
+    }
+
+    @Test
+    void of_shouldIndexByCodePrefixAndCountry() {
+        SwiftDirectorySnapshot snapshot = HashDirectorySnapshot.of(List.of(
+                entry("BANKPLPW002", "PL", "BANKPLPWXXX"),
+                entry("BANKPLPWXXX", "PL", null),
+                entry("BANKPLPW001", "PL", "BANKPLPWXXX"),
+                entry("OTHRDEFFXXX", "DE", null)
+        ));
+
+        assertEquals(4, snapshot.size());
+        assertTrue(snapshot.contains("OTHRDEFFXXX"));
+        assertEquals(3, snapshot.getByPrefix("BANKPLPW").size());
+        assertEquals(List.of("BANKPLPW001", "BANKPLPW002", "BANKPLPWXXX"),
+                snapshot.getByCountry("PL").stream().map(SwiftDirectoryEntry::getSwiftCode).toList());
+        assertEquals(2, snapshot.getBranchesOf("BANKPLPWXXX").size());
+        assertTrue(snapshot.getByCountry("US").isEmpty());
+    }
+
+    @Test
+    void withSaved_shouldLinkOrphanBranchesToNewHeadquarter() {
+        SwiftDirectorySnapshot before = HashDirectorySnapshot.of(List.of(
+                entry("BANKPLPW001", "PL", null),
+                entry("BANKPLPW002", "PL", null)
+        ));
+
+        SwiftDirectorySnapshot after = before.withSaved(entry("BANKPLPWXXX", "PL", null));
+
+        assertEquals(2, after.getBranchesOf("BANKPLPWXXX").size());
+        // The old snapshot is left untouched for readers still holding it
+        assertEquals(2, before.size());
+        assertNull(before.get("BANKPLPW001").orElseThrow().getHeadquarterSwift());
+    }
+
+    @Test
+    void withDeleted_shouldOrphanBranchesOfRemovedHeadquarter() {
+        SwiftDirectorySnapshot before = HashDirectorySnapshot.of(List.of(
+                entry("BANKPLPWXXX", "PL", null),
+                entry("BANKPLPW001", "PL", "BANKPLPWXXX")
+        ));
+
+        SwiftDirectorySnapshot after = before.withDeleted("BANKPLPWXXX");
+
+        assertFalse(after.contains("BANKPLPWXXX"));
+        assertNull(after.get("BANKPLPW001").orElseThrow().getHeadquarterSwift());
+        assertSame(after, after.withDeleted("MISSINGXXX"));
+    }
+
+    @Test
+    void changes_shouldShareUntouchedCountriesAndMatchAFullRebuild() {
+        SwiftDirectorySnapshot before = HashDirectorySnapshot.of(List.of(
+                entry("BANKPLPW001", "PL", null),
+                entry("OTHRDEFFXXX", "DE", null),
+                entry("OTHRDEFF001", "DE", "OTHRDEFFXXX")
+        ));
+
+        SwiftDirectorySnapshot after = before
+                .withSaved(entry("BANKPLPWXXX", "PL", null))
+                .withSaved(entry("BANKPLPW002", "PL", null))
+                .withDeleted("BANKPLPW001");
+
+        // Only the PL structures were copied
+        assertSame(before.getByCountry("DE"), after.getByCountry("DE"));
+        assertSame(before.getByPrefix("OTHRDEFF"), after.getByPrefix("OTHRDEFF"));
+        SwiftDirectorySnapshot rebuilt = HashDirectorySnapshot.of(after.entries());
+        assertEquals(rebuilt.size(), after.size());
+        assertEquals(rebuilt.getByCountry("PL"), after.getByCountry("PL"));
+        assertEquals(rebuilt.getByPrefix("BANKPLPW"), after.getByPrefix("BANKPLPW"));
+        assertEquals(List.of("BANKPLPW002", "BANKPLPWXXX"),
+                after.getByCountry("PL").stream().map(SwiftDirectoryEntry::getSwiftCode).toList());
+        // BANKPLPW002 was saved as an orphan after its HQ existed, so it stays one
+        assertNull(after.get("BANKPLPW002").orElseThrow().getHeadquarterSwift());
+    }
+}
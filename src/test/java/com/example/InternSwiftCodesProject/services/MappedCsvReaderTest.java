@@ -0,0 +1,99 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.SwiftCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCsvReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldMapOnlyTheUsedColumnsInHeaderOrder() throws IOException {
+        Path file = write("""
+                \uFEFFCOUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\r
+                al,AAISALTRXXX,BIC11, UNITED BANK OF ALBANIA ,"HYRJA 3, TIRANA",TIRANA,albania,Europe/Tirane\r
+                \r
+                BG,ABIEBGS1001,BIC11,"THE ""ABV"" BANK","TSAR ASEN 20  VARNA",VARNA,BULGARIA,Europe/Sofia""");
+
+        List<SwiftCode> rows = readAll(file, 1, MappedCsvReader.DEFAULT_CHUNK_BYTES);
+
+        assertEquals(2, rows.size());
+        SwiftCode first = rows.get(0);
+        assertEquals("AAISALTRXXX", first.getSwiftCode());
+        assertEquals("UNITED BANK OF ALBANIA", first.getBankName());
+        assertEquals("HYRJA 3, TIRANA", first.getAddress());
+        assertEquals("AL", first.getCountryISO2());
+        assertEquals("ALBANIA", first.getCountryName());
+        assertTrue(first.isHeadquarterFlag());
+        SwiftCode second = rows.get(1);
+        assertEquals("THE \"ABV\" BANK", second.getBankName());
+        assertFalse(second.isHeadquarterFlag());
+    }
+
+    @Test
+    void shouldKeepFileOrderAcrossChunksAndThreads() throws IOException {
+        StringBuilder csv = new StringBuilder("SWIFT CODE,NAME,ADDRESS,COUNTRY ISO2 CODE,COUNTRY NAME\n");
+        for (int i = 0; i < 5000; i++) {
+            csv.append(String.format("BANKPL%05d,Bank %d,\"Street %d, Warsaw\",PL,POLAND%n", i, i, i));
+        }
+        Path file = write(csv.toString());
+        AtomicLong bytesRead = new AtomicLong();
+
+        List<SwiftCode> rows;
+        try (MappedCsvReader reader = MappedCsvReader.open(file, 4, 1000, bytesRead)) {
+            rows = new ArrayList<>();
+            reader.forEachRemaining(rows::add);
+        }
+
+        assertEquals(5000, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(String.format("BANKPL%05d", i), rows.get(i).getSwiftCode());
+            assertEquals("Street " + i + ", Warsaw", rows.get(i).getAddress());
+        }
+        assertEquals(Files.size(file), bytesRead.get());
+    }
+
+    @Test
+    void shouldRejectHeaderWithoutRequiredColumn() throws IOException {
+        Path file = write("SWIFT CODE,NAME,ADDRESS,COUNTRY NAME\nAAISALTRXXX,Bank,Street,ALBANIA\n");
+
+        IOException e = assertThrows(IOException.class, () -> MappedCsvReader.open(file, 1, null));
+        assertTrue(e.getMessage().contains("COUNTRY ISO2 CODE"));
+    }
+
+    @Test
+    void shouldFailOnShortRowOrUnterminatedQuote() throws IOException {
+        Path shortRow = write("SWIFT CODE,NAME,ADDRESS,COUNTRY ISO2 CODE,COUNTRY NAME\nAAISALTRXXX,Bank\n");
+        Path openQuote = write("SWIFT CODE,NAME,ADDRESS,COUNTRY ISO2 CODE,COUNTRY NAME\nAAISALTRXXX,Bank,\"Street\nAL,ALBANIA\n");
+
+        assertThrows(UncheckedIOException.class, () -> readAll(shortRow, 1, MappedCsvReader.DEFAULT_CHUNK_BYTES));
+        assertThrows(UncheckedIOException.class, () -> readAll(openQuote, 1, MappedCsvReader.DEFAULT_CHUNK_BYTES));
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = Files.createTempFile(directory, "swift", ".csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<SwiftCode> readAll(Path file, int threads, int chunkBytes) throws IOException {
+        List<SwiftCode> rows = new ArrayList<>();
+        try (MappedCsvReader reader = MappedCsvReader.open(file, threads, chunkBytes, null)) {
+            reader.forEachRemaining(rows::add);
+        }
+        return rows;
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.InternSwiftCodesProject.services;
 
+import com.example.InternSwiftCodesProject.DTO.HeadquarterBranchDTO;
+import com.example.InternSwiftCodesProject.DTO.SWIFTCodeDTO;
+import com.example.InternSwiftCodesProject.DTO.SwiftCodeWithBranchesDTO;
 import com.example.InternSwiftCodesProject.SWIFTCodeRepo;
 import com.example.InternSwiftCodesProject.SwiftCode;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,17 +10,42 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class SWIFTCodeServiceTest {
     @Mock
     private SWIFTCodeRepo swiftCodeRepo; // fake repo
 
+    @Mock
+    private SwiftCodeDetailsCache detailsCache;
+
+    @Mock
+    private SwiftDirectory directory; // disabled unless a test says otherwise
+
+    @Mock
+    private SwiftCodePrefixIndex prefixIndex;
+
+    @Mock
+    private SwiftCodeVersions versions;
+
+    @Mock
+    private CountryListingCache countryListings;
+
     @InjectMocks
     private SWIFTCodeService service; // our tested class
 
@@ -76,7 +104,7 @@ class SWIFTCodeServiceTest {
         List<SwiftCode> mockResult = List.of(swift);
 
         // Mockito – If someonecall repo with "Pl" it will return our list
-        when(swiftCodeRepo.findByCountryISO2IgnoreCase("PL")).thenReturn(mockResult);
+        when(swiftCodeRepo.findByCountryISO2OrderBySwiftCode("PL")).thenReturn(mockResult);
 
         // ACT – we call our method
         List<SwiftCode> result = service.getSwiftCodesByCountry("PL");
@@ -91,7 +119,7 @@ class SWIFTCodeServiceTest {
     @Test
     void getSwiftCodesByCountry_shouldReturnEmptyListIfNothingFound() {
         // Mockito  returns empty list if called with "XX"
-        when(swiftCodeRepo.findByCountryISO2IgnoreCase("XX")).thenReturn(List.of());
+        when(swiftCodeRepo.findByCountryISO2OrderBySwiftCode("XX")).thenReturn(List.of());
 
         List<SwiftCode> result = service.getSwiftCodesByCountry("XX");
 
@@ -105,8 +133,8 @@ class SWIFTCodeServiceTest {
         branch.setSwiftCode("BANKPLPWXXX");
         branch.setHeadquarterFlag(false);
 
-        when(swiftCodeRepo.findBySwiftCodeStartingWithAndHeadquarterFlagFalse("BANK"))
-                .thenReturn(List.of(branch));
+        when(prefixIndex.findBranches("BANK")).thenReturn(List.of("BANKPLPWXXX"));
+        when(swiftCodeRepo.findAllById(List.of("BANKPLPWXXX"))).thenReturn(List.of(branch));
 
         // when
         List<SwiftCode> result = service.findBranchesByPrefix("BANK");
@@ -120,12 +148,12 @@ class SWIFTCodeServiceTest {
 
     @Test
     void findBranchesByPrefix_shouldReturnEmptyListIfNoneFound() {
-        when(swiftCodeRepo.findBySwiftCodeStartingWithAndHeadquarterFlagFalse("XXXX"))
-                .thenReturn(List.of());
+        when(prefixIndex.findBranches("XXXX")).thenReturn(List.of());
 
         List<SwiftCode> result = service.findBranchesByPrefix("XXXX");
 
         assertTrue(result.isEmpty());
+        verify(swiftCodeRepo, never()).findAllById(any());
     }
 
     @Test
@@ -157,6 +185,77 @@ class SWIFTCodeServiceTest {
         verify(swiftCodeRepo, times(1)).findById("XXXXXXX");
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void getSwiftCodeResponse_shouldBuildHeadquarterWithBranchesThroughCache() {
+        SWIFTCodeDTO hq = new SWIFTCodeDTO("HQ Street", "Bank", "PL", "POLAND", true, "BANKPLPWXXX");
+        SWIFTCodeDTO branch = new SWIFTCodeDTO("Branch Street", "Bank", "PL", "POLAND", false, "BANKPLPW001");
+
+        when(detailsCache.get(eq("BANKPLPWXXX"), any()))
+                .thenAnswer(invocation -> ((Function<String, Object>) invocation.getArgument(1)).apply("BANKPLPWXXX"));
+        when(swiftCodeRepo.findDtoBySwiftCode("BANKPLPWXXX")).thenReturn(Optional.of(hq));
+        when(swiftCodeRepo.findBranchDtosByHeadquarter("BANKPLPWXXX")).thenReturn(List.of(branch));
+
+        Optional<Object> result = service.getSwiftCodeResponse("bankplpwxxx");
+
+        assertTrue(result.isPresent());
+        SwiftCodeWithBranchesDTO response = (SwiftCodeWithBranchesDTO) result.get();
+        assertEquals("BANKPLPWXXX", response.getSwiftCode());
+        assertEquals(1, response.getBranches().size());
+        assertEquals("BANKPLPW001", response.getBranches().get(0).getSwiftCode());
+        // Projections only: no entity loads
+        verify(swiftCodeRepo, never()).findById(any());
+        verify(swiftCodeRepo, never()).findByHeadquarter_SwiftCode(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getSwiftCodeResponse_shouldReturnSimpleDtoForBranch() {
+        SWIFTCodeDTO branch = new SWIFTCodeDTO("Branch Street", "Bank", "PL", "POLAND", false, "BANKPLPW001");
+
+        when(detailsCache.get(eq("BANKPLPW001"), any()))
+                .thenAnswer(invocation -> ((Function<String, Object>) invocation.getArgument(1)).apply("BANKPLPW001"));
+        when(swiftCodeRepo.findDtoBySwiftCode("BANKPLPW001")).thenReturn(Optional.of(branch));
+
+        Optional<Object> result = service.getSwiftCodeResponse("BANKPLPW001");
+
+        assertInstanceOf(SWIFTCodeDTO.class, result.orElseThrow());
+        verify(swiftCodeRepo, never()).findBranchDtosByHeadquarter(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getSwiftCodeResponses_shouldLoadCodesAndBranchesWithTwoQueries() {
+        SWIFTCodeDTO hq1 = new SWIFTCodeDTO("HQ Street", "Bank", "PL", "POLAND", true, "BANKPLPWXXX");
+        SWIFTCodeDTO hq2 = new SWIFTCodeDTO("HQ Street", "Other", "PL", "POLAND", true, "OTHRPLPWXXX");
+        SWIFTCodeDTO branch = new SWIFTCodeDTO("Branch Street", "Bank", "PL", "POLAND", false, "BANKPLPW001");
+        HeadquarterBranchDTO linkedBranch = new HeadquarterBranchDTO("BANKPLPWXXX", "Branch Street", "Bank", "PL", "POLAND", false, "BANKPLPW001");
+
+        when(detailsCache.getAll(any(), any()))
+                .thenAnswer(invocation -> ((Function<Set<String>, Map<String, Object>>) invocation.getArgument(1))
+                        .apply(new HashSet<>((Collection<String>) invocation.getArgument(0))));
+        when(swiftCodeRepo.findDtosBySwiftCodeIn(any())).thenReturn(List.of(hq1, hq2, branch));
+        when(swiftCodeRepo.findBranchDtosByHeadquarterIn(any())).thenReturn(List.of(linkedBranch));
+
+        Map<String, Object> responses = service.getSwiftCodeResponses(List.of("BANKPLPWXXX", "OTHRPLPWXXX", "BANKPLPW001", "MISSINGXXX"));
+
+        assertEquals(3, responses.size());
+        assertEquals(1, ((SwiftCodeWithBranchesDTO) responses.get("BANKPLPWXXX")).getBranches().size());
+        assertTrue(((SwiftCodeWithBranchesDTO) responses.get("OTHRPLPWXXX")).getBranches().isEmpty());
+        assertInstanceOf(SWIFTCodeDTO.class, responses.get("BANKPLPW001"));
+        verify(swiftCodeRepo, times(1)).findDtosBySwiftCodeIn(any());
+        verify(swiftCodeRepo, times(1)).findBranchDtosByHeadquarterIn(
+                argThat(codes -> codes.size() == 2 && codes.containsAll(List.of("BANKPLPWXXX", "OTHRPLPWXXX"))));
+        verify(swiftCodeRepo, never()).findBranchDtosByHeadquarter(any());
+    }
+
+    @Test
+    void getSwiftCodeResponse_shouldReturnEmptyIfNotFound() {
+        when(detailsCache.get(eq("MISSINGCODE"), any())).thenReturn(null);
+
+        assertTrue(service.getSwiftCodeResponse("MISSINGCODE").isEmpty());
+    }
+
     @Test
     void getBranchesForHeadquarter_shouldReturnBranchList() {
         // given
@@ -193,6 +292,7 @@ class SWIFTCodeServiceTest {
     void saveSwiftCode_shouldSaveBranchSuccessfully() {
         SwiftCode branch = new SwiftCode();
         branch.setSwiftCode("TESTPLPW");
+        branch.setCountryISO2("PL");
         branch.setHeadquarterFlag(false);
 
         when(swiftCodeRepo.existsBySwiftCode("TESTPLPW")).thenReturn(false);
@@ -201,6 +301,9 @@ class SWIFTCodeServiceTest {
 
         assertEquals("TESTPLPW", saved.getSwiftCode());
         verify(swiftCodeRepo).save(branch);
+        verify(detailsCache).invalidate("TESTPLPW");
+        verify(countryListings).invalidate("PL");
+        verify(versions).onChanged("TESTPLPW", "PL");
     }
 
     @Test
@@ -210,13 +313,13 @@ class SWIFTCodeServiceTest {
         hq.setHeadquarterFlag(true);
 
         when(swiftCodeRepo.existsBySwiftCode("BANKPLPWXXX")).thenReturn(false);
-        when(swiftCodeRepo.findByHeadquarterIsNullAndSwiftCodeStartingWith("BANKPLPW"))
-                .thenReturn(List.of()); // No orphaned branches
+        when(swiftCodeRepo.linkOrphanBranches("BANKPLPWXXX", "BANKPLPW")).thenReturn(0); // No orphaned branches
 
         SwiftCode saved = service.saveSwiftCode(hq);
 
         assertEquals("BANKPLPWXXX", saved.getSwiftCode());
         verify(swiftCodeRepo).save(hq);
+        verify(swiftCodeRepo).linkOrphanBranches("BANKPLPWXXX", "BANKPLPW");
     }
 
     @Test
@@ -225,27 +328,19 @@ class SWIFTCodeServiceTest {
         hq.setSwiftCode("HQPLPLPWXXX");
         hq.setHeadquarterFlag(true);
 
-        SwiftCode orphan1 = new SwiftCode();
-        orphan1.setSwiftCode("HQPLPLPW1");
-        orphan1.setHeadquarter(null);
-
-        SwiftCode orphan2 = new SwiftCode();
-        orphan2.setSwiftCode("HQPLPLPW2");
-        orphan2.setHeadquarter(null);
-
         when(swiftCodeRepo.existsBySwiftCode("HQPLPLPWXXX")).thenReturn(false);
-        when(swiftCodeRepo.findByHeadquarterIsNullAndSwiftCodeStartingWith("HQPLPLPW"))
-                .thenReturn(List.of(orphan1, orphan2));
+        when(swiftCodeRepo.linkOrphanBranches("HQPLPLPWXXX", "HQPLPLPW")).thenReturn(2);
 
         SwiftCode saved = service.saveSwiftCode(hq);
 
         assertEquals("HQPLPLPWXXX", saved.getSwiftCode());
 
-        verify(swiftCodeRepo).save(hq);
-        verify(swiftCodeRepo).save(orphan1);
-        verify(swiftCodeRepo).save(orphan2);
-        assertEquals(hq, orphan1.getHeadquarter());
-        assertEquals(hq, orphan2.getHeadquarter());
+        // The HQ row is written first, then all orphans are linked by one bulk UPDATE instead of per-branch saves
+        var order = inOrder(swiftCodeRepo);
+        order.verify(swiftCodeRepo).save(hq);
+        order.verify(swiftCodeRepo).linkOrphanBranches("HQPLPLPWXXX", "HQPLPLPW");
+        verify(swiftCodeRepo, times(1)).save(any());
+        verify(prefixIndex).onSaved("HQPLPLPWXXX", true);
     }
 
 
@@ -282,6 +377,7 @@ class SWIFTCodeServiceTest {
 
         SwiftCode branch = new SwiftCode();
         branch.setSwiftCode("BANKPLPW");
+        branch.setCountryISO2("PL");
         branch.setHeadquarterFlag(false);
 
         when(swiftCodeRepo.findById("BANKPLPW")).thenReturn(Optional.of(branch));
@@ -290,6 +386,9 @@ class SWIFTCodeServiceTest {
 
         assertTrue(result);
         verify(swiftCodeRepo).deleteById("BANKPLPW");
+        verify(detailsCache).invalidate("BANKPLPW");
+        verify(countryListings).invalidate("PL");
+        verify(versions).onChanged("BANKPLPW", "PL");
     }
 
 
@@ -301,31 +400,44 @@ class SWIFTCodeServiceTest {
         hq.setSwiftCode("HQPLPWXXX");
         hq.setHeadquarterFlag(true);
 
-        SwiftCode branch1 = new SwiftCode();
-        branch1.setSwiftCode("HQPLPW1");
-        branch1.setHeadquarter(hq);
-
-        SwiftCode branch2 = new SwiftCode();
-        branch2.setSwiftCode("HQPLPW2");
-        branch2.setHeadquarter(hq);
-
         when(swiftCodeRepo.findById("HQPLPWXXX")).thenReturn(Optional.of(hq));
-        when(swiftCodeRepo.findByHeadquarter(hq)).thenReturn(List.of(branch1, branch2));
+        when(swiftCodeRepo.unlinkBranches("HQPLPWXXX")).thenReturn(2);
 
         boolean result = service.deleteSwiftCode("HQPLPWXXX");
 
         assertTrue(result);
-        // Check that headquarter references are removed
-
-        assertNull(branch1.getHeadquarter());
-        assertNull(branch2.getHeadquarter());
-        // Verify that changes were saved and HQ deleted
-        verify(swiftCodeRepo).save(branch1);
-        verify(swiftCodeRepo).save(branch2);
-        verify(swiftCodeRepo).deleteById("HQPLPWXXX");
+        // Branches are unlinked by one bulk UPDATE before the HQ row is deleted
+        var order = inOrder(swiftCodeRepo);
+        order.verify(swiftCodeRepo).unlinkBranches("HQPLPWXXX");
+        order.verify(swiftCodeRepo).deleteById("HQPLPWXXX");
+        verify(swiftCodeRepo, never()).save(any());
     }
 
 
+    @Test
+    void deleteSwiftCode_shouldUpdateReadModelsOnlyAfterCommit() {
+        SwiftCode branch = new SwiftCode();
+        branch.setSwiftCode("BANKPLPW");
+        branch.setCountryISO2("PL");
+        branch.setHeadquarterFlag(false);
+
+        when(swiftCodeRepo.findById("BANKPLPW")).thenReturn(Optional.of(branch));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(service.deleteSwiftCode("BANKPLPW"));
+            verify(directory, never()).onDeleted(any());
+            verify(detailsCache, never()).invalidate(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(directory).onDeleted("BANKPLPW");
+        verify(detailsCache).invalidate("BANKPLPW");
+        verify(versions).onChanged("BANKPLPW", "PL");
+    }
+
     @Test
     void deleteSwiftCode_shouldDeleteHQWithoutBranches() {
         // Should delete HQ when it has no linked branches
@@ -335,7 +447,7 @@ class SWIFTCodeServiceTest {
         hq.setHeadquarterFlag(true);
 
         when(swiftCodeRepo.findById("HQPLPWXXX")).thenReturn(Optional.of(hq));
-        when(swiftCodeRepo.findByHeadquarter(hq)).thenReturn(List.of());
+        when(swiftCodeRepo.unlinkBranches("HQPLPWXXX")).thenReturn(0);
 
         boolean result = service.deleteSwiftCode("HQPLPWXXX");
 
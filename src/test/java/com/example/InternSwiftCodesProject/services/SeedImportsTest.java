@@ -0,0 +1,68 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.SWIFTCodeRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database, so the seed rows and their fingerprint are exactly what startup left behind
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:seeddb;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class SeedImportsTest {
+
+    @Autowired
+    private CSVParserService csvParserService;
+
+    @Autowired
+    private SeedImports seedImports;
+
+    @Autowired
+    private SWIFTCodeRepo swiftCodeRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void fingerprint_shouldCountDataRowsWithOrWithoutTrailingNewline() throws IOException {
+        SeedImports.Fingerprint withNewline = SeedImports.of(stream("SWIFT CODE,NAME\nA,1\nB,2\n"));
+        SeedImports.Fingerprint withoutNewline = SeedImports.of(stream("SWIFT CODE,NAME\nA,1\nB,2"));
+
+        assertEquals(2, withNewline.rows());
+        assertEquals(2, withoutNewline.rows());
+        assertNotEquals(withNewline.contentHash(), withoutNewline.contentHash());
+        assertEquals(0, SeedImports.of(stream("")).rows());
+    }
+
+    @Test
+    void init_shouldSkipUnchangedSeedFileAndMergeChangedOne() {
+        SeedImports.Fingerprint recorded = seedImports.find("examplecsv.csv").orElseThrow();
+        assertEquals(7, recorded.rows());
+        assertEquals(7, swiftCodeRepo.count());
+
+        // Unchanged file: a code removed since startup is not brought back
+        swiftCodeRepo.deleteById("AAISALTRXXX");
+        csvParserService.init();
+        assertFalse(swiftCodeRepo.existsById("AAISALTRXXX"));
+
+        // Different fingerprint: the file is merged again, without deleting codes it does not list
+        jdbcTemplate.update("UPDATE seed_imports SET content_hash = 'edited' WHERE file_name = 'examplecsv.csv'");
+        jdbcTemplate.update("INSERT INTO swift_codes (swift_code, bank_name, address, countryiso2, country_name, headquarter_flag, bank_prefix) "
+                + "VALUES ('APIXPLPWXXX', 'Added through the API', 'Street 1', 'PL', 'POLAND', TRUE, 'APIXPLPW')");
+        csvParserService.init();
+        assertTrue(swiftCodeRepo.existsById("AAISALTRXXX"));
+        assertTrue(swiftCodeRepo.existsById("APIXPLPWXXX"));
+        assertEquals(recorded, seedImports.find("examplecsv.csv").orElseThrow());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.SWIFTCodeRepo;
+import com.example.InternSwiftCodesProject.SwiftCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Small batch and chunk sizes so a handful of rows spans several transactions
+@SpringBootTest(properties = {"swift.import.batch-size=2", "swift.import.chunk-size=3"})
+@ActiveProfiles("test")
+class SwiftCodeBulkImporterTest {
+
+    @Autowired
+    private SwiftCodeBulkImporter bulkImporter;
+
+    @Autowired
+    private SWIFTCodeRepo swiftCodeRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        swiftCodeRepo.deleteAll();
+    }
+
+    @Test
+    void importRecords_shouldInsertValidRowsAcrossChunks() {
+        List<SwiftCode> rows = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            rows.add(new SwiftCode("BANKPLP" + i + "XXX", "Bank " + i, "Street " + i, "pl", "poland", false));
+        }
+
+        BulkImportResult result = bulkImporter.importRecords(rows.iterator());
+
+        assertEquals(7, result.getAdded());
+        assertEquals(7, swiftCodeRepo.count());
+        SwiftCode stored = swiftCodeRepo.findById("BANKPLP0XXX").orElseThrow();
+        assertTrue(stored.isHeadquarterFlag());
+        assertEquals("PL", stored.getCountryISO2());
+        assertEquals("POLAND", stored.getCountryName());
+    }
+
+    @Test
+    void importRecords_shouldSkipDuplicatesAgainstTableAndFile() {
+        swiftCodeRepo.save(new SwiftCode("BANKPLPWXXX", "Bank", "Street 1", "PL", "POLAND", true));
+
+        BulkImportResult result = bulkImporter.importRecords(List.of(
+                new SwiftCode("BANKPLPWXXX", "Bank", "Street 1", "PL", "POLAND", true),
+                new SwiftCode("BANKPLPW001", "Bank", "Street 2", "PL", "POLAND", false),
+                new SwiftCode("bankplpw001", "Bank", "Street 2", "PL", "POLAND", false)
+        ).iterator());
+
+        assertEquals(1, result.getAdded());
+        assertEquals(2, result.getSkipped());
+        assertEquals(2, swiftCodeRepo.count());
+    }
+
+    @Test
+    void importRecords_shouldRejectInvalidRows() {
+        BulkImportResult result = bulkImporter.importRecords(List.of(
+                new SwiftCode("BANK@PLPW", "Bank", "Street 1", "PL", "POLAND", false),
+                new SwiftCode("BANKPL", "Bank", "Street 1", "PL", "POLAND", false),
+                new SwiftCode("BANKXXPWXXX", "Bank", "Street 1", "XX", "NOWHERE", true),
+                new SwiftCode("BANKPLPWXXX", "Bank", "Street 1", "PL", "GERMANY", true),
+                new SwiftCode("BANKPLPW001", "", "Street 1", "PL", "POLAND", false)
+        ).iterator());
+
+        assertEquals(0, result.getAdded());
+        assertEquals(5, result.getRejected());
+        assertEquals(0, swiftCodeRepo.count());
+    }
+
+    @Test
+    void importRecords_shouldLinkBranchesToHeadquarterInOnePass() {
+        // Branches arrive before and after their headquarter
+        BulkImportResult result = bulkImporter.importRecords(List.of(
+                new SwiftCode("BANKPLPW001", "Bank", "Branch 1", "PL", "POLAND", false),
+                new SwiftCode("BANKPLPWXXX", "Bank", "Head office", "PL", "POLAND", true),
+                new SwiftCode("BANKPLPW002", "Bank", "Branch 2", "PL", "POLAND", false),
+                new SwiftCode("OTHRPLPW001", "Other", "Orphan", "PL", "POLAND", false)
+        ).iterator());
+
+        assertEquals(4, result.getAdded());
+        assertEquals(2, result.getLinkedBranches());
+        assertEquals(2, swiftCodeRepo.findByHeadquarter_SwiftCode("BANKPLPWXXX").size());
+        assertNull(swiftCodeRepo.findById("OTHRPLPW001").orElseThrow().getHeadquarter());
+    }
+
+    @Test
+    void importRecords_shouldCountSkipReasons() {
+        List<SwiftCode> rows = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rows.add(new SwiftCode("BANKPLP" + (char) ('A' + i) + "XXX", "Bank", "Street 1", "PL", "GERMANY", true));
+        }
+        rows.add(new SwiftCode("BAD-CODE!", "Bank", "Street 1", "PL", "POLAND", false));
+
+        BulkImportResult result = bulkImporter.importRecords(rows.iterator());
+
+        Map<String, Long> reasons = result.getReasonCounts();
+        assertEquals(2, reasons.size());
+        // Most frequent reason first
+        assertEquals(20L, reasons.values().iterator().next());
+        assertTrue(reasons.keySet().iterator().next().contains("GERMANY"));
+    }
+
+    @Test
+    void deltaImport_shouldWriteOnlyInsertsUpdatesAndDeletes() {
+        bulkImporter.importRecords(List.of(
+                new SwiftCode("AAAAPLPWXXX", "Bank A", "Head office", "PL", "POLAND", true),
+                new SwiftCode("AAAAPLPW001", "Bank A", "Branch 1", "PL", "POLAND", false),
+                new SwiftCode("BBBBPLPWXXX", "Bank B", "Head office", "PL", "POLAND", true),
+                new SwiftCode("CCCCPLPWXXX", "Bank C", "Head office", "PL", "POLAND", true)
+        ).iterator());
+
+        BulkImportResult result = bulkImporter.importRecords(List.of(
+                new SwiftCode("AAAAPLPWXXX", "Bank A", "Head office", "pl", "poland", true),
+                new SwiftCode("AAAAPLPW001", "Bank A", "Branch 1, new address", "PL", "POLAND", false),
+                new SwiftCode("BBBBPLPWXXX", " Bank B ", "Head office", "PL", "POLAND", true),
+                new SwiftCode("DDDDPLPW001", "Bank D", "Branch 1", "PL", "POLAND", false),
+                new SwiftCode("DDDDPLPWXXX", "Bank D", "Head office", "PL", "POLAND", true),
+                new SwiftCode("DDDDPLPW001", "Bank D", "Branch 1", "PL", "POLAND", false)
+        ).iterator(), ImportMode.DELTA);
+
+        assertEquals(2, result.getAdded());
+        assertEquals(1, result.getUpdated());
+        // Normalised before hashing, so case and whitespace differences are not changes
+        assertEquals(2, result.getUnchanged());
+        assertEquals(1, result.getDeleted());
+        assertEquals(1, result.getSkipped());
+        assertEquals(1, result.getLinkedBranches());
+        assertEquals(6, result.getProcessed());
+        assertEquals(5, swiftCodeRepo.count());
+        assertFalse(swiftCodeRepo.existsById("CCCCPLPWXXX"));
+        assertEquals("Branch 1, new address", swiftCodeRepo.findById("AAAAPLPW001").orElseThrow().getAddress());
+        assertEquals(1, swiftCodeRepo.findByHeadquarter_SwiftCode("DDDDPLPWXXX").size());
+        // The untouched link of an unchanged headquarter is kept
+        assertEquals(1, swiftCodeRepo.findByHeadquarter_SwiftCode("AAAAPLPWXXX").size());
+    }
+
+    @Test
+    void deltaImport_shouldLeaveAnIdenticalDirectoryUntouched() {
+        List<SwiftCode> rows = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            rows.add(new SwiftCode("BANKPLP" + i + "XXX", "Bank " + i, "Street " + i, "PL", "POLAND", true));
+        }
+        bulkImporter.importRecords(rows.iterator());
+
+        BulkImportResult result = bulkImporter.importRecords(rows.iterator(), ImportMode.DELTA);
+
+        assertEquals(0, result.getAdded() + result.getUpdated() + result.getDeleted());
+        assertEquals(7, result.getUnchanged());
+    }
+
+    @Test
+    void mergeImport_shouldInsertAndUpdateButNeverDelete() {
+        bulkImporter.importRecords(List.of(
+                new SwiftCode("AAAAPLPWXXX", "Bank A", "Head office", "PL", "POLAND", true),
+                new SwiftCode("BBBBPLPWXXX", "Bank B", "Head office", "PL", "POLAND", true)
+        ).iterator());
+
+        BulkImportResult result = bulkImporter.importRecords(List.of(
+                new SwiftCode("AAAAPLPWXXX", "Bank A", "New head office", "PL", "POLAND", true),
+                new SwiftCode("CCCCPLPWXXX", "Bank C", "Head office", "PL", "POLAND", true)
+        ).iterator(), ImportMode.MERGE);
+
+        assertEquals(1, result.getAdded());
+        assertEquals(1, result.getUpdated());
+        assertEquals(0, result.getDeleted());
+        assertEquals(3, swiftCodeRepo.count());
+        assertEquals("New head office", swiftCodeRepo.findById("AAAAPLPWXXX").orElseThrow().getAddress());
+    }
+
+    @Test
+    void deltaImport_shouldRewriteRowsWithoutStoredHashOnce() {
+        SwiftCode row = new SwiftCode("BANKPLPWXXX", "Bank", "Street 1", "PL", "POLAND", true);
+        bulkImporter.importRecords(List.of(row).iterator());
+        // As left by the V3 migration for rows written before it
+        jdbcTemplate.update("UPDATE swift_codes SET content_hash = NULL");
+
+        BulkImportResult first = bulkImporter.importRecords(List.of(row).iterator(), ImportMode.DELTA);
+        BulkImportResult second = bulkImporter.importRecords(List.of(row).iterator(), ImportMode.DELTA);
+
+        assertEquals(1, first.getUpdated());
+        assertEquals(1, second.getUnchanged());
+        assertEquals(SwiftCode.contentHashOf(row), swiftCodeRepo.findById("BANKPLPWXXX").orElseThrow().getContentHash());
+    }
+
+    @Test
+    void deltaImport_shouldUnlinkBranchesOfDeletedHeadquarter() {
+        bulkImporter.importRecords(List.of(
+                new SwiftCode("BANKPLPWXXX", "Bank", "Head office", "PL", "POLAND", true),
+                new SwiftCode("BANKPLPW001", "Bank", "Branch 1", "PL", "POLAND", false)
+        ).iterator());
+
+        BulkImportResult result = bulkImporter.importRecords(List.of(
+                new SwiftCode("BANKPLPW001", "Bank", "Branch 1", "PL", "POLAND", false)
+        ).iterator(), ImportMode.DELTA);
+
+        assertEquals(1, result.getDeleted());
+        assertNull(swiftCodeRepo.findById("BANKPLPW001").orElseThrow().getHeadquarter());
+    }
+
+    @Test
+    void deltaImport_shouldKeepStoredRowsWhoseFileRowIsRejected() {
+        bulkImporter.importRecords(List.of(
+                new SwiftCode("BANKPLPWXXX", "Bank", "Head office", "PL", "POLAND", true),
+                new SwiftCode("OTHRPLPWXXX", "Other", "Head office", "PL", "POLAND", true)
+        ).iterator());
+
+        BulkImportResult result = bulkImporter.importRecords(List.of(
+                new SwiftCode("BANKPLPWXXX", "Bank", "Head office", "PL", "POLAND", true),
+                new SwiftCode("othrplpwxxx", "Other", "Head office", "PL", "GERMANY", true)
+        ).iterator(), ImportMode.DELTA);
+
+        assertEquals(1, result.getRejected());
+        assertEquals(0, result.getDeleted());
+        assertTrue(swiftCodeRepo.existsById("OTHRPLPWXXX"));
+    }
+
+    @Test
+    void deltaImport_shouldRefuseToDeleteMostOfTheTable() {
+        bulkImporter.importRecords(List.of(
+                new SwiftCode("AAAAPLPWXXX", "Bank A", "Head office", "PL", "POLAND", true),
+                new SwiftCode("BBBBPLPWXXX", "Bank B", "Head office", "PL", "POLAND", true),
+                new SwiftCode("CCCCPLPWXXX", "Bank C", "Head office", "PL", "POLAND", true)
+        ).iterator());
+
+        BulkImportResult result = bulkImporter.importRecords(List.of(
+                new SwiftCode("AAAAPLPWXXX", "Bank A", "Moved office", "PL", "POLAND", true)
+        ).iterator(), ImportMode.DELTA);
+
+        assertTrue(result.getDeletesRefused().contains("would delete 2 of 3"));
+        assertEquals(1, result.getUpdated());
+        assertEquals(0, result.getDeleted());
+        assertEquals(3, swiftCodeRepo.count());
+        // Updates are still applied
+        assertEquals("Moved office", swiftCodeRepo.findById("AAAAPLPWXXX").orElseThrow().getAddress());
+    }
+
+    @Test
+    void report_shouldFlagOnlyTheFirstExamplesOfEachReason() {
+        BulkImportResult result = new BulkImportResult();
+        int flagged = 0;
+        for (int i = 0; i < 50; i++) {
+            if (result.report("CODE" + i, "same reason")) {
+                flagged++;
+            }
+        }
+
+        assertEquals(BulkImportResult.LOGGED_EXAMPLES_PER_REASON, flagged);
+        assertEquals(Map.of("same reason", 50L), result.getReasonCounts());
+    }
+
+    @Test
+    void report_shouldFoldReasonsBeyondTheCapIntoOther() {
+        BulkImportResult result = new BulkImportResult();
+        for (int i = 0; i < BulkImportResult.MAX_COUNTED_REASONS + 10; i++) {
+            result.report("CODE" + i, "reason " + i);
+        }
+
+        Map<String, Long> reasons = result.getReasonCounts();
+        assertEquals(BulkImportResult.MAX_COUNTED_REASONS + 1, reasons.size());
+        assertEquals(10L, reasons.get(BulkImportResult.OTHER_REASONS));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.InternSwiftCodesProject.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwiftCodeDetailsCacheTest {
+    private SwiftCodeDetailsCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SwiftCodeDetailsCache(100, Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+    }
+
+    private Object load(String swiftCode) {
+        loads.incrementAndGet();
+        return "response for " + swiftCode;
+    }
+
+    @Test
+    void get_shouldLoadOnceAndServeFromCacheAfterwards() {
+        cache.get("BANKPLPWXXX", this::load);
+        cache.get("BANKPLPWXXX", this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getStats().get("hits"));
+        assertEquals(1L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    void get_shouldNotCacheUnknownCodes() {
+        assertNull(cache.get("MISSINGXXX", code -> null));
+        assertEquals(0L, cache.getStats().get("size"));
+    }
+
+    @Test
+    void get_shouldNotCacheAResponseLoadedWhileTheCodeChanged() {
+        // The code is saved while its old response is being built
+        Object stale = cache.get("BANKPLPWXXX", code -> {
+            cache.invalidate(code);
+            return "old response";
+        });
+
+        assertEquals("old response", stale);
+        assertEquals("response for BANKPLPWXXX", cache.get("BANKPLPWXXX", this::load));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidate_shouldDropBranchAndItsHeadquarter() {
+        cache.get("BANKPLPWXXX", this::load);
+        cache.get("BANKPLPW001", this::load);
+        cache.get("BANKPLPW002", this::load);
+
+        cache.invalidate("BANKPLPW001");
+        cache.get("BANKPLPWXXX", this::load);
+        cache.get("BANKPLPW001", this::load);
+        cache.get("BANKPLPW002", this::load);
+
+        // HQ and changed branch reloaded, the sibling branch still cached
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void invalidate_shouldKeepBranchesWhenHeadquarterChanges() {
+        cache.get("BANKPLPWXXX", this::load);
+        cache.get("BANKPLPW001", this::load);
+
+        cache.invalidate("BANKPLPWXXX");
+        cache.get("BANKPLPWXXX", this::load);
+        cache.get("BANKPLPW001", this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void getAll_shouldLoadOnlyMissingCodesInOneCall() {
+        cache.get("BANKPLPWXXX", this::load);
+        List<Set<String>> bulkLoads = new ArrayList<>();
+
+        Map<String, Object> responses = cache.getAll(List.of("BANKPLPWXXX", "BANKPLPW001", "MISSINGXXX"), codes -> {
+            bulkLoads.add(codes);
+            return Map.of("BANKPLPW001", "response for BANKPLPW001");
+        });
+
+        assertEquals(List.of(Set.of("BANKPLPW001", "MISSINGXXX")), bulkLoads);
+        assertEquals(Set.of("BANKPLPWXXX", "BANKPLPW001"), responses.keySet());
+        assertEquals(2L, cache.getStats().get("size"));
+    }
+
+    @Test
+    void getAll_shouldNotCacheResponsesLoadedWhileACodeChanged() {
+        Map<String, Object> responses = cache.getAll(List.of("BANKPLPWXXX", "BANKPLPW001"), codes -> {
+            cache.invalidate("BANKPLPW001");
+            return Map.of("BANKPLPWXXX", "old response", "BANKPLPW001", "old response");
+        });
+
+        assertEquals(2, responses.size());
+        assertEquals(0L, cache.getStats().get("size"));
+        assertEquals("response for BANKPLPW001", cache.get("BANKPLPW001", this::load));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.InternSwiftCodesProject.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwiftCodePrefixIndexTest {
+
+    private SwiftCodePrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Not initialised from the DB; filled through the change notifications only
+        index = new SwiftCodePrefixIndex(null, null);
+        index.onSaved("BANKPLPW001", false);
+        index.onSaved("BANKPLPWXXX", true);
+        index.onSaved("BANKDEFFXXX", true);
+        index.onSaved("BANKPLPA", false);
+        index.onSaved("OTHRPLPWXXX", true);
+    }
+
+    @Test
+    void find_shouldReturnRangeInCodeOrderUpToLimit() {
+        assertEquals(List.of("BANKDEFFXXX", "BANKPLPA", "BANKPLPW001", "BANKPLPWXXX"), index.find("BANK", 10));
+        assertEquals(List.of("BANKDEFFXXX", "BANKPLPA"), index.find("BANK", 2));
+        assertEquals(4, index.count("BANK"));
+        assertEquals(3, index.count("BANKPL"));
+        assertTrue(index.find("ZZZZ", 10).isEmpty());
+    }
+
+    @Test
+    void findBranches_shouldSkipHeadquarters() {
+        assertEquals(List.of("BANKPLPW001"), index.findBranches("BANKPLPW"));
+        assertEquals(List.of("BANKPLPA", "BANKPLPW001"), index.findBranches("BANKPL"));
+    }
+
+    @Test
+    void changes_shouldUpdateIndex() {
+        index.onDeleted("BANKPLPW001");
+        index.onDeleted("MISSINGXXX");
+        assertTrue(index.findBranches("BANKPLPW").isEmpty());
+        assertEquals(4, index.size());
+
+        index.onSaved("BANKPLPA", true);
+        assertEquals(4, index.size());
+        assertTrue(index.findBranches("BANKPLPA").isEmpty());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.InternSwiftCodesProject.services;
+
+import org.junit.jupiter.api.Test;
+
+import static com.example.InternSwiftCodesProject.services.SwiftCodeValidator.Violation.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwiftCodeValidatorTest {
+    private final SwiftCodeValidator validator = new SwiftCodeValidator();
+
+    @Test
+    void validate_shouldAcceptBic8AndBic11() {
+        assertNull(validator.validate("BANKPLPW", "PL"));
+        assertNull(validator.validate("BANKPLPWXXX", "PL"));
+        assertNull(validator.validate("AIZKLV22XXX", "LV"));
+        assertNull(validator.validate("BANKPLP2A1B", "PL"));
+    }
+
+    @Test
+    void validate_shouldIgnoreCaseAndSurroundingWhitespace() {
+        assertNull(validator.validate("  bankplpw001 ", " pl"));
+    }
+
+    @Test
+    void validate_shouldOnlyAcceptLengthsEightAndEleven() {
+        assertEquals(MISSING, validator.validate("   ", "PL"));
+        assertEquals(MISSING, validator.validate(null, "PL"));
+        assertEquals(LENGTH, validator.validate("BANKPLP", "PL"));
+        assertEquals(LENGTH, validator.validate("BANKPLPW0", "PL"));
+        assertEquals(LENGTH, validator.validate("BANKPLPW01", "PL"));
+        assertEquals(LENGTH, validator.validate("BANKPLPW0011", "PL"));
+    }
+
+    @Test
+    void validate_shouldReportInvalidCharactersBeforeStructure() {
+        assertEquals(CHARACTERS, validator.validate("BANK@LPW", "PL"));
+        assertEquals(CHARACTERS, validator.validate("1ANKPLPW00-", "PL"));
+        assertEquals(CHARACTERS, validator.validate("BANKPLPWÄXX", "PL"));
+    }
+
+    @Test
+    void validate_shouldRequireLettersForBankAndCountry() {
+        assertEquals(BANK_CODE, validator.validate("BAN1PLPW", "PL"));
+        assertEquals(COUNTRY_CODE, validator.validate("BANKP1PW", "PL"));
+    }
+
+    @Test
+    void validate_shouldCrossCheckTheCountryLetters() {
+        assertEquals(COUNTRY_MISMATCH, validator.validate("BANKDEFFXXX", "PL"));
+        assertEquals(COUNTRY_MISMATCH, validator.validate("BANKPLPW", "LP"));
+        // Malformed countries are left to the country code check
+        assertNull(validator.validate("BANKPLPW", "POL"));
+        assertNull(validator.validate("BANKPLPW", null));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.InternSwiftCodesProject.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwiftCodeVersionsTest {
+    private SwiftCodeVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        versions = new SwiftCodeVersions();
+    }
+
+    @Test
+    void ofCode_shouldBeStableUntilTheCodeChanges() {
+        SwiftCodeVersions.Version before = versions.ofCode("BANKPLPW001");
+
+        assertEquals(before, versions.ofCode("bankplpw001"));
+        assertTrue(before.eTag().startsWith("\"") && before.eTag().endsWith("\""));
+
+        versions.onChanged("BANKPLPW001", "PL");
+
+        SwiftCodeVersions.Version after = versions.ofCode("BANKPLPW001");
+        assertNotEquals(before.eTag(), after.eTag());
+        assertTrue(after.lastModified().isAfter(before.lastModified()));
+    }
+
+    @Test
+    void onChanged_shouldBumpHeadquarterOfABranchAndItsCountryOnly() {
+        SwiftCodeVersions.Version headquarter = versions.ofCode("BANKPLPWXXX");
+        SwiftCodeVersions.Version otherCode = versions.ofCode("OTHRPLPWXXX");
+        SwiftCodeVersions.Version poland = versions.ofCountry("PL");
+        SwiftCodeVersions.Version germany = versions.ofCountry("DE");
+
+        versions.onChanged("BANKPLPW001", "PL");
+
+        assertNotEquals(headquarter, versions.ofCode("BANKPLPWXXX"));
+        assertEquals(otherCode, versions.ofCode("OTHRPLPWXXX"));
+        assertNotEquals(poland, versions.ofCountry("PL"));
+        assertEquals(germany, versions.ofCountry("DE"));
+    }
+
+    @Test
+    void lastModified_shouldMoveOnForEveryChangeWithinTheSameSecond() {
+        versions.onChanged("BANKPLPWXXX", "PL");
+        SwiftCodeVersions.Version first = versions.ofCountry("PL");
+        versions.onChanged("BANKPLPW001", "PL");
+
+        assertTrue(versions.ofCountry("PL").lastModified().isAfter(first.lastModified()));
+    }
+
+    @Test
+    void invalidateAll_shouldChangeEveryETag() {
+        versions.onChanged("BANKPLPWXXX", "PL");
+        SwiftCodeVersions.Version changed = versions.ofCode("BANKPLPWXXX");
+        SwiftCodeVersions.Version unchanged = versions.ofCountry("DE");
+
+        versions.invalidateAll();
+
+        assertNotEquals(changed.eTag(), versions.ofCode("BANKPLPWXXX").eTag());
+        assertNotEquals(unchanged.eTag(), versions.ofCountry("DE").eTag());
+    }
+}
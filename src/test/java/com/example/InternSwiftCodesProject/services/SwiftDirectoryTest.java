@@ -0,0 +1,128 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.SWIFTCodeRepo;
+import com.example.InternSwiftCodesProject.SwiftCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "swift.directory.in-memory=true")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class SwiftDirectoryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SwiftDirectory directory;
+
+    @Autowired
+    private SWIFTCodeRepo swiftCodeRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SwiftCodeBulkImporter bulkImporter;
+
+    @BeforeEach
+    void setUp() {
+        swiftCodeRepo.deleteAll();
+        directory.reload();
+    }
+
+    private void add(String swiftCode) throws Exception {
+        String json = """
+                {"swiftCode": "%s", "countryISO2": "PL", "countryName": "POLAND",
+                 "address": "Some Street", "bankName": "Memory Bank"}
+                """.formatted(swiftCode);
+        mockMvc.perform(post("/v1/swift-codes").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void writesShouldPublishNewSnapshots() throws Exception {
+        add("MEMOPLPW001");
+        add("MEMOPLPWXXX");
+
+        SwiftDirectorySnapshot snapshot = directory.snapshot();
+        assertEquals(2, snapshot.size());
+        assertEquals("MEMOPLPWXXX", snapshot.get("MEMOPLPW001").orElseThrow().getHeadquarterSwift());
+
+        mockMvc.perform(delete("/v1/swift-codes/MEMOPLPWXXX")).andExpect(status().isOk());
+        assertNull(directory.snapshot().get("MEMOPLPW001").orElseThrow().getHeadquarterSwift());
+    }
+
+    @Test
+    void readsShouldBeServedFromMemory() throws Exception {
+        add("MEMOPLPWXXX");
+        add("MEMOPLPW001");
+
+        // Remove the rows behind the directory's back: reads must not notice
+        jdbcTemplate.update("DELETE FROM swift_codes");
+
+        mockMvc.perform(get("/v1/swift-codes/MEMOPLPWXXX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.branches[0].swiftCode").value("MEMOPLPW001"));
+        mockMvc.perform(get("/v1/swift-codes/country/PL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes.length()").value(2));
+        mockMvc.perform(get("/v1/swift-codes/country/PL/page").param("limit", "1").param("after", "MEMOPLPW001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes[0].swiftCode").value("MEMOPLPWXXX"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void deltaImportsShouldPatchOnlyTheChangedCodes() throws Exception {
+        add("MEMOPLPW001");
+        add("OLDDPLPWXXX");
+        add("OLDDPLPW001");
+        // Written behind the directory's back and unchanged by the file; a full reload would pick it up
+        SwiftCode hidden = new SwiftCode("HIDEPLPWXXX", "Hidden", "Street", "PL", "POLAND", true);
+        jdbcTemplate.update("INSERT INTO swift_codes (swift_code, bank_name, address, countryiso2, country_name, "
+                + "headquarter_flag, bank_prefix, content_hash) VALUES ('HIDEPLPWXXX', 'Hidden', 'Street', 'PL', 'POLAND', "
+                + "TRUE, 'HIDEPLPW', ?)", SwiftCode.contentHashOf(hidden));
+
+        BulkImportResult result = bulkImporter.importRecords(List.of(
+                new SwiftCode("MEMOPLPW001", "Memory Bank", "Some Street", "PL", "POLAND", false),
+                new SwiftCode("MEMOPLPWXXX", "Memory Bank", "Head Office", "PL", "POLAND", true),
+                new SwiftCode("OLDDPLPW001", "Memory Bank", "Moved Street", "PL", "POLAND", false),
+                hidden
+        ).iterator(), ImportMode.DELTA);
+
+        assertEquals(1, result.getAdded());
+        assertEquals(1, result.getDeleted());
+        SwiftDirectorySnapshot snapshot = directory.snapshot();
+        assertEquals("MEMOPLPWXXX", snapshot.get("MEMOPLPW001").orElseThrow().getHeadquarterSwift());
+        assertFalse(snapshot.contains("OLDDPLPWXXX"));
+        SwiftDirectoryEntry moved = snapshot.get("OLDDPLPW001").orElseThrow();
+        assertEquals("Moved Street", moved.getAddress());
+        assertNull(moved.getHeadquarterSwift());
+        assertFalse(snapshot.contains("HIDEPLPWXXX"));
+    }
+
+    @Test
+    void reloadShouldPickUpBulkImports() {
+        jdbcTemplate.update("INSERT INTO swift_codes (swift_code, bank_name, address, countryiso2, country_name, "
+                + "headquarter_flag, bank_prefix) VALUES ('BULKPLPWXXX', 'Bulk', 'Street', 'PL', 'POLAND', TRUE, 'BULKPLPW')");
+        assertFalse(directory.snapshot().contains("BULKPLPWXXX"));
+
+        directory.reload();
+
+        assertTrue(directory.snapshot().contains("BULKPLPWXXX"));
+    }
+}
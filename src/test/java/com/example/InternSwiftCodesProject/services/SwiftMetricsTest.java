@@ -0,0 +1,72 @@
+package com.example.InternSwiftCodesProject.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class SwiftMetricsTest {
+
+    @Mock
+    private SwiftCodePrefixIndex prefixIndex;
+
+    private SimpleMeterRegistry registry;
+    private SwiftMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        metrics = new SwiftMetrics(registry, prefixIndex);
+    }
+
+    @Test
+    void tableSizeGauge_shouldReadThePrefixIndex() {
+        when(prefixIndex.size()).thenReturn(42);
+
+        assertEquals(42.0, registry.get("swift.codes.size").gauge().value());
+    }
+
+    @Test
+    void recordCountryResponse_shouldKeepOneUntaggedSummary() {
+        metrics.recordCountryResponse(10);
+        metrics.recordCountryResponse(30);
+        metrics.recordCountryResponse(2);
+
+        assertEquals(1, registry.find("swift.country.response.codes").summaries().size());
+        assertTrue(registry.get("swift.country.response.codes").summary().getId().getTags().isEmpty());
+        assertEquals(3, registry.get("swift.country.response.codes").summary().count());
+        assertEquals(30.0, registry.get("swift.country.response.codes").summary().max());
+    }
+
+    @Test
+    void timeStage_shouldTimeTheActionAndReturnItsResult() {
+        int inserted = metrics.timeStage("write-chunk", () -> 7);
+        metrics.timeStage("refresh", () -> { });
+
+        assertEquals(7, inserted);
+        assertEquals(1, registry.get("swift.import.stage").tag("stage", "write-chunk").timer().count());
+        assertEquals(1, registry.get("swift.import.stage").tag("stage", "refresh").timer().count());
+    }
+
+    @Test
+    void recordImport_shouldAddRowsByOutcome() {
+        BulkImportResult result = new BulkImportResult();
+        result.addAdded(5);
+        result.addSkipped(2);
+        result.addRejected(1);
+        result.addLinkedBranches(3);
+
+        metrics.recordImport(result);
+        metrics.recordImport(result);
+
+        assertEquals(10.0, registry.get("swift.import.rows").tag("outcome", "added").counter().count());
+        assertEquals(4.0, registry.get("swift.import.rows").tag("outcome", "skipped").counter().count());
+        assertEquals(2.0, registry.get("swift.import.rows").tag("outcome", "rejected").counter().count());
+        assertEquals(6.0, registry.get("swift.import.rows").tag("outcome", "linked").counter().count());
+    }
+}
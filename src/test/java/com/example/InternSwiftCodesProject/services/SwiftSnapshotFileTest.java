@@ -0,0 +1,82 @@
+package com.example.InternSwiftCodesProject.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwiftSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<SwiftDirectoryEntry> sample() {
+        return List.of(
+                new SwiftDirectoryEntry("BANKPLPW001", "Bank", "ul. Łódzka 1", "PL", "POLAND", false, "BANKPLPWXXX"),
+                new SwiftDirectoryEntry("BANKPLPWXXX", "Bank", "Head office", "PL", "POLAND", true, null),
+                new SwiftDirectoryEntry("OTHRDEFF", "Other", "", "DE", "GERMANY", false, null)
+        );
+    }
+
+    @Test
+    void write_shouldRoundTripSortedRows_withAndWithoutCompression() throws IOException {
+        List<SwiftDirectoryEntry> entries = new ArrayList<>(sample());
+        Collections.reverse(entries);
+
+        for (boolean compress : List.of(true, false)) {
+            Path file = directory.resolve("directory-" + compress + ".snap");
+            long bytes = SwiftSnapshotFile.write(file, entries, compress);
+            SwiftSnapshotFile.Contents contents = SwiftSnapshotFile.read(file);
+
+            assertEquals(Files.size(file), bytes);
+            assertEquals(SwiftSnapshotFile.FORMAT_VERSION, contents.formatVersion());
+            assertEquals(compress, contents.compressed());
+            assertEquals(sample(), contents.entries());
+        }
+    }
+
+    @Test
+    void read_shouldRejectACorruptedBody() throws IOException {
+        Path file = directory.resolve("directory.snap");
+        SwiftSnapshotFile.write(file, sample(), false);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 5] ^= 1;
+        Files.write(file, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> SwiftSnapshotFile.read(file));
+        assertTrue(e.getMessage().contains("checksum mismatch"));
+    }
+
+    @Test
+    void read_shouldRejectAnUnknownFormatVersion() throws IOException {
+        Path file = directory.resolve("directory.snap");
+        SwiftSnapshotFile.write(file, sample(), true);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(8, SwiftSnapshotFile.FORMAT_VERSION + 1);
+        Files.write(file, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> SwiftSnapshotFile.read(file));
+        assertTrue(e.getMessage().contains("format version"));
+    }
+
+    @Test
+    void read_shouldRejectTruncatedAndForeignFiles() throws IOException {
+        Path file = directory.resolve("directory.snap");
+        SwiftSnapshotFile.write(file, sample(), true);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> SwiftSnapshotFile.read(file));
+
+        Files.writeString(file, "SWIFT CODE,NAME,ADDRESS,COUNTRY ISO2 CODE,COUNTRY NAME\n");
+        assertThrows(IOException.class, () -> SwiftSnapshotFile.read(file));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.InternSwiftCodesProject.services;
+
+import com.example.InternSwiftCodesProject.SWIFTCodeRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Boots on its own empty database with a snapshot in place, like a new replica
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshotdb;DB_CLOSE_DELAY=-1",
+        "swift.directory.in-memory=true",
+        "swift.snapshot.write-on-shutdown=false"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class SwiftSnapshotsTest {
+    private static Path snapshot;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SwiftDirectory directory;
+
+    @Autowired
+    private SwiftCodePrefixIndex prefixIndex;
+
+    @Autowired
+    private SWIFTCodeRepo swiftCodeRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void snapshotPath(DynamicPropertyRegistry registry) throws IOException {
+        snapshot = Files.createTempDirectory("swift-snapshot").resolve("directory.snap");
+        SwiftSnapshotFile.write(snapshot, List.of(
+                new SwiftDirectoryEntry("SNAPPLPWXXX", "Snapshot Bank", "Head office", "PL", "POLAND", true, null),
+                new SwiftDirectoryEntry("SNAPPLPW001", "Snapshot Bank", "Branch 1", "PL", "POLAND", false, "SNAPPLPWXXX"),
+                new SwiftDirectoryEntry("SNAPDEFFXXX", "Snapshot Bank", "Frankfurt office", "DE", "GERMANY", true, null)
+        ), true);
+        registry.add("swift.snapshot.path", snapshot::toString);
+    }
+
+    @Test
+    void boot_shouldSeedAnEmptyTableFromTheSnapshotAndApplyTheCsvFilesOnTop() {
+        assertTrue(swiftCodeRepo.existsById("SNAPPLPWXXX"));
+        assertTrue(swiftCodeRepo.existsById("SNAPDEFFXXX"));
+        assertEquals(1, swiftCodeRepo.findByHeadquarter_SwiftCode("SNAPPLPWXXX").size());
+        assertEquals("SNAPPLPWXXX", directory.snapshot().get("SNAPPLPW001").orElseThrow().getHeadquarterSwift());
+        assertEquals(2, prefixIndex.count("SNAPPLPW"));
+        // This database has no record of the example CSV on the classpath, so it was merged in after the snapshot
+        assertTrue(swiftCodeRepo.existsById("AAISALTRXXX"));
+        assertTrue(directory.snapshot().contains("AAISALTRXXX"));
+    }
+
+    @Test
+    void postSnapshot_shouldRewriteTheFileFromTheTable() throws Exception {
+        String json = """
+                {"swiftCode": "SNAPPLPW002", "countryISO2": "PL", "countryName": "POLAND",
+                 "address": "Branch 2", "bankName": "Snapshot Bank"}
+                """;
+        mockMvc.perform(post("/v1/swift-codes").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk());
+        try {
+            mockMvc.perform(post("/v1/swift-codes/directory/snapshot"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.formatVersion").value(SwiftSnapshotFile.FORMAT_VERSION))
+                    .andExpect(jsonPath("$.rows").value(swiftCodeRepo.count()));
+            SwiftSnapshotFile.Contents contents = SwiftSnapshotFile.read(snapshot);
+            assertEquals("SNAPPLPWXXX", contents.entries().stream()
+                    .filter(entry -> entry.getSwiftCode().equals("SNAPPLPW002"))
+                    .findFirst().orElseThrow().getHeadquarterSwift());
+
+            byte[] download = mockMvc.perform(get("/v1/swift-codes/directory/snapshot"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertEquals("SWFTSNAP", new String(Arrays.copyOf(download, 8), StandardCharsets.US_ASCII));
+        } finally {
+            mockMvc.perform(delete("/v1/swift-codes/SNAPPLPW002"));
+        }
+    }
+
+    @Test
+    void startupSnapshot_shouldIgnoreStaleAndCorruptFiles() throws IOException {
+        Path stale = snapshot.resolveSibling("stale.snap");
+        SwiftSnapshotFile.write(stale, List.of(
+                new SwiftDirectoryEntry("SNAPPLPWXXX", "Snapshot Bank", "Head office", "PL", "POLAND", true, null)), false);
+        assertTrue(new SwiftSnapshots(jdbcTemplate, stale.toString(), true, false).startupSnapshot().isEmpty());
+
+        // Same row count as the table, but one row changed in place
+        List<SwiftDirectoryEntry> table = SwiftDirectory.loadEntries(jdbcTemplate);
+        Path current = snapshot.resolveSibling("current.snap");
+        SwiftSnapshotFile.write(current, table, false);
+        assertTrue(new SwiftSnapshots(jdbcTemplate, current.toString(), true, false).startupSnapshot().isPresent());
+        List<SwiftDirectoryEntry> edited = new ArrayList<>(table);
+        SwiftDirectoryEntry first = edited.get(0);
+        edited.set(0, new SwiftDirectoryEntry(first.getSwiftCode(), first.getBankName(), "Changed address",
+                first.getCountryISO2(), first.getCountryName(), first.isHeadquarterFlag(), first.getHeadquarterSwift()));
+        Path changed = snapshot.resolveSibling("changed.snap");
+        SwiftSnapshotFile.write(changed, edited, false);
+        assertTrue(new SwiftSnapshots(jdbcTemplate, changed.toString(), true, false).startupSnapshot().isEmpty());
+
+        // One code swapped for another with identical content, and a branch re-pointed to another headquarter
+        List<SwiftDirectoryEntry> swapped = new ArrayList<>(table);
+        swapped.set(0, new SwiftDirectoryEntry("SWAPPLPWXXX", first.getBankName(), first.getAddress(),
+                first.getCountryISO2(), first.getCountryName(), first.isHeadquarterFlag(), first.getHeadquarterSwift()));
+        Path renamed = snapshot.resolveSibling("renamed.snap");
+        SwiftSnapshotFile.write(renamed, swapped, false);
+        assertTrue(new SwiftSnapshots(jdbcTemplate, renamed.toString(), true, false).startupSnapshot().isEmpty());
+        List<SwiftDirectoryEntry> repointed = new ArrayList<>(table);
+        int branch = 0;
+        while (repointed.get(branch).getHeadquarterSwift() == null) {
+            branch++;
+        }
+        repointed.set(branch, repointed.get(branch).withHeadquarterSwift("OTHRPLPWXXX"));
+        Path relinked = snapshot.resolveSibling("relinked.snap");
+        SwiftSnapshotFile.write(relinked, repointed, false);
+        assertTrue(new SwiftSnapshots(jdbcTemplate, relinked.toString(), true, false).startupSnapshot().isEmpty());
+
+        Path corrupt = snapshot.resolveSibling("corrupt.snap");
+        Files.write(corrupt, new byte[64]);
+        assertTrue(new SwiftSnapshots(jdbcTemplate, corrupt.toString(), true, false).startupSnapshot().isEmpty());
+
+        assertTrue(new SwiftSnapshots(jdbcTemplate, snapshot.resolveSibling("missing.snap").toString(), true, false)
+                .startupSnapshot().isEmpty());
+    }
+}